@@ -0,0 +1,80 @@
+import java.util.Random;
+
+/**
+ * SudokuGridBenchmark class
+ * 
+ * Compares the speed of creating completely filled grids with the original
+ * populateFirstBoard and populateRemainingBoard path against
+ * SudokuFullGridGenerator. Each path is warmed up first and then timed for a
+ * fixed duration on a single thread.
+ * 
+ * Usage: java SudokuGridBenchmark [seconds per path]
+ */
+public class SudokuGridBenchmark
+{
+    private static final int CELL_COUNT = SudokuGridGenerator.BOARD_SIZE * SudokuGridGenerator.BOARD_SIZE;
+
+    public static void main(String[] args)
+    {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 5;
+        long nanos = seconds * 1_000_000_000L;
+
+        // Warm up both paths before measuring.
+        runLegacy(nanos / 5);
+        runFullGrid(nanos / 5);
+
+        long legacyGrids = runLegacy(nanos);
+        long fullGrids = runFullGrid(nanos);
+        System.out.printf("populateFirstBoard + populateRemainingBoard: %,.0f grids/s%n", legacyGrids / (double) seconds);
+        System.out.printf("SudokuFullGridGenerator:                    %,.0f grids/s%n", fullGrids / (double) seconds);
+    }
+
+    /**
+     * Create grids the way SudokuGame originally did until the time runs out.
+     * 
+     * @param nanos how long to run for.
+     * @return the number of grids created.
+     */
+    private static long runLegacy(long nanos)
+    {
+        Random rand = new Random();
+        long count = 0;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end)
+        {
+            SudokuGridGenerator grid = new SudokuGridGenerator();
+            grid.populateFirstBoard(rand.nextInt(SudokuGridGenerator.MAX_NUM), rand.nextInt(SudokuGridGenerator.MAX_NUM),
+                    rand.nextInt(SudokuGridGenerator.MAX_NUM) + 1);
+            grid.populateRemainingBoard(grid.getBoard(), 0);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Create grids with SudokuFullGridGenerator until the time runs out.
+     * 
+     * @param nanos how long to run for.
+     * @return the number of grids created.
+     */
+    private static long runFullGrid(long nanos)
+    {
+        SudokuFullGridGenerator fullGrid = new SudokuFullGridGenerator();
+        int[] cells = new int[CELL_COUNT];
+        long count = 0;
+        long checksum = 0;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end)
+        {
+            fullGrid.generate(cells);
+            checksum += cells[CELL_COUNT - 1];
+            count++;
+        }
+        // Use the checksum so the generated grids cannot be optimized away.
+        if (checksum == 0)
+        {
+            System.out.println();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * SudokuLatencyHistogram class
+ * 
+ * Records latencies in nanoseconds into log-linear buckets, in the style of
+ * HdrHistogram: values below 128 are counted exactly and larger values are
+ * counted in buckets no wider than 1/64 of their value, so every percentile is
+ * within about 1.6% of the recorded latency. Recording is a few instructions
+ * and never allocates. A histogram is not thread safe; give each thread its own
+ * and add them together afterwards.
+ */
+public final class SudokuLatencyHistogram
+{
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF_COUNT = SUB_COUNT / 2;
+    private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+    private long sum;
+
+    /**
+     * Record one latency.
+     * 
+     * @param nanos the latency in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos)
+    {
+        long value = Math.max(nanos, 0);
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < minValue)
+        {
+            minValue = value;
+        }
+        if (value > maxValue)
+        {
+            maxValue = value;
+        }
+    }
+
+    /**
+     * Add every latency recorded by another histogram to this one.
+     * 
+     * @param other the histogram to add.
+     */
+    public void add(SudokuLatencyHistogram other)
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public long getTotalCount()
+    {
+        return totalCount;
+    }
+
+    public long getMax()
+    {
+        return maxValue;
+    }
+
+    public long getMin()
+    {
+        return totalCount == 0 ? 0 : minValue;
+    }
+
+    public double getMean()
+    {
+        return totalCount == 0 ? 0 : sum / (double) totalCount;
+    }
+
+    /**
+     * Find the latency at a percentile. The result is the upper end of the
+     * bucket that holds it, but never more than the largest recorded latency.
+     * 
+     * @param percentile the percentile, from 0 to 100.
+     * @return the latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (percentile < 0 || percentile > 100)
+        {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        if (totalCount == 0)
+        {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+            {
+                return Math.min(highestValueIn(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Find the bucket of a value. Values below SUB_COUNT have a bucket each; a
+     * larger value is shifted right until it has SUB_BITS bits, and its bucket
+     * is determined by that shift and the remaining bits.
+     */
+    private static int bucketIndex(long value)
+    {
+        if (value < SUB_COUNT)
+        {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return shift * HALF_COUNT + (int) (value >>> shift);
+    }
+
+    private static long lowestValueIn(int index)
+    {
+        if (index < SUB_COUNT)
+        {
+            return index;
+        }
+        int shift = index / HALF_COUNT - 1;
+        return (long) (index - shift * HALF_COUNT) << shift;
+    }
+
+    private static long highestValueIn(int index)
+    {
+        if (index + 1 >= BUCKET_COUNT)
+        {
+            return Long.MAX_VALUE;
+        }
+        return lowestValueIn(index + 1) - 1;
+    }
+}
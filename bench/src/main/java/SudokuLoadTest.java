@@ -0,0 +1,483 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SudokuLoadTest class
+ * 
+ * Drives the engine from several client threads at a fixed total request rate
+ * and reports latency percentiles per operation and throughput per second.
+ * 
+ * The load is open loop: every client has a schedule of intended start times,
+ * and the latency of a request is measured from its intended start rather than
+ * from when the client got round to sending it. A slow request therefore delays
+ * the requests queued behind it and their latencies include that wait, instead
+ * of the client quietly sending fewer requests, which would hide the stall
+ * (coordinated omission).
+ * 
+ * The operations are solve and validate, on a pool of hard puzzles generated
+ * up front, and generate-easy, generate-medium and generate-hard. The mix gives
+ * each operation a weight. Solve and validate go through the engine picked by
+ * the sudoku.engine system property, so two runs with different values compare
+ * engines; the report ends with the statistics of the engines used.
+ * 
+ * Usage:
+ *   java SudokuLoadTest [--clients n] [--rate requests/s] [--warmup s]
+ *                       [--duration s] [--mix op=weight,...] [--seed n]
+ *                       [--report file]
+ *   java SudokuLoadTest compare base-report new-report
+ */
+public class SudokuLoadTest
+{
+    private static final String[] OPERATIONS = { "solve", "validate", "generate-easy", "generate-medium",
+            "generate-hard" };
+    private static final int SOLVE = 0;
+    private static final int VALIDATE = 1;
+    private static final int PUZZLE_POOL_SIZE = 256;
+    private static final long SECOND_NANOS = 1_000_000_000L;
+    private static final String TABLE_HEADER = "operation";
+
+    private int clients = Runtime.getRuntime().availableProcessors();
+    private double rate = 100;
+    private int warmupSeconds = 5;
+    private int durationSeconds = 30;
+    private String mix = "solve=6,validate=3,generate-easy=1,generate-medium=1,generate-hard=1";
+    private long seed = 1;
+    private String reportFile;
+
+    public static void main(String[] args) throws Exception
+    {
+        if (args.length > 0 && args[0].equals("compare"))
+        {
+            if (args.length != 3)
+            {
+                usage();
+            }
+            compare(args[1], args[2]);
+            return;
+        }
+        SudokuLoadTest test = new SudokuLoadTest();
+        if (!test.parseOptions(args))
+        {
+            usage();
+        }
+        test.run();
+    }
+
+    private boolean parseOptions(String[] args)
+    {
+        if (args.length % 2 != 0)
+        {
+            return false;
+        }
+        for (int i = 0; i < args.length; i += 2)
+        {
+            String value = args[i + 1];
+            switch (args[i])
+            {
+            case "--clients":
+                clients = Integer.parseInt(value);
+                break;
+            case "--rate":
+                rate = Double.parseDouble(value);
+                break;
+            case "--warmup":
+                warmupSeconds = Integer.parseInt(value);
+                break;
+            case "--duration":
+                durationSeconds = Integer.parseInt(value);
+                break;
+            case "--mix":
+                mix = value;
+                break;
+            case "--seed":
+                seed = Long.parseLong(value);
+                break;
+            case "--report":
+                reportFile = value;
+                break;
+            default:
+                return false;
+            }
+        }
+        if (clients <= 0 || rate <= 0 || warmupSeconds < 0 || durationSeconds <= 0)
+        {
+            throw new IllegalArgumentException("clients, rate and duration must be positive");
+        }
+        return true;
+    }
+
+    private void run() throws Exception
+    {
+        int[] cumulativeWeights = parseMix(mix);
+        int[][][] puzzles = createPuzzles(seed);
+        long period = Math.round(clients * SECOND_NANOS / rate);
+        // Start a little in the future so every client is waiting when the schedule begins.
+        long start = System.nanoTime() + SECOND_NANOS / 10;
+        long measureStart = start + warmupSeconds * SECOND_NANOS;
+        long end = measureStart + durationSeconds * SECOND_NANOS;
+
+        Client[] clientList = new Client[clients];
+        Thread[] threads = new Thread[clients];
+        for (int i = 0; i < clients; i++)
+        {
+            clientList[i] = new Client(puzzles, cumulativeWeights, seed + i, start + i * period / clients, period,
+                    measureStart, end);
+            threads[i] = new Thread(clientList[i], "load-client-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        SudokuLatencyHistogram[] histograms = new SudokuLatencyHistogram[OPERATIONS.length];
+        SudokuLatencyHistogram all = new SudokuLatencyHistogram();
+        long[] errors = new long[OPERATIONS.length];
+        long[] intervalCounts = new long[0];
+        long[] intervalMax = new long[0];
+        for (int op = 0; op < OPERATIONS.length; op++)
+        {
+            histograms[op] = new SudokuLatencyHistogram();
+            for (Client client : clientList)
+            {
+                histograms[op].add(client.histograms[op]);
+                errors[op] += client.errors[op];
+            }
+            all.add(histograms[op]);
+        }
+        for (Client client : clientList)
+        {
+            int length = Math.max(intervalCounts.length, client.intervalCounts.length);
+            intervalCounts = Arrays.copyOf(intervalCounts, length);
+            intervalMax = Arrays.copyOf(intervalMax, length);
+            for (int i = 0; i < client.intervalCounts.length; i++)
+            {
+                intervalCounts[i] += client.intervalCounts[i];
+                intervalMax[i] = Math.max(intervalMax[i], client.intervalMax[i]);
+            }
+        }
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        writeReport(new PrintStream(report, false, "UTF-8"), histograms, all, errors, intervalCounts, intervalMax);
+        System.out.write(report.toByteArray());
+        System.out.flush();
+        if (reportFile != null)
+        {
+            Files.write(Paths.get(reportFile), report.toByteArray());
+        }
+        long lastDone = end;
+        for (Client client : clientList)
+        {
+            lastDone = Math.max(lastDone, client.lastDone);
+        }
+        // A request scheduled just before the end should finish well within a second of it.
+        if (lastDone - end > SECOND_NANOS)
+        {
+            System.err.printf("Warning: the last request finished %.1f s after the schedule ended; the engine did not "
+                    + "keep up with the target rate, so the latencies are mostly queueing.%n",
+                    (lastDone - end) / (double) SECOND_NANOS);
+        }
+    }
+
+    private void writeReport(PrintStream out, SudokuLatencyHistogram[] histograms, SudokuLatencyHistogram all,
+            long[] errors, long[] intervalCounts, long[] intervalMax)
+    {
+        out.println("# Sudoku load test report");
+        out.println("java.version=" + System.getProperty("java.version"));
+        out.println("processors=" + Runtime.getRuntime().availableProcessors());
+        out.println("clients=" + clients);
+        out.println("rate=" + rate);
+        out.println("warmup=" + warmupSeconds);
+        out.println("duration=" + durationSeconds);
+        out.println("mix=" + mix);
+        out.println("seed=" + seed);
+        out.println("engine=" + SudokuSolverEngines.getDefault().getName());
+        out.printf("throughput=%.1f%n", all.getTotalCount() / (double) durationSeconds);
+        out.println();
+        out.printf("%-16s %9s %7s %10s %10s %10s %10s %10s%n", TABLE_HEADER, "count", "errors", "p50_us",
+                "p99_us", "p99.9_us", "max_us", "mean_us");
+        long totalErrors = 0;
+        for (int op = 0; op < OPERATIONS.length; op++)
+        {
+            if (histograms[op].getTotalCount() > 0 || errors[op] > 0)
+            {
+                writeRow(out, OPERATIONS[op], histograms[op], errors[op]);
+            }
+            totalErrors += errors[op];
+        }
+        writeRow(out, "all", all, totalErrors);
+        out.println();
+        out.printf("%-8s %9s %10s%n", "second", "completed", "max_us");
+        for (int i = 0; i < intervalCounts.length; i++)
+        {
+            out.printf("%-8d %9d %10.1f%n", i + 1, intervalCounts[i], intervalMax[i] / 1000.0);
+        }
+        out.println();
+        // Engine totals since the start of the process, including the warmup and the puzzle pool.
+        for (SudokuEngineStatistics statistics : SudokuSolverEngines.getAllStatistics())
+        {
+            out.println(statistics);
+        }
+        out.flush();
+    }
+
+    private static void writeRow(PrintStream out, String name, SudokuLatencyHistogram histogram, long errors)
+    {
+        out.printf("%-16s %9d %7d %10.1f %10.1f %10.1f %10.1f %10.1f%n", name, histogram.getTotalCount(), errors,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMax() / 1000.0,
+                histogram.getMean() / 1000.0);
+    }
+
+    /**
+     * Print the latency percentiles of two reports side by side, with the change
+     * from the first to the second.
+     * 
+     * @param baseFile the report of the earlier build.
+     * @param newFile  the report of the later build.
+     * @throws IOException if a report cannot be read.
+     */
+    private static void compare(String baseFile, String newFile) throws IOException
+    {
+        Map<String, double[]> base = readTable(baseFile);
+        Map<String, double[]> current = readTable(newFile);
+        String[] columns = { "p50_us", "p99_us", "p99.9_us", "max_us" };
+        System.out.printf("%-16s %-9s %12s %12s %9s%n", TABLE_HEADER, "metric", "base", "new", "change");
+        for (Map.Entry<String, double[]> entry : base.entrySet())
+        {
+            double[] after = current.get(entry.getKey());
+            if (after == null)
+            {
+                continue;
+            }
+            for (int c = 0; c < columns.length; c++)
+            {
+                double before = entry.getValue()[c];
+                double change = before == 0 ? 0 : (after[c] - before) / before * 100;
+                System.out.printf("%-16s %-9s %12.1f %12.1f %+8.1f%%%n", entry.getKey(), columns[c], before,
+                        after[c], change);
+            }
+        }
+    }
+
+    /**
+     * Read the latency table of a report.
+     * 
+     * @param file the report.
+     * @return the p50, p99, p99.9 and max latencies by operation, in report
+     *         order.
+     * @throws IOException if the report cannot be read.
+     */
+    private static Map<String, double[]> readTable(String file) throws IOException
+    {
+        Map<String, double[]> table = new LinkedHashMap<>();
+        boolean inTable = false;
+        for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8))
+        {
+            String[] fields = line.trim().split("\\s+");
+            if (fields[0].equals(TABLE_HEADER))
+            {
+                inTable = true;
+            }
+            else if (inTable && fields.length == 8)
+            {
+                table.put(fields[0], new double[] { Double.parseDouble(fields[3]), Double.parseDouble(fields[4]),
+                        Double.parseDouble(fields[5]), Double.parseDouble(fields[6]) });
+            }
+            else if (inTable)
+            {
+                break;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Turn a mix such as "solve=6,generate-hard=1" into cumulative weights per
+     * operation.
+     * 
+     * @param mix the mix.
+     * @return the cumulative weights, indexed like OPERATIONS.
+     */
+    private static int[] parseMix(String mix)
+    {
+        int[] weights = new int[OPERATIONS.length];
+        for (String entry : mix.split(","))
+        {
+            String[] parts = entry.split("=");
+            int op = Arrays.asList(OPERATIONS).indexOf(parts[0].trim());
+            if (parts.length != 2 || op < 0)
+            {
+                throw new IllegalArgumentException("Unknown mix entry: " + entry);
+            }
+            weights[op] = Integer.parseInt(parts[1].trim());
+            if (weights[op] < 0)
+            {
+                throw new IllegalArgumentException("Negative weight: " + entry);
+            }
+        }
+        for (int op = 1; op < weights.length; op++)
+        {
+            weights[op] += weights[op - 1];
+        }
+        if (weights[weights.length - 1] == 0)
+        {
+            throw new IllegalArgumentException("The mix has no operations: " + mix);
+        }
+        return weights;
+    }
+
+    private static int[][][] createPuzzles(long seed)
+    {
+        SudokuGridGenerator generator = new SudokuGridGenerator(seed);
+        generator.setGameType("hard");
+        int[][][] puzzles = new int[PUZZLE_POOL_SIZE][][];
+        for (int i = 0; i < PUZZLE_POOL_SIZE; i++)
+        {
+            generator.populateFullBoard();
+            generator.finalizeBoard();
+            puzzles[i] = new int[SudokuGridGenerator.BOARD_SIZE][];
+            for (int row = 0; row < SudokuGridGenerator.BOARD_SIZE; row++)
+            {
+                puzzles[i][row] = generator.getBoard()[row].clone();
+            }
+        }
+        return puzzles;
+    }
+
+    private static void usage()
+    {
+        System.err.println("Usage: java SudokuLoadTest [--clients n] [--rate requests/s] [--warmup s]");
+        System.err.println("                           [--duration s] [--mix op=weight,...] [--seed n]");
+        System.err.println("                           [--report file]");
+        System.err.println("       java SudokuLoadTest compare base-report new-report");
+        System.err.println("Operations: " + String.join(", ", OPERATIONS));
+        System.exit(2);
+    }
+
+    /**
+     * One client thread. It sends a request every period nanoseconds from its
+     * first start time until the end time and records only the requests whose
+     * intended start falls after the warmup.
+     */
+    private static final class Client implements Runnable
+    {
+        private final int[][][] puzzles;
+        private final int[] cumulativeWeights;
+        private final SplittableRandom random;
+        private final SudokuGridGenerator generator;
+        private final int[][] solution = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        private final long firstStart;
+        private final long period;
+        private final long measureStart;
+        private final long end;
+        final SudokuLatencyHistogram[] histograms = new SudokuLatencyHistogram[OPERATIONS.length];
+        final long[] errors = new long[OPERATIONS.length];
+        long[] intervalCounts = new long[0];
+        long[] intervalMax = new long[0];
+        long lastDone;
+
+        Client(int[][][] puzzles, int[] cumulativeWeights, long seed, long firstStart, long period, long measureStart,
+                long end)
+        {
+            this.puzzles = puzzles;
+            this.cumulativeWeights = cumulativeWeights;
+            this.random = new SplittableRandom(seed);
+            this.generator = new SudokuGridGenerator(seed);
+            this.firstStart = firstStart;
+            this.period = period;
+            this.measureStart = measureStart;
+            this.end = end;
+            for (int op = 0; op < OPERATIONS.length; op++)
+            {
+                histograms[op] = new SudokuLatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            for (long n = 0;; n++)
+            {
+                long intended = firstStart + n * period;
+                if (intended >= end)
+                {
+                    return;
+                }
+                long now;
+                while ((now = System.nanoTime()) < intended)
+                {
+                    LockSupport.parkNanos(intended - now);
+                }
+                int op = chooseOperation();
+                boolean ok;
+                try
+                {
+                    ok = execute(op);
+                }
+                catch (RuntimeException e)
+                {
+                    ok = false;
+                }
+                long done = System.nanoTime();
+                lastDone = done;
+                if (intended < measureStart)
+                {
+                    continue;
+                }
+                if (!ok)
+                {
+                    errors[op]++;
+                    continue;
+                }
+                long latency = done - intended;
+                histograms[op].record(latency);
+                int second = (int) ((done - measureStart) / SECOND_NANOS);
+                if (second >= intervalCounts.length)
+                {
+                    intervalCounts = Arrays.copyOf(intervalCounts, second + 1);
+                    intervalMax = Arrays.copyOf(intervalMax, second + 1);
+                }
+                intervalCounts[second]++;
+                intervalMax[second] = Math.max(intervalMax[second], latency);
+            }
+        }
+
+        private int chooseOperation()
+        {
+            int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int op = 0;
+            while (pick >= cumulativeWeights[op])
+            {
+                op++;
+            }
+            return op;
+        }
+
+        private boolean execute(int op)
+        {
+            if (op == SOLVE)
+            {
+                return SudokuSolverEngines.getDefault().solve(puzzles[random.nextInt(puzzles.length)], solution,
+                        null) == SudokuSearchStatus.COMPLETED;
+            }
+            if (op == VALIDATE)
+            {
+                return SudokuSolverEngines.getDefault().isUnique(puzzles[random.nextInt(puzzles.length)]);
+            }
+            generator.setGameType(OPERATIONS[op].substring("generate-".length()));
+            generator.populateFullBoard();
+            generator.finalizeBoard();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SudokuRestartBenchmark class
+ * 
+ * Measures the latency of generating one puzzle (populateFullBoard followed by
+ * finalizeBoard) for each difficulty under different restart schedules of
+ * finalizeBoard, so that a schedule is only made the default if it shrinks the
+ * tail. Every schedule generates the same number of puzzles from the same
+ * seeds on a single thread, after every schedule of the difficulty has been
+ * warmed up so that the first one measured is not penalized by the JIT. The
+ * report lists p50, p99, p99.9 and max latencies and the mean number of
+ * clues, since a schedule that gives up early also tends to leave more clues.
+ * 
+ * The schedules are the generator's default, never(), and a Luby schedule for
+ * each base cutoff given.
+ * 
+ * Usage:
+ *   java SudokuRestartBenchmark [--puzzles n] [--warmup n] [--seed n]
+ *                               [--luby base,...] [--games game,...]
+ */
+public class SudokuRestartBenchmark
+{
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private int puzzles = 20000;
+    private int warmup = 5000;
+    private long seed = 1;
+    private long[] lubyBases = { 2000, 20000, 200000 };
+    private String[] games = { "easy", "medium", "hard" };
+
+    public static void main(String[] args)
+    {
+        SudokuRestartBenchmark benchmark = new SudokuRestartBenchmark();
+        if (!benchmark.parseOptions(args))
+        {
+            System.err.println("Usage: java SudokuRestartBenchmark [--puzzles n] [--warmup n] [--seed n]"
+                    + " [--luby base,...] [--games game,...]");
+            System.exit(2);
+        }
+        benchmark.run();
+    }
+
+    private boolean parseOptions(String[] args)
+    {
+        if (args.length % 2 != 0)
+        {
+            return false;
+        }
+        for (int i = 0; i < args.length; i += 2)
+        {
+            String value = args[i + 1];
+            switch (args[i])
+            {
+            case "--puzzles":
+                puzzles = Integer.parseInt(value);
+                break;
+            case "--warmup":
+                warmup = Integer.parseInt(value);
+                break;
+            case "--seed":
+                seed = Long.parseLong(value);
+                break;
+            case "--luby":
+                String[] bases = value.split(",");
+                lubyBases = new long[bases.length];
+                for (int j = 0; j < bases.length; j++)
+                {
+                    lubyBases[j] = Long.parseLong(bases[j].trim());
+                }
+                break;
+            case "--games":
+                games = value.split(",");
+                break;
+            default:
+                return false;
+            }
+        }
+        if (puzzles <= 0 || warmup < 0)
+        {
+            throw new IllegalArgumentException("puzzles must be positive and warmup not negative");
+        }
+        for (String game : games)
+        {
+            if (!new SudokuGridGenerator().validGameType(game))
+            {
+                throw new IllegalArgumentException("unknown difficulty: " + game);
+            }
+        }
+        return true;
+    }
+
+    private void run()
+    {
+        System.out.printf("%-8s %-22s %10s %10s %10s %10s %8s%n", "game", "schedule", "p50_ms", "p99_ms", "p99.9_ms",
+                "max_ms", "clues");
+        for (String difficulty : games)
+        {
+            List<SudokuRestartSchedule> schedules = new ArrayList<SudokuRestartSchedule>();
+            schedules.add(null);
+            schedules.add(SudokuRestartSchedule.never());
+            for (long base : lubyBases)
+            {
+                schedules.add(SudokuRestartSchedule.luby(base));
+            }
+            for (SudokuRestartSchedule schedule : schedules)
+            {
+                generate(difficulty, schedule, seed - 1, warmup, null);
+            }
+            for (SudokuRestartSchedule schedule : schedules)
+            {
+                SudokuLatencyHistogram histogram = new SudokuLatencyHistogram();
+                double clues = generate(difficulty, schedule, seed, puzzles, histogram);
+                String name = schedule == null ? "default" : schedule.toString();
+                System.out.printf("%-8s %-22s %10.3f %10.3f %10.3f %10.3f %8.2f%n", difficulty, name,
+                        histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                        histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                        histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                        histogram.getMax() / NANOS_PER_MILLI, clues);
+            }
+        }
+    }
+
+    /**
+     * Generate puzzles with one restart schedule and record their latencies.
+     * 
+     * @param difficulty the game type.
+     * @param schedule   the restart schedule of finalizeBoard, or null for the
+     *                   generator's default.
+     * @param seed       the seed of the generator.
+     * @param count      the number of puzzles.
+     * @param histogram  the histogram for the latencies, or null to only warm
+     *                   up.
+     * @return the mean number of clues.
+     */
+    private static double generate(String difficulty, SudokuRestartSchedule schedule, long seed, int count,
+            SudokuLatencyHistogram histogram)
+    {
+        SudokuGridGenerator grid = new SudokuGridGenerator(seed);
+        grid.setGameType(difficulty);
+        if (schedule != null)
+        {
+            grid.setRestartSchedule(difficulty, schedule);
+        }
+        long clues = 0;
+        for (int i = 0; i < count; i++)
+        {
+            long start = System.nanoTime();
+            grid.populateFullBoard(null);
+            grid.finalizeBoard(null);
+            long nanos = System.nanoTime() - start;
+            if (histogram != null)
+            {
+                histogram.record(nanos);
+            }
+            for (int[] row : grid.getBoard())
+            {
+                for (int value : row)
+                {
+                    if (value != SudokuGridGenerator.EMPTY_SQUARE)
+                    {
+                        clues++;
+                    }
+                }
+            }
+        }
+        return count == 0 ? 0 : clues / (double) count;
+    }
+}
@@ -0,0 +1,321 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SudokuWorstCaseRunner class
+ * 
+ * Solves every puzzle of a corpus of known-hard and adversarial boards with
+ * each solver and reports the nodes and solve times per puzzle. Averages over
+ * random puzzles hide the rare boards where a search order is unlucky, so the
+ * runner flags every puzzle whose slowest solve is above a time limit, or
+ * whose result differs from the one the corpus expects, and exits with status
+ * 1 if any puzzle was flagged.
+ * 
+ * Every solve runs under a time cap, so a pathological board costs at most
+ * the cap. A solve that hits the cap is not repeated.
+ * 
+ * The engines are looked up in SudokuSolverEngines, so besides the built-in
+ * mrv (SudokuSolver.solve), row-major (SudokuSolver.solveRowMajor, the order
+ * of populateRemainingBoard) and portfolio (SudokuPortfolioSolver, whose nodes
+ * are those its racers charged to the budget), any engine on the class path
+ * can be run against the corpus.
+ * 
+ * After the corpus, the solved puzzles are used to check that solution counts
+ * sharing one SudokuTranspositionTable across different limits agree with
+ * counts made without a table; any difference is flagged.
+ * 
+ * Usage:
+ *   java SudokuWorstCaseRunner [--engines name,...] [--runs n] [--limit-ms ms]
+ *                              [--cap-ms ms] [--corpus file]
+ */
+public class SudokuWorstCaseRunner
+{
+    private static final String CORPUS_RESOURCE = "/sudoku-worst-case.txt";
+    private static final String[] ENGINES = { SudokuSolverEngines.DEFAULT_ENGINE, SudokuSolverEngines.ROW_MAJOR_ENGINE,
+            SudokuSolverEngines.PORTFOLIO_ENGINE };
+    private static final long TABLE_CHECK_SEED = 20261019;
+    // Limits above MAX_COMPLETIONS store counts of 2, which the lower limits then read.
+    private static final int[] LIMITS = { 1, 2, SudokuTranspositionTable.MAX_COMPLETIONS + 1 };
+    private static final int CELL_COUNT = SudokuGridGenerator.BOARD_SIZE * SudokuGridGenerator.BOARD_SIZE;
+
+    private String engines = String.join(",", ENGINES);
+    private int runs = 5;
+    private double limitMillis = 100;
+    private long capMillis = 2000;
+    private String corpusFile;
+
+    public static void main(String[] args) throws IOException
+    {
+        SudokuWorstCaseRunner runner = new SudokuWorstCaseRunner();
+        if (!runner.parseOptions(args))
+        {
+            usage();
+        }
+        System.exit(runner.run());
+    }
+
+    private boolean parseOptions(String[] args)
+    {
+        if (args.length % 2 != 0)
+        {
+            return false;
+        }
+        for (int i = 0; i < args.length; i += 2)
+        {
+            String value = args[i + 1];
+            switch (args[i])
+            {
+            case "--engines":
+                engines = value;
+                break;
+            case "--runs":
+                runs = Integer.parseInt(value);
+                break;
+            case "--limit-ms":
+                limitMillis = Double.parseDouble(value);
+                break;
+            case "--cap-ms":
+                capMillis = Long.parseLong(value);
+                break;
+            case "--corpus":
+                corpusFile = value;
+                break;
+            default:
+                return false;
+            }
+        }
+        if (runs <= 0 || limitMillis <= 0 || capMillis <= 0)
+        {
+            throw new IllegalArgumentException("runs, limit and cap must be positive");
+        }
+        return true;
+    }
+
+    /**
+     * Solve the corpus with every selected engine and print the report.
+     * 
+     * @return 0 if no puzzle was flagged, 1 otherwise.
+     * @throws IOException if the corpus cannot be read.
+     */
+    private int run() throws IOException
+    {
+        List<String> lines = readCorpus();
+        List<SudokuSolverEngine> selected = parseEngines(engines);
+        int flagged = 0;
+        int[][] solution = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        System.out.printf("%-22s %-10s %-15s %12s %10s %10s%n", "puzzle", "engine", "result", "nodes", "median_ms",
+                "max_ms");
+        for (String line : lines)
+        {
+            String[] fields = line.trim().split("\\s+");
+            int[][] board = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+            if (fields.length != 3 || !parseBoard(fields[2], board))
+            {
+                throw new IllegalArgumentException("Not a corpus line: " + line);
+            }
+            boolean expectSolved = fields[1].equals("solved");
+            for (SudokuSolverEngine engine : selected)
+            {
+                double[] millis = new double[runs];
+                int count = 0;
+                SudokuSearchStatus status = null;
+                long nodes = 0;
+                while (count < runs && status != SudokuSearchStatus.BUDGET_EXCEEDED)
+                {
+                    SudokuSearchBudget budget = SudokuSearchBudget.ofTime(capMillis, TimeUnit.MILLISECONDS);
+                    long start = System.nanoTime();
+                    status = engine.solve(board, solution, budget);
+                    millis[count++] = (System.nanoTime() - start) / 1e6;
+                    nodes = budget.getNodesUsed();
+                }
+                Arrays.sort(millis, 0, count);
+                double max = millis[count - 1];
+                String flag = "";
+                if (status == SudokuSearchStatus.BUDGET_EXCEEDED)
+                {
+                    flag = "CAPPED";
+                }
+                else if ((status == SudokuSearchStatus.COMPLETED) != expectSolved)
+                {
+                    flag = "WRONG";
+                }
+                else if (max > limitMillis)
+                {
+                    flag = "SLOW";
+                }
+                if (!flag.isEmpty())
+                {
+                    flagged++;
+                }
+                System.out.printf("%-22s %-10s %-15s %12d %10.2f %10.2f%s%n", fields[0], engine.getName(), status,
+                        nodes, millis[count / 2], max, flag.isEmpty() ? "" : " " + flag);
+            }
+        }
+        int mismatches = checkSharedTable(lines);
+        System.out.printf("%d shared-table counts differed from plain counts%s%n", mismatches,
+                mismatches == 0 ? "" : " WRONG");
+        if (mismatches > 0)
+        {
+            flagged++;
+        }
+        System.out.printf("%d flagged (limit %.0f ms, cap %d ms)%n", flagged, limitMillis, capMillis);
+        return flagged == 0 ? 0 : 1;
+    }
+
+    /**
+     * Check that sharing one transposition table between solution counts of
+     * different limits gives the same answers as counting without a table.
+     * Clues are removed from the solution of every solved corpus puzzle in a
+     * fixed random order, as the generator does, and each board is counted
+     * with the limits 1, 2 and 3 in random order against a single table.
+     * 
+     * @param lines the corpus lines.
+     * @return the number of counts that differed.
+     */
+    private int checkSharedTable(List<String> lines)
+    {
+        Random random = new Random(TABLE_CHECK_SEED);
+        SudokuTranspositionTable table = new SudokuTranspositionTable();
+        int[][] board = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        int[] order = new int[CELL_COUNT];
+        int[] limits = LIMITS.clone();
+        int mismatches = 0;
+        for (String line : lines)
+        {
+            String[] fields = line.trim().split("\\s+");
+            if (!fields[1].equals("solved") || !parseBoard(fields[2], board) || SudokuSolver.solve(board, board,
+                    SudokuSearchBudget.ofTime(capMillis, TimeUnit.MILLISECONDS)) != SudokuSearchStatus.COMPLETED)
+            {
+                continue;
+            }
+            table.clear();
+            for (int i = 0; i < CELL_COUNT; i++)
+            {
+                order[i] = i;
+            }
+            for (int i = CELL_COUNT - 1; i > 0; i--)
+            {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            for (int cell : order)
+            {
+                int row = cell / SudokuGridGenerator.BOARD_SIZE;
+                int col = cell % SudokuGridGenerator.BOARD_SIZE;
+                int digit = board[row][col];
+                board[row][col] = SudokuGridGenerator.EMPTY_SQUARE;
+                int plain = SudokuSolver.countSolutions(board, LIMITS.length);
+                for (int i = LIMITS.length - 1; i > 0; i--)
+                {
+                    int j = random.nextInt(i + 1);
+                    int swap = limits[i];
+                    limits[i] = limits[j];
+                    limits[j] = swap;
+                }
+                for (int limit : limits)
+                {
+                    if (SudokuSolver.countSolutions(board, limit, null, table) != Math.min(plain, limit))
+                    {
+                        mismatches++;
+                    }
+                }
+                if (plain != 1)
+                {
+                    board[row][col] = digit;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Read the corpus lines, leaving out blank lines and comments.
+     * 
+     * @return the puzzle lines.
+     * @throws IOException if the corpus cannot be read.
+     */
+    private List<String> readCorpus() throws IOException
+    {
+        List<String> all;
+        if (corpusFile != null)
+        {
+            all = Files.readAllLines(Paths.get(corpusFile), StandardCharsets.UTF_8);
+        }
+        else
+        {
+            all = new ArrayList<>();
+            InputStream in = SudokuWorstCaseRunner.class.getResourceAsStream(CORPUS_RESOURCE);
+            if (in == null)
+            {
+                throw new IOException("Missing resource " + CORPUS_RESOURCE);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+            {
+                String line;
+                while ((line = reader.readLine()) != null)
+                {
+                    all.add(line);
+                }
+            }
+        }
+        List<String> puzzles = new ArrayList<>();
+        for (String line : all)
+        {
+            if (!line.trim().isEmpty() && !line.startsWith("#"))
+            {
+                puzzles.add(line);
+            }
+        }
+        return puzzles;
+    }
+
+    private static List<SudokuSolverEngine> parseEngines(String names)
+    {
+        List<SudokuSolverEngine> selected = new ArrayList<>();
+        for (String name : names.split(","))
+        {
+            selected.add(SudokuSolverEngines.forName(name.trim()));
+        }
+        return selected;
+    }
+
+    private static boolean parseBoard(String text, int[][] board)
+    {
+        if (text.length() != CELL_COUNT)
+        {
+            return false;
+        }
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            char c = text.charAt(cell);
+            if (c != '.' && (c < '1' || c > '9'))
+            {
+                return false;
+            }
+            board[cell / SudokuGridGenerator.BOARD_SIZE][cell % SudokuGridGenerator.BOARD_SIZE] = c == '.'
+                    ? SudokuGridGenerator.EMPTY_SQUARE
+                    : c - '0';
+        }
+        return true;
+    }
+
+    private static void usage()
+    {
+        System.err.println("Usage: java SudokuWorstCaseRunner [--engines name,...] [--runs n] [--limit-ms ms]");
+        System.err.println("                                  [--cap-ms ms] [--corpus file]");
+        System.err.println("Engines: " + String.join(", ", SudokuSolverEngines.getNames()));
+        System.exit(2);
+    }
+}
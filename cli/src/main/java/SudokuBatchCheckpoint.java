@@ -0,0 +1,215 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * SudokuBatchCheckpoint class
+ * 
+ * The progress of a long batch job, saved so that a job whose JVM died can
+ * resume where it stopped. A checkpoint records the job it belongs to, the
+ * ranges of items (seeds or input lines) that are done, and the byte offsets
+ * of the output file and, for jobs that read one, the input file at the time
+ * the checkpoint was taken.
+ * 
+ * A job saves a checkpoint only after its output up to the recorded offset has
+ * been forced to disk, and the checkpoint replaces the old one by an atomic
+ * rename. A resumed job truncates the output back to the recorded offset,
+ * which drops anything written after the checkpoint, and redoes the items that
+ * are not in a done range. Puzzles depend only on their seed, so the redone
+ * items give the same output and no item is written twice or left out.
+ * 
+ * The file is a short properties file, for example
+ * 
+ *   job=generate hard 1 1000000
+ *   done=1-52001,60001-61001
+ *   output=4316083
+ *   input=0
+ */
+final class SudokuBatchCheckpoint
+{
+    private final String job;
+    // The done ranges, from first item to one past the last, never adjacent.
+    private final TreeMap<Long, Long> done = new TreeMap<>();
+    private long outputOffset;
+    private long inputOffset;
+
+    /**
+     * Create an empty checkpoint.
+     * 
+     * @param job a description of the job, for example its command line, that
+     *            must match for a checkpoint to be resumed.
+     */
+    SudokuBatchCheckpoint(String job)
+    {
+        this.job = job;
+    }
+
+    /**
+     * Read the checkpoint of a job.
+     * 
+     * @param file the checkpoint file.
+     * @param job  the description of the job that wants to resume.
+     * @return the checkpoint, or null if the file does not exist.
+     * @throws IOException if the file cannot be read, is damaged, or belongs to
+     *                     another job.
+     */
+    static SudokuBatchCheckpoint load(Path file, String job) throws IOException
+    {
+        if (!Files.exists(file))
+        {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            properties.load(reader);
+        }
+        if (!job.equals(properties.getProperty("job")))
+        {
+            throw new IOException(file + " belongs to another job: " + properties.getProperty("job"));
+        }
+        SudokuBatchCheckpoint checkpoint = new SudokuBatchCheckpoint(job);
+        try
+        {
+            String ranges = properties.getProperty("done", "");
+            for (String range : ranges.split(","))
+            {
+                if (!range.isEmpty())
+                {
+                    int dash = range.indexOf('-', 1);
+                    long first = Long.parseLong(range.substring(0, dash));
+                    checkpoint.addRange(first, Long.parseLong(range.substring(dash + 1)));
+                }
+            }
+            checkpoint.outputOffset = Long.parseLong(properties.getProperty("output"));
+            checkpoint.inputOffset = Long.parseLong(properties.getProperty("input", "0"));
+        }
+        catch (RuntimeException e)
+        {
+            throw new IOException("damaged checkpoint " + file, e);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Save the checkpoint. The new file is forced to disk under a temporary
+     * name and then renamed over the old one, so a crash leaves either the old
+     * or the new checkpoint, never a partial one.
+     * 
+     * @param file the checkpoint file.
+     * @throws IOException if the file cannot be written.
+     */
+    void save(Path file) throws IOException
+    {
+        StringBuilder text = new StringBuilder();
+        text.append("job=").append(job).append('\n');
+        text.append("done=");
+        for (Map.Entry<Long, Long> range : done.entrySet())
+        {
+            if (text.charAt(text.length() - 1) != '=')
+            {
+                text.append(',');
+            }
+            text.append(range.getKey()).append('-').append(range.getValue());
+        }
+        text.append('\n');
+        text.append("output=").append(outputOffset).append('\n');
+        text.append("input=").append(inputOffset).append('\n');
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                Writer writer = new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8))
+        {
+            writer.write(text.toString());
+            writer.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Mark a range of items as done, merging it with the ranges it touches.
+     * 
+     * @param first the first item of the range.
+     * @param end   one past the last item of the range.
+     */
+    void addRange(long first, long end)
+    {
+        if (end <= first)
+        {
+            throw new IllegalArgumentException("empty range " + first + "-" + end);
+        }
+        Map.Entry<Long, Long> before = done.floorEntry(first);
+        if (before != null && before.getValue() >= first)
+        {
+            first = before.getKey();
+            end = Math.max(end, before.getValue());
+        }
+        Map.Entry<Long, Long> after = done.ceilingEntry(first);
+        while (after != null && after.getKey() <= end)
+        {
+            end = Math.max(end, after.getValue());
+            done.remove(after.getKey());
+            after = done.ceilingEntry(first);
+        }
+        done.put(first, end);
+    }
+
+    /**
+     * Determine whether every item of a range is done.
+     * 
+     * @param first the first item of the range.
+     * @param end   one past the last item of the range.
+     * @return whether the range is done.
+     */
+    boolean isDone(long first, long end)
+    {
+        Map.Entry<Long, Long> range = done.floorEntry(first);
+        return range != null && range.getValue() >= end;
+    }
+
+    /**
+     * Returns the end of the done range that starts at the given item, which
+     * is where a sequential job resumes.
+     * 
+     * @param first the first item of the job.
+     * @return one past the last done item of the first range, or first if that
+     *         item is not done.
+     */
+    long doneFrom(long first)
+    {
+        Long end = done.get(first);
+        return end == null ? first : end;
+    }
+
+    long getOutputOffset()
+    {
+        return outputOffset;
+    }
+
+    void setOutputOffset(long outputOffset)
+    {
+        this.outputOffset = outputOffset;
+    }
+
+    long getInputOffset()
+    {
+        return inputOffset;
+    }
+
+    void setInputOffset(long inputOffset)
+    {
+        this.inputOffset = inputOffset;
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * SudokuBatchJob class
+ * 
+ * Long generation and solve runs that survive the death of their JVM. A job
+ * writes its output file sequentially and, every checkpoint interval, forces
+ * the output to disk and saves a SudokuBatchCheckpoint next to it, named like
+ * the output with ".checkpoint" appended. Running the same job again resumes
+ * from the last checkpoint; the checkpoint is deleted once the job is done,
+ * and a job that finds no checkpoint starts over with an empty output file.
+ * 
+ * A generate job writes one line per seed in the format of
+ * SudokuGenerationCoordinator: the seed, the difficulty, and the 81 cells
+ * with 0 for an empty cell. Each puzzle is made by a generator of its own
+ * seed, so the generator state to resume from is the next seed. A solve job
+ * reads boards one per line, as the solve command does, and writes one result
+ * line per board; it resumes at the input offset of the checkpoint.
+ * 
+ * Forcing the output costs a few milliseconds, so with the default interval of
+ * ten seconds checkpoints take well under 1% of the run time.
+ */
+public class SudokuBatchJob
+{
+    public static final long DEFAULT_CHECKPOINT_MILLIS = 10_000;
+
+    private final Path outputFile;
+    private final Path checkpointFile;
+    private final long checkpointNanos;
+    private final SudokuBatchCheckpoint checkpoint;
+    private final FileChannel channel;
+    private final PrintStream out;
+    private long lastCheckpoint;
+
+    /**
+     * Open the output of a job, resuming from its checkpoint if there is one.
+     * 
+     * @param job              the description of the job.
+     * @param outputFile       the output file.
+     * @param checkpointMillis the time between checkpoints.
+     * @throws IOException if the output or the checkpoint cannot be opened.
+     */
+    private SudokuBatchJob(String job, Path outputFile, long checkpointMillis) throws IOException
+    {
+        if (checkpointMillis < 1)
+        {
+            throw new IllegalArgumentException("checkpoint interval must be at least 1 ms");
+        }
+        this.outputFile = outputFile;
+        checkpointFile = Paths.get(outputFile + ".checkpoint");
+        checkpointNanos = checkpointMillis * 1_000_000;
+        SudokuBatchCheckpoint saved = SudokuBatchCheckpoint.load(checkpointFile, job);
+        checkpoint = saved != null ? saved : new SudokuBatchCheckpoint(job);
+        channel = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() < checkpoint.getOutputOffset())
+        {
+            channel.close();
+            throw new IOException(outputFile + " is shorter than its checkpoint");
+        }
+        // Drop whatever was written after the checkpoint; those items are redone.
+        channel.truncate(checkpoint.getOutputOffset());
+        channel.position(checkpoint.getOutputOffset());
+        out = new PrintStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), false,
+                "US-ASCII");
+        lastCheckpoint = System.nanoTime();
+    }
+
+    /**
+     * Generate puzzles for the seeds firstSeed to firstSeed + count - 1.
+     * 
+     * @param difficulty       the game type, as accepted by setGameType.
+     * @param firstSeed        the first seed.
+     * @param count            the number of puzzles.
+     * @param outputFile       the file that receives the puzzles.
+     * @param checkpointMillis the time between checkpoints.
+     * @return the number of puzzles created by this run, not counting those
+     *         done before the checkpoint it resumed from.
+     * @throws IOException if a file cannot be written.
+     */
+    public static long generate(String difficulty, long firstSeed, long count, Path outputFile, long checkpointMillis)
+            throws IOException
+    {
+        if (!new SudokuGridGenerator().validGameType(difficulty))
+        {
+            throw new IllegalArgumentException("unknown difficulty: " + difficulty);
+        }
+        if (count < 0)
+        {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        SudokuBatchJob job = new SudokuBatchJob("generate " + difficulty + " " + firstSeed + " " + count, outputFile,
+                checkpointMillis);
+        long end = firstSeed + count;
+        long resumeSeed = job.checkpoint.doneFrom(firstSeed);
+        StringBuilder line = new StringBuilder();
+        try
+        {
+            for (long seed = resumeSeed; seed < end; seed++)
+            {
+                SudokuGridGenerator grid = SudokuGenerationWorker.generate(difficulty, seed);
+                job.out.print(seed);
+                job.out.print(' ');
+                job.out.print(difficulty);
+                job.out.print(' ');
+                job.out.println(SudokuCli.format(grid.getBoard(), line));
+                job.done(firstSeed, seed + 1, 0, false);
+            }
+            job.finish(firstSeed, end, 0);
+        }
+        finally
+        {
+            job.close();
+        }
+        return end - resumeSeed;
+    }
+
+    /**
+     * Solve every board of the input file and write one line per board: the
+     * solution, "no solution", or "invalid". Blank lines are skipped.
+     * 
+     * @param inputFile        the file of boards.
+     * @param outputFile       the file that receives the results.
+     * @param checkpointMillis the time between checkpoints.
+     * @return the number of boards solved by this run.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static long solve(Path inputFile, Path outputFile, long checkpointMillis) throws IOException
+    {
+        SudokuBatchJob job = new SudokuBatchJob("solve " + inputFile.toAbsolutePath(), outputFile, checkpointMillis);
+        int[][] board = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        int[][] solution = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        StringBuilder text = new StringBuilder();
+        StringBuilder line = new StringBuilder();
+        long boards = 0;
+        try (FileChannel input = FileChannel.open(inputFile, StandardOpenOption.READ))
+        {
+            long offset = job.checkpoint.getInputOffset();
+            // The items of a solve job are the boards, counted from 0.
+            long boardsDone = job.checkpoint.doneFrom(0);
+            input.position(offset);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(input), 1 << 16);
+            int length;
+            while ((length = readLine(in, text)) >= 0)
+            {
+                offset += length;
+                if (text.toString().trim().isEmpty())
+                {
+                    continue;
+                }
+                SudokuCli.solveLine(text.toString(), board, solution, line, job.out);
+                boards++;
+                job.done(0, ++boardsDone, offset, false);
+            }
+            job.finish(0, boardsDone, offset);
+        }
+        finally
+        {
+            job.close();
+        }
+        return boards;
+    }
+
+    /**
+     * Read one line of ASCII text.
+     * 
+     * @param in   the input.
+     * @param text receives the line without its line terminator.
+     * @return the number of bytes read, including the terminator, or -1 at the
+     *         end of the input.
+     * @throws IOException if the input cannot be read.
+     */
+    private static int readLine(InputStream in, StringBuilder text) throws IOException
+    {
+        text.setLength(0);
+        int length = 0;
+        int c;
+        while ((c = in.read()) >= 0)
+        {
+            length++;
+            if (c == '\n')
+            {
+                return length;
+            }
+            text.append((char) c);
+        }
+        return length == 0 ? -1 : length;
+    }
+
+    /**
+     * Record that the items first to end - 1 are done and save a checkpoint if
+     * the interval has passed.
+     * 
+     * @param first       the first item of the job.
+     * @param end         one past the last item done.
+     * @param inputOffset the input offset after the last item done.
+     * @param force       save a checkpoint regardless of the interval.
+     * @throws IOException if the checkpoint cannot be saved.
+     */
+    private void done(long first, long end, long inputOffset, boolean force) throws IOException
+    {
+        long now = System.nanoTime();
+        if (!force && now - lastCheckpoint < checkpointNanos)
+        {
+            return;
+        }
+        out.flush();
+        if (out.checkError())
+        {
+            throw new IOException("cannot write " + outputFile);
+        }
+        // The output must be on disk before the checkpoint that points past it.
+        channel.force(false);
+        if (end > first)
+        {
+            checkpoint.addRange(first, end);
+        }
+        checkpoint.setOutputOffset(channel.position());
+        checkpoint.setInputOffset(inputOffset);
+        checkpoint.save(checkpointFile);
+        lastCheckpoint = now;
+    }
+
+    /**
+     * Force the complete output to disk and delete the checkpoint.
+     * 
+     * @param first       the first item of the job.
+     * @param end         one past the last item.
+     * @param inputOffset the input offset at the end of the input.
+     * @throws IOException if the output cannot be written.
+     */
+    private void finish(long first, long end, long inputOffset) throws IOException
+    {
+        done(first, end, inputOffset, true);
+        Files.delete(checkpointFile);
+    }
+
+    private void close() throws IOException
+    {
+        out.close();
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        long start = System.nanoTime();
+        long items;
+        if (args.length == 5 && args[0].equals("generate"))
+        {
+            items = generate(args[1].toLowerCase(), Long.parseLong(args[2]), Long.parseLong(args[3]),
+                    Paths.get(args[4]), DEFAULT_CHECKPOINT_MILLIS);
+        }
+        else if (args.length == 3 && args[0].equals("solve"))
+        {
+            items = solve(Paths.get(args[1]), Paths.get(args[2]), DEFAULT_CHECKPOINT_MILLIS);
+        }
+        else
+        {
+            System.err.println("Usage: java SudokuBatchJob generate difficulty firstSeed count output");
+            System.err.println("       java SudokuBatchJob solve input output");
+            System.exit(2);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Processed %d items in %.1f s%n", items, seconds);
+    }
+}
@@ -0,0 +1,310 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/**
+ * SudokuCli class
+ * 
+ * Headless command line entry point. Boards are written as one line of 81
+ * characters in row-major order, with 0 or . for an empty cell.
+ * 
+ * Usage:
+ *   sudoku solve [board ...]                 solve the boards, or each line of stdin
+ *   sudoku generate difficulty [count] [seed] print new puzzles
+ *   sudoku samurai difficulty [seed]          print a Samurai puzzle and its solution
+ *   sudoku batch generate difficulty firstSeed count output
+ *                                            write puzzles to a file, resumable
+ *   sudoku batch solve input output           solve a file of boards, resumable
+ * 
+ * The solve path only loads the core engine, so it needs no AWT classes and
+ * starts quickly; the cli build additionally creates a class-data-sharing
+ * archive of the classes it loads, which the sudoku script passes to the JVM.
+ */
+public class SudokuCli
+{
+    private static final int CELL_COUNT = SudokuGridGenerator.BOARD_SIZE * SudokuGridGenerator.BOARD_SIZE;
+    // Input often repeats the same boards, which are then only solved once.
+    private static final SudokuSolutionCache SOLUTIONS = new SudokuSolutionCache();
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length == 0)
+        {
+            usage();
+        }
+        PrintStream out = new PrintStream(System.out, false, "US-ASCII");
+        int status;
+        if (args[0].equals("solve"))
+        {
+            status = solve(args, out);
+        }
+        else if (args[0].equals("generate") && args.length >= 2 && args.length <= 4)
+        {
+            status = generate(args, out);
+        }
+        else if (args[0].equals("samurai") && args.length >= 2 && args.length <= 3)
+        {
+            status = samurai(args, out);
+        }
+        else if (args[0].equals("batch"))
+        {
+            status = batch(args, out);
+        }
+        else
+        {
+            usage();
+            return;
+        }
+        out.flush();
+        System.exit(status);
+    }
+
+    /**
+     * Solve the boards given as arguments, or every line of stdin if there are
+     * none, and print one line per board: the solution, "no solution", or
+     * "invalid" for a line that is not a board.
+     * 
+     * @param args the command line arguments.
+     * @param out  the stream that receives the results.
+     * @return 0 if every board was solved, 1 otherwise.
+     * @throws IOException if stdin cannot be read.
+     */
+    private static int solve(String[] args, PrintStream out) throws IOException
+    {
+        int[][] board = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        int[][] solution = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        StringBuilder line = new StringBuilder(CELL_COUNT);
+        int status = 0;
+        if (args.length > 1)
+        {
+            for (int i = 1; i < args.length; i++)
+            {
+                status |= solveLine(args[i], board, solution, line, out);
+            }
+            return status;
+        }
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII));
+        String text;
+        while ((text = in.readLine()) != null)
+        {
+            if (!text.trim().isEmpty())
+            {
+                status |= solveLine(text, board, solution, line, out);
+            }
+        }
+        return status;
+    }
+
+    static int solveLine(String text, int[][] board, int[][] solution, StringBuilder line, PrintStream out)
+    {
+        if (!parse(text.trim(), board))
+        {
+            out.println("invalid");
+            return 1;
+        }
+        if (!SOLUTIONS.solve(board, solution))
+        {
+            out.println("no solution");
+            return 1;
+        }
+        out.println(format(solution, line));
+        return 0;
+    }
+
+    /**
+     * Print new puzzles, one per line.
+     * 
+     * @param args the command line arguments: generate, the difficulty, and
+     *             optionally the count and the seed.
+     * @param out  the stream that receives the puzzles.
+     * @return 0 on success, 2 for an unknown difficulty or a count or seed
+     *         that is not a number or a count below 1.
+     */
+    private static int generate(String[] args, PrintStream out)
+    {
+        String difficulty = args[1].toLowerCase();
+        int count;
+        SudokuGridGenerator grid;
+        try
+        {
+            count = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+            grid = args.length > 3 ? new SudokuGridGenerator(Long.parseLong(args[3])) : new SudokuGridGenerator();
+        }
+        catch (NumberFormatException e)
+        {
+            usage();
+            return 2;
+        }
+        if (count < 1)
+        {
+            usage();
+            return 2;
+        }
+        if (!grid.validGameType(difficulty))
+        {
+            System.err.println("Unknown difficulty: " + args[1]);
+            return 2;
+        }
+        grid.setGameType(difficulty);
+        StringBuilder line = new StringBuilder(CELL_COUNT);
+        for (int i = 0; i < count; i++)
+        {
+            grid.populateFullBoard();
+            grid.finalizeBoard();
+            out.println(format(grid.getBoard(), line));
+        }
+        return 0;
+    }
+
+    /**
+     * Run a SudokuBatchJob, which resumes from its checkpoint if an earlier run
+     * of the same job was cut short.
+     * 
+     * @param args the command line arguments: batch, the job, and its
+     *             arguments.
+     * @param out  the stream that receives the summary.
+     * @return 0 on success, 2 for bad arguments.
+     * @throws IOException if a file of the job cannot be read or written.
+     */
+    private static int batch(String[] args, PrintStream out) throws IOException
+    {
+        long items;
+        if (args.length == 6 && args[1].equals("generate"))
+        {
+            String difficulty = args[2].toLowerCase();
+            if (!new SudokuGridGenerator().validGameType(difficulty))
+            {
+                System.err.println("Unknown difficulty: " + args[2]);
+                return 2;
+            }
+            items = SudokuBatchJob.generate(difficulty, Long.parseLong(args[3]), Long.parseLong(args[4]),
+                    Paths.get(args[5]), SudokuBatchJob.DEFAULT_CHECKPOINT_MILLIS);
+        }
+        else if (args.length == 4 && args[1].equals("solve"))
+        {
+            items = SudokuBatchJob.solve(Paths.get(args[2]), Paths.get(args[3]),
+                    SudokuBatchJob.DEFAULT_CHECKPOINT_MILLIS);
+        }
+        else
+        {
+            usage();
+            return 2;
+        }
+        out.println(items + " items done");
+        return 0;
+    }
+
+    /**
+     * Print a new Samurai puzzle and then its solution, each as 21 lines of 21
+     * characters with . for an empty cell and a space for a cell outside the
+     * five grids, separated by a blank line.
+     * 
+     * @param args the command line arguments: samurai, the difficulty, and
+     *             optionally the seed.
+     * @param out  the stream that receives the puzzle.
+     * @return 0 on success, 2 for an unknown difficulty.
+     */
+    private static int samurai(String[] args, PrintStream out)
+    {
+        SudokuSamuraiGenerator generator = args.length > 2 ? new SudokuSamuraiGenerator(Long.parseLong(args[2]))
+                : new SudokuSamuraiGenerator();
+        try
+        {
+            generator.setGameType(args[1]);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println("Unknown difficulty: " + args[1]);
+            return 2;
+        }
+        int[][] puzzle = SudokuSamuraiLayout.newBoard();
+        generator.generate(puzzle, null);
+        printSamurai(puzzle, out);
+        out.println();
+        printSamurai(generator.getSolution(), out);
+        return 0;
+    }
+
+    private static void printSamurai(int[][] board, PrintStream out)
+    {
+        StringBuilder line = new StringBuilder(SudokuSamuraiLayout.SIZE);
+        for (int row = 0; row < SudokuSamuraiLayout.SIZE; row++)
+        {
+            line.setLength(0);
+            for (int col = 0; col < SudokuSamuraiLayout.SIZE; col++)
+            {
+                if (!SudokuSamuraiLayout.isUsed(row, col))
+                {
+                    line.append(' ');
+                }
+                else if (board[row][col] == SudokuGridGenerator.EMPTY_SQUARE)
+                {
+                    line.append('.');
+                }
+                else
+                {
+                    line.append((char) ('0' + board[row][col]));
+                }
+            }
+            out.println(line);
+        }
+    }
+
+    /**
+     * Read a board of 81 characters.
+     * 
+     * @param text  the board text.
+     * @param board a 2D array that receives the board.
+     * @return false if the text is not a board.
+     */
+    static boolean parse(String text, int[][] board)
+    {
+        if (text.length() != CELL_COUNT)
+        {
+            return false;
+        }
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            char c = text.charAt(cell);
+            int val;
+            if (c == '.' || c == '0')
+            {
+                val = SudokuGridGenerator.EMPTY_SQUARE;
+            }
+            else if (c >= '1' && c <= '9')
+            {
+                val = c - '0';
+            }
+            else
+            {
+                return false;
+            }
+            board[cell / SudokuGridGenerator.BOARD_SIZE][cell % SudokuGridGenerator.BOARD_SIZE] = val;
+        }
+        return true;
+    }
+
+    static String format(int[][] board, StringBuilder line)
+    {
+        line.setLength(0);
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            int val = board[cell / SudokuGridGenerator.BOARD_SIZE][cell % SudokuGridGenerator.BOARD_SIZE];
+            line.append((char) ('0' + val));
+        }
+        return line.toString();
+    }
+
+    private static void usage()
+    {
+        System.err.println("Usage: sudoku solve [board ...]");
+        System.err.println("       sudoku generate difficulty [count] [seed]");
+        System.err.println("       sudoku samurai difficulty [seed]");
+        System.err.println("       sudoku batch generate difficulty firstSeed count output");
+        System.err.println("       sudoku batch solve input output");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,587 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SudokuGenerationCoordinator class
+ * 
+ * The coordinator for distributed puzzle generation. The seeds of a job are
+ * split into leases of a fixed size, and SudokuGenerationWorker processes,
+ * local or on other hosts, connect over TCP and take one lease at a time.
+ * 
+ * The results of a lease are kept in memory until the worker reports the lease
+ * done, and only then written to the output file, one line per puzzle:
+ * the seed, the difficulty, and the 81 cells with 0 for an empty cell. If a
+ * worker disconnects, or holds a lease longer than the lease timeout, its
+ * results are dropped and the lease goes back to the queue under a new id, so
+ * late messages from the old holder are ignored. Every seed is therefore
+ * written exactly once, and because a puzzle depends only on its seed, the
+ * output does not depend on which worker created it.
+ * 
+ * With a checkpoint file the coordinator survives its own death as well. Every
+ * checkpoint interval it forces the output to disk and saves the seed ranges of
+ * the leases written so far in a SudokuBatchCheckpoint. A coordinator started
+ * again with the same arguments truncates the output to the checkpoint, skips
+ * the leases that are done, and deletes the checkpoint once the job is done.
+ * The main method keeps the checkpoint next to the output, named like the
+ * output with ".checkpoint" appended.
+ * 
+ * Usage: java SudokuGenerationCoordinator port difficulty firstSeed count
+ *        leaseSize output [localWorkers]
+ * 
+ * With localWorkers greater than zero the coordinator also starts that many
+ * worker processes on this machine, which makes a whole run testable on a
+ * single box.
+ */
+public class SudokuGenerationCoordinator
+{
+    public static final long DEFAULT_LEASE_TIMEOUT_MILLIS = 60_000;
+
+    private final String difficulty;
+    private final String job;
+    private final long leaseTimeoutMillis;
+    private final int totalLeases;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Lease> pending = new ArrayDeque<>();
+    private final Map<Long, Lease> active = new HashMap<>();
+    private long nextLeaseId;
+    private int completedLeases;
+    private long reissuedLeases;
+
+    private ServerSocket server;
+    private Writer output;
+    private FileChannel outputChannel;
+    private SudokuBatchCheckpoint checkpoint;
+    private Path checkpointFile;
+    private long lastCheckpoint;
+
+    /**
+     * Create a coordinator for the seeds firstSeed to firstSeed + count - 1.
+     * 
+     * @param difficulty         the game type, as accepted by setGameType.
+     * @param firstSeed          the first seed of the job.
+     * @param count              the number of puzzles to create.
+     * @param leaseSize          the maximum number of seeds in one lease.
+     * @param leaseTimeoutMillis how long a worker may hold a lease before it is
+     *                           handed to another worker.
+     */
+    public SudokuGenerationCoordinator(String difficulty, long firstSeed, int count, int leaseSize,
+            long leaseTimeoutMillis)
+    {
+        if (!new SudokuGridGenerator().validGameType(difficulty))
+        {
+            throw new IllegalArgumentException("unknown difficulty: " + difficulty);
+        }
+        if (count < 0 || leaseSize < 1 || leaseTimeoutMillis < 1)
+        {
+            throw new IllegalArgumentException("count, leaseSize, or leaseTimeoutMillis out of range");
+        }
+        this.difficulty = difficulty;
+        job = "generate " + difficulty + " " + firstSeed + " " + count + " leases " + leaseSize;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+        for (long seed = firstSeed; seed < firstSeed + count; seed += leaseSize)
+        {
+            pending.add(new Lease(nextLeaseId++, seed, (int) Math.min(leaseSize, firstSeed + count - seed)));
+        }
+        totalLeases = pending.size();
+    }
+
+    /**
+     * Serve leases on the given port until every lease is done. Each worker
+     * connection is handled on its own thread.
+     * 
+     * @param port       the port to listen on, or 0 for any free port.
+     * @param outputFile the file that receives the puzzles.
+     * @param listening  called with the bound port once the coordinator accepts
+     *                   connections, or null.
+     * @throws IOException if the server socket or the output file fails.
+     */
+    public void run(int port, File outputFile, PortListener listening) throws IOException
+    {
+        run(port, outputFile, null, listening);
+    }
+
+    /**
+     * Serve leases on the given port until every lease is done, resuming from
+     * and saving to a checkpoint.
+     * 
+     * @param port           the port to listen on, or 0 for any free port.
+     * @param outputFile     the file that receives the puzzles.
+     * @param checkpointFile the checkpoint of the job, or null to always start
+     *                       over with an empty output file.
+     * @param listening      called with the bound port once the coordinator
+     *                       accepts connections, or null.
+     * @throws IOException if the server socket, the output file, or the
+     *                     checkpoint fails.
+     */
+    public void run(int port, File outputFile, File checkpointFile, PortListener listening) throws IOException
+    {
+        SudokuBatchCheckpoint saved = null;
+        if (checkpointFile != null)
+        {
+            saved = SudokuBatchCheckpoint.load(checkpointFile.toPath(), job);
+        }
+        try (ServerSocket serverSocket = new ServerSocket(port);
+                FileChannel channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE);
+                Writer writer = new BufferedWriter(
+                        new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.US_ASCII)))
+        {
+            long offset = saved == null ? 0 : saved.getOutputOffset();
+            if (channel.size() < offset)
+            {
+                throw new IOException(outputFile + " is shorter than its checkpoint");
+            }
+            // Leases written after the checkpoint are dropped and handed out again.
+            channel.truncate(offset);
+            channel.position(offset);
+            synchronized (lock)
+            {
+                server = serverSocket;
+                output = writer;
+                outputChannel = channel;
+                if (checkpointFile != null)
+                {
+                    this.checkpointFile = checkpointFile.toPath();
+                    checkpoint = saved != null ? saved : new SudokuBatchCheckpoint(job);
+                    skipDoneLeases();
+                    lastCheckpoint = System.nanoTime();
+                }
+                if (completedLeases == totalLeases)
+                {
+                    finishCheckpoint();
+                    return;
+                }
+            }
+            if (listening != null)
+            {
+                listening.listening(serverSocket.getLocalPort());
+            }
+            Thread reaper = new Thread(this::reapExpiredLeases, "lease-reaper");
+            reaper.setDaemon(true);
+            reaper.start();
+            while (!isDone())
+            {
+                Socket socket;
+                try
+                {
+                    socket = serverSocket.accept();
+                }
+                catch (IOException e)
+                {
+                    if (isDone())
+                    {
+                        break;
+                    }
+                    throw e;
+                }
+                Thread handler = new Thread(() -> serve(socket), "worker-" + socket.getRemoteSocketAddress());
+                handler.setDaemon(true);
+                handler.start();
+            }
+            reaper.interrupt();
+            synchronized (lock)
+            {
+                writer.flush();
+            }
+        }
+    }
+
+    /**
+     * Returns how many leases were handed out again after a worker died or
+     * timed out.
+     * 
+     * @return the number of reissued leases.
+     */
+    public long getReissuedLeases()
+    {
+        synchronized (lock)
+        {
+            return reissuedLeases;
+        }
+    }
+
+    /**
+     * Called once the coordinator is ready for workers.
+     */
+    public interface PortListener
+    {
+        void listening(int port);
+    }
+
+    /**
+     * Drop the pending leases that the checkpoint has as done. Must be called
+     * while holding the lock.
+     */
+    private void skipDoneLeases()
+    {
+        pending.removeIf(lease ->
+        {
+            if (checkpoint.isDone(lease.firstSeed, lease.firstSeed + lease.count))
+            {
+                completedLeases++;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Save a checkpoint of the leases written so far if the checkpoint interval
+     * has passed. Must be called while holding the lock.
+     * 
+     * @param force save a checkpoint regardless of the interval.
+     * @throws IOException if the output or the checkpoint cannot be written.
+     */
+    private void saveCheckpoint(boolean force) throws IOException
+    {
+        long now = System.nanoTime();
+        if (checkpoint == null
+                || (!force && now - lastCheckpoint < SudokuBatchJob.DEFAULT_CHECKPOINT_MILLIS * 1_000_000))
+        {
+            return;
+        }
+        output.flush();
+        // The output must be on disk before the checkpoint that points past it.
+        outputChannel.force(false);
+        checkpoint.setOutputOffset(outputChannel.position());
+        checkpoint.save(checkpointFile);
+        lastCheckpoint = now;
+    }
+
+    /**
+     * Force the complete output to disk and delete the checkpoint. Must be
+     * called while holding the lock.
+     * 
+     * @throws IOException if the output cannot be written.
+     */
+    private void finishCheckpoint() throws IOException
+    {
+        output.flush();
+        if (checkpoint != null)
+        {
+            outputChannel.force(false);
+            Files.deleteIfExists(checkpointFile);
+        }
+    }
+
+    private boolean isDone()
+    {
+        synchronized (lock)
+        {
+            return completedLeases == totalLeases;
+        }
+    }
+
+    /**
+     * Handle one worker connection. Any leases the worker still holds when the
+     * connection ends are put back in the queue.
+     * 
+     * @param socket the worker connection.
+     */
+    private void serve(Socket socket)
+    {
+        List<Lease> held = new ArrayList<>();
+        try (Socket s = socket)
+        {
+            s.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            while (true)
+            {
+                byte type = in.readByte();
+                if (type == SudokuGenerationProtocol.REQUEST_LEASE)
+                {
+                    Lease lease = takeLease();
+                    if (lease == null)
+                    {
+                        out.writeByte(SudokuGenerationProtocol.NO_MORE_WORK);
+                        out.flush();
+                        return;
+                    }
+                    held.add(lease);
+                    SudokuGenerationProtocol.writeLease(out, lease.id, difficulty, lease.firstSeed, lease.count);
+                }
+                else if (type == SudokuGenerationProtocol.RESULT)
+                {
+                    long leaseId = in.readLong();
+                    long seed = in.readLong();
+                    byte[] packed = SudokuGenerationProtocol.readPacked(in);
+                    addResult(leaseId, seed, packed);
+                }
+                else if (type == SudokuGenerationProtocol.LEASE_DONE)
+                {
+                    long leaseId = in.readLong();
+                    completeLease(leaseId);
+                    held.removeIf(lease -> lease.id == leaseId);
+                }
+                else
+                {
+                    throw new IOException("unexpected message type: " + type);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            // The worker died or broke the protocol; its leases are reissued below.
+        }
+        finally
+        {
+            synchronized (lock)
+            {
+                for (Lease lease : held)
+                {
+                    reissue(lease);
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait for a lease that is ready to be handed out.
+     * 
+     * @return the lease, or null once every lease is done.
+     * @throws IOException if the thread is interrupted.
+     */
+    private Lease takeLease() throws IOException
+    {
+        synchronized (lock)
+        {
+            // Leases held by other workers may still come back, so wait rather than stop.
+            while (pending.isEmpty() && completedLeases < totalLeases)
+            {
+                try
+                {
+                    lock.wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while waiting for a lease", e);
+                }
+            }
+            Lease lease = pending.poll();
+            if (lease != null)
+            {
+                lease.expiresAt = System.currentTimeMillis() + leaseTimeoutMillis;
+                active.put(lease.id, lease);
+            }
+            return lease;
+        }
+    }
+
+    private void addResult(long leaseId, long seed, byte[] packed)
+    {
+        synchronized (lock)
+        {
+            Lease lease = active.get(leaseId);
+            if (lease != null && seed >= lease.firstSeed && seed < lease.firstSeed + lease.count)
+            {
+                lease.results.put(seed, packed);
+            }
+        }
+    }
+
+    /**
+     * Write the results of a finished lease. A lease that was reissued in the
+     * meantime, or that is missing results, is ignored; the current holder or
+     * the reaper will take care of it.
+     * 
+     * @param leaseId the id of the lease.
+     * @throws IOException if the output file fails.
+     */
+    private void completeLease(long leaseId) throws IOException
+    {
+        synchronized (lock)
+        {
+            Lease lease = active.get(leaseId);
+            if (lease == null || lease.results.size() != lease.count)
+            {
+                return;
+            }
+            active.remove(leaseId);
+            for (long seed = lease.firstSeed; seed < lease.firstSeed + lease.count; seed++)
+            {
+                output.write(seed + " " + difficulty + " " + SudokuGenerationProtocol.unpack(lease.results.get(seed)));
+                output.write('\n');
+            }
+            completedLeases++;
+            if (checkpoint != null)
+            {
+                checkpoint.addRange(lease.firstSeed, lease.firstSeed + lease.count);
+            }
+            if (completedLeases == totalLeases)
+            {
+                finishCheckpoint();
+                server.close();
+            }
+            else
+            {
+                saveCheckpoint(false);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Put an unfinished lease back in the queue under a new id, dropping its
+     * results. Must be called while holding the lock.
+     * 
+     * @param lease the lease to reissue.
+     */
+    private void reissue(Lease lease)
+    {
+        if (active.remove(lease.id) != null)
+        {
+            pending.addFirst(new Lease(nextLeaseId++, lease.firstSeed, lease.count));
+            reissuedLeases++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Periodically reissue leases whose holders have gone silent without
+     * closing their connection.
+     */
+    private void reapExpiredLeases()
+    {
+        long interval = Math.max(1, Math.min(1000, leaseTimeoutMillis / 4));
+        while (!Thread.currentThread().isInterrupted())
+        {
+            try
+            {
+                Thread.sleep(interval);
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            synchronized (lock)
+            {
+                long now = System.currentTimeMillis();
+                for (Lease lease : new ArrayList<>(active.values()))
+                {
+                    if (lease.expiresAt < now)
+                    {
+                        reissue(lease);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Start worker processes on this machine with the same Java runtime and
+     * class path as the coordinator.
+     * 
+     * @param port    the coordinator port.
+     * @param workers the number of processes to start.
+     * @return the started processes.
+     * @throws IOException if a process cannot be started.
+     */
+    static List<Process> startLocalWorkers(int port, int workers) throws IOException
+    {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < workers; i++)
+        {
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", classPath, "SudokuGenerationWorker",
+                    InetAddress.getLoopbackAddress().getHostAddress(), Integer.toString(port));
+            builder.inheritIO();
+            processes.add(builder.start());
+        }
+        return processes;
+    }
+
+    /**
+     * A range of seeds handed to one worker at a time.
+     */
+    private static final class Lease
+    {
+        final long id;
+        final long firstSeed;
+        final int count;
+        final Map<Long, byte[]> results = new HashMap<>();
+        long expiresAt;
+
+        Lease(long id, long firstSeed, int count)
+        {
+            this.id = id;
+            this.firstSeed = firstSeed;
+            this.count = count;
+        }
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 6 || args.length > 7)
+        {
+            System.err.println("Usage: java SudokuGenerationCoordinator port difficulty firstSeed count leaseSize output"
+                    + " [localWorkers]");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        String difficulty = args[1].toLowerCase();
+        long firstSeed = Long.parseLong(args[2]);
+        int count = Integer.parseInt(args[3]);
+        int leaseSize = Integer.parseInt(args[4]);
+        File outputFile = new File(args[5]);
+        int localWorkers = args.length > 6 ? Integer.parseInt(args[6]) : 0;
+
+        SudokuGenerationCoordinator coordinator = new SudokuGenerationCoordinator(difficulty, firstSeed, count,
+                leaseSize, DEFAULT_LEASE_TIMEOUT_MILLIS);
+        List<Process> processes = new ArrayList<>();
+        long start = System.nanoTime();
+        File checkpointFile = new File(args[5] + ".checkpoint");
+        coordinator.run(port, outputFile, checkpointFile, boundPort ->
+        {
+            System.out.println("Coordinator listening on port " + boundPort);
+            try
+            {
+                processes.addAll(startLocalWorkers(boundPort, localWorkers));
+            }
+            catch (IOException e)
+            {
+                System.err.println("Could not start local workers: " + e.getMessage());
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d puzzles to %s in %.1f s (%d leases reissued)%n", count, outputFile, seconds,
+                coordinator.getReissuedLeases());
+        for (Process process : processes)
+        {
+            try
+            {
+                process.waitFor();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * SudokuGenerationProtocol class
+ * 
+ * The messages exchanged between SudokuGenerationCoordinator and
+ * SudokuGenerationWorker over a socket. Every message starts with a one byte
+ * type, followed by its fields written with DataOutputStream:
+ * 
+ * REQUEST_LEASE (worker): no fields.
+ * LEASE (coordinator): lease id, difficulty, first seed, puzzle count.
+ * NO_MORE_WORK (coordinator): no fields, the worker should exit.
+ * RESULT (worker): lease id, seed, packed puzzle.
+ * LEASE_DONE (worker): lease id.
+ * 
+ * A puzzle is packed two cells per byte, so a result costs 58 bytes on the
+ * wire instead of 81 or more for a text board.
+ */
+final class SudokuGenerationProtocol
+{
+    static final byte REQUEST_LEASE = 1;
+    static final byte LEASE = 2;
+    static final byte NO_MORE_WORK = 3;
+    static final byte RESULT = 4;
+    static final byte LEASE_DONE = 5;
+
+    static final int CELL_COUNT = SudokuGridGenerator.BOARD_SIZE * SudokuGridGenerator.BOARD_SIZE;
+    static final int PACKED_SIZE = (CELL_COUNT + 1) / 2;
+
+    private SudokuGenerationProtocol()
+    {
+    }
+
+    /**
+     * Pack a board into PACKED_SIZE bytes, two cells per byte.
+     * 
+     * @param gameBoard the board to pack.
+     * @param packed    an array of PACKED_SIZE bytes that receives the board.
+     */
+    static void pack(int[][] gameBoard, byte[] packed)
+    {
+        for (int i = 0; i < PACKED_SIZE; i++)
+        {
+            int first = 2 * i;
+            int high = cellValue(gameBoard, first);
+            int low = first + 1 < CELL_COUNT ? cellValue(gameBoard, first + 1) : 0;
+            packed[i] = (byte) ((high << 4) | low);
+        }
+    }
+
+    /**
+     * Unpack a board written by pack into a row-major string of 81 digits,
+     * with 0 for an empty cell.
+     * 
+     * @param packed the packed board.
+     * @return the board as text.
+     */
+    static String unpack(byte[] packed)
+    {
+        StringBuilder text = new StringBuilder(CELL_COUNT);
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            int b = packed[cell / 2];
+            int val = (cell % 2 == 0) ? (b >> 4) & 0xF : b & 0xF;
+            if (val > SudokuGridGenerator.MAX_NUM)
+            {
+                throw new IllegalArgumentException("invalid packed cell value: " + val);
+            }
+            text.append((char) ('0' + val));
+        }
+        return text.toString();
+    }
+
+    static void writeLease(DataOutputStream out, long leaseId, String difficulty, long firstSeed, int count)
+            throws IOException
+    {
+        out.writeByte(LEASE);
+        out.writeLong(leaseId);
+        out.writeUTF(difficulty);
+        out.writeLong(firstSeed);
+        out.writeInt(count);
+        out.flush();
+    }
+
+    static void writeResult(DataOutputStream out, long leaseId, long seed, byte[] packed) throws IOException
+    {
+        out.writeByte(RESULT);
+        out.writeLong(leaseId);
+        out.writeLong(seed);
+        out.write(packed, 0, PACKED_SIZE);
+    }
+
+    static byte[] readPacked(DataInputStream in) throws IOException
+    {
+        byte[] packed = new byte[PACKED_SIZE];
+        in.readFully(packed);
+        return packed;
+    }
+
+    private static int cellValue(int[][] gameBoard, int cell)
+    {
+        return gameBoard[cell / SudokuGridGenerator.BOARD_SIZE][cell % SudokuGridGenerator.BOARD_SIZE];
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * SudokuGenerationWorker class
+ * 
+ * A worker process for distributed puzzle generation. The worker connects to a
+ * SudokuGenerationCoordinator, asks for a lease, creates one puzzle for every
+ * seed in the lease with the SudokuGridGenerator pipeline (populateFullBoard
+ * followed by finalizeBoard), streams the packed puzzles back, and asks for the
+ * next lease until the coordinator has no more work.
+ * 
+ * The puzzle for a seed depends only on the seed and the difficulty, so a lease
+ * that is handed to another worker after this one dies produces exactly the
+ * same puzzles.
+ * 
+ * Usage: java SudokuGenerationWorker host port
+ */
+public class SudokuGenerationWorker
+{
+    private final String host;
+    private final int port;
+
+    /**
+     * Create a worker for the coordinator at the given address.
+     * 
+     * @param host the coordinator host name.
+     * @param port the coordinator port.
+     */
+    public SudokuGenerationWorker(String host, int port)
+    {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Process leases until the coordinator has no more work or closes the
+     * connection.
+     * 
+     * @return the number of puzzles created.
+     * @throws IOException if the connection fails.
+     */
+    public long run() throws IOException
+    {
+        long puzzles = 0;
+        byte[] packed = new byte[SudokuGenerationProtocol.PACKED_SIZE];
+        try (Socket socket = new Socket(host, port))
+        {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (true)
+            {
+                out.writeByte(SudokuGenerationProtocol.REQUEST_LEASE);
+                out.flush();
+                byte type;
+                try
+                {
+                    type = in.readByte();
+                }
+                catch (EOFException e)
+                {
+                    // The coordinator finished and closed the connection.
+                    break;
+                }
+                if (type == SudokuGenerationProtocol.NO_MORE_WORK)
+                {
+                    break;
+                }
+                if (type != SudokuGenerationProtocol.LEASE)
+                {
+                    throw new IOException("unexpected message type: " + type);
+                }
+                long leaseId = in.readLong();
+                String difficulty = in.readUTF();
+                long firstSeed = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++)
+                {
+                    long seed = firstSeed + i;
+                    SudokuGridGenerator grid = generate(difficulty, seed);
+                    SudokuGenerationProtocol.pack(grid.getBoard(), packed);
+                    SudokuGenerationProtocol.writeResult(out, leaseId, seed, packed);
+                    puzzles++;
+                }
+                out.writeByte(SudokuGenerationProtocol.LEASE_DONE);
+                out.writeLong(leaseId);
+            }
+        }
+        return puzzles;
+    }
+
+    /**
+     * Create the puzzle for one seed.
+     * 
+     * @param difficulty the game type, as accepted by setGameType.
+     * @param seed       the seed of the puzzle.
+     * @return the generator holding the finished puzzle.
+     */
+    static SudokuGridGenerator generate(String difficulty, long seed)
+    {
+        SudokuGridGenerator grid = new SudokuGridGenerator(seed);
+        grid.setGameType(difficulty);
+        grid.populateFullBoard();
+        grid.finalizeBoard();
+        return grid;
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.err.println("Usage: java SudokuGenerationWorker host port");
+            System.exit(2);
+        }
+        long puzzles = new SudokuGenerationWorker(args[0], Integer.parseInt(args[1])).run();
+        System.out.println("Worker finished after " + puzzles + " puzzles");
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * SudokuBoardKey class
+ * 
+ * An immutable key for a 9x9 board, for use in hash maps. The 81 cells are
+ * packed as decimal digits, 18 cells to a long, into five longs, so a key is
+ * one small object with no arrays and its hash is computed once.
+ */
+public final class SudokuBoardKey
+{
+    private static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    private static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+    // 10^18 is the largest power of ten below 2^63.
+    private static final int CELLS_PER_LONG = 18;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private final long cells0;
+    private final long cells1;
+    private final long cells2;
+    private final long cells3;
+    private final long cells4;
+    private final int hash;
+
+    private SudokuBoardKey(long cells0, long cells1, long cells2, long cells3, long cells4)
+    {
+        this.cells0 = cells0;
+        this.cells1 = cells1;
+        this.cells2 = cells2;
+        this.cells3 = cells3;
+        this.cells4 = cells4;
+        long mixed = (((cells0 * GOLDEN + cells1) * GOLDEN + cells2) * GOLDEN + cells3) * GOLDEN + cells4;
+        hash = (int) (mixed ^ (mixed >>> 32));
+    }
+
+    /**
+     * Create the key of a board.
+     * 
+     * @param gameBoard the board, with EMPTY_SQUARE for an empty cell.
+     * @return the key.
+     */
+    public static SudokuBoardKey of(int[][] gameBoard)
+    {
+        return new SudokuBoardKey(pack(gameBoard, 0), pack(gameBoard, 1), pack(gameBoard, 2), pack(gameBoard, 3),
+                pack(gameBoard, 4));
+    }
+
+    /**
+     * Pack one group of CELLS_PER_LONG cells, the last group holding the rest.
+     * 
+     * @param gameBoard the board.
+     * @param group     the group index, from 0 to 4.
+     * @return the cells of the group as a decimal number.
+     */
+    private static long pack(int[][] gameBoard, int group)
+    {
+        long packed = 0;
+        int start = group * CELLS_PER_LONG;
+        int count = Math.min(CELLS_PER_LONG, CELL_COUNT - start);
+        int row = start / GRID_SIZE;
+        int col = start % GRID_SIZE;
+        for (int i = 0; i < count; i++)
+        {
+            int val = gameBoard[row][col];
+            if (val < SudokuGridGenerator.EMPTY_SQUARE || val > SudokuGridGenerator.MAX_NUM)
+            {
+                throw new IllegalArgumentException("value must be between 0 and 9: " + val);
+            }
+            packed = packed * 10 + val;
+            if (++col == GRID_SIZE)
+            {
+                col = 0;
+                row++;
+            }
+        }
+        return packed;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if (this == other)
+        {
+            return true;
+        }
+        if (!(other instanceof SudokuBoardKey))
+        {
+            return false;
+        }
+        SudokuBoardKey key = (SudokuBoardKey) other;
+        return hash == key.hash && cells0 == key.cells0 && cells1 == key.cells1 && cells2 == key.cells2
+                && cells3 == key.cells3 && cells4 == key.cells4;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    /**
+     * Returns the board as 81 digits in row-major order.
+     * 
+     * @return the board text.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder text = new StringBuilder(CELL_COUNT);
+        long[] packed = { cells0, cells1, cells2, cells3, cells4 };
+        for (int i = 0; i < packed.length; i++)
+        {
+            int width = Math.min(CELLS_PER_LONG, CELL_COUNT - i * CELLS_PER_LONG);
+            String digits = Long.toString(packed[i]);
+            for (int pad = digits.length(); pad < width; pad++)
+            {
+                text.append('0');
+            }
+            text.append(digits);
+        }
+        return text.toString();
+    }
+}
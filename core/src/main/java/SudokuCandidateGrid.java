@@ -0,0 +1,204 @@
+import java.util.Arrays;
+
+/**
+ * SudokuCandidateGrid class
+ * 
+ * Keeps the pencil-mark candidates of every empty cell of a board while the
+ * player edits it. For every unit the grid counts how often each digit occurs,
+ * and keeps a mask of the digits that occur at least once. Changing one cell
+ * only changes the masks of the units that contain it, so only the cell and
+ * its peers need new candidates, and each of those is a handful of bitmask
+ * operations. Counts rather than plain masks let the grid handle boards where
+ * the player has entered the same digit twice in a unit.
+ * 
+ * Candidates are digit masks: bit d - 1 is set when digit d is a candidate.
+ * Cage sums of killer models are not taken into account.
+ */
+public final class SudokuCandidateGrid
+{
+    private static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    private static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+
+    private final SudokuConstraintModel model;
+    private final int[] values = new int[CELL_COUNT];
+    private final int[] candidates = new int[CELL_COUNT];
+    private final int[] unitDigitCounts;
+    private final int[] unitUsed;
+    private final int[] changedCells = new int[CELL_COUNT];
+    private int changedCount;
+
+    /**
+     * Create an empty grid with the classic rules.
+     */
+    public SudokuCandidateGrid()
+    {
+        this(SudokuConstraintModel.CLASSIC);
+    }
+
+    /**
+     * Create an empty grid.
+     * 
+     * @param model the rules of the board.
+     */
+    public SudokuCandidateGrid(SudokuConstraintModel model)
+    {
+        this.model = model;
+        unitDigitCounts = new int[model.getUnitCount() * GRID_SIZE];
+        unitUsed = new int[model.getUnitCount()];
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            candidates[cell] = SudokuSolverContext.ALL_DIGITS;
+        }
+    }
+
+    /**
+     * Replace the whole board and compute every candidate from scratch.
+     * 
+     * @param gameBoard the board, with EMPTY_SQUARE for an empty cell.
+     */
+    public void load(int[][] gameBoard)
+    {
+        Arrays.fill(unitDigitCounts, 0);
+        Arrays.fill(unitUsed, 0);
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            values[cell] = gameBoard[cell / GRID_SIZE][cell % GRID_SIZE];
+            if (values[cell] != SudokuGridGenerator.EMPTY_SQUARE)
+            {
+                count(cell, values[cell], 1);
+            }
+        }
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            candidates[cell] = computeCandidates(cell);
+        }
+        changedCount = 0;
+    }
+
+    /**
+     * Change the value of one cell and update the candidates of the cell and
+     * its peers. The cells whose candidates changed can then be read with
+     * getChangedCount and getChangedCell.
+     * 
+     * @param row the row index.
+     * @param col the column index.
+     * @param val the new value, or EMPTY_SQUARE.
+     * @return the number of cells whose candidates changed.
+     */
+    public int set(int row, int col, int val)
+    {
+        if (val < SudokuGridGenerator.EMPTY_SQUARE || val > SudokuGridGenerator.MAX_NUM)
+        {
+            throw new IllegalArgumentException("value must be between 0 and 9: " + val);
+        }
+        int cell = row * GRID_SIZE + col;
+        changedCount = 0;
+        if (values[cell] == val)
+        {
+            return 0;
+        }
+        if (values[cell] != SudokuGridGenerator.EMPTY_SQUARE)
+        {
+            count(cell, values[cell], -1);
+        }
+        values[cell] = val;
+        if (val != SudokuGridGenerator.EMPTY_SQUARE)
+        {
+            count(cell, val, 1);
+        }
+        update(cell);
+        for (int peer : model.getPeers(cell))
+        {
+            update(peer);
+        }
+        return changedCount;
+    }
+
+    /**
+     * Returns the candidates of a cell, or 0 if the cell is filled.
+     * 
+     * @param row the row index.
+     * @param col the column index.
+     * @return the candidate digit mask.
+     */
+    public int getCandidates(int row, int col)
+    {
+        return candidates[row * GRID_SIZE + col];
+    }
+
+    public int getValue(int row, int col)
+    {
+        return values[row * GRID_SIZE + col];
+    }
+
+    /**
+     * Returns the number of cells whose candidates changed in the last call to
+     * set.
+     * 
+     * @return the number of changed cells.
+     */
+    public int getChangedCount()
+    {
+        return changedCount;
+    }
+
+    /**
+     * Returns one of the cells whose candidates changed in the last call to set.
+     * 
+     * @param index the index, from 0 to getChangedCount() - 1.
+     * @return the flattened cell index.
+     */
+    public int getChangedCell(int index)
+    {
+        return changedCells[index];
+    }
+
+    /**
+     * Add or remove one occurrence of a digit in every unit of a cell.
+     * 
+     * @param cell  the flattened cell index.
+     * @param digit the digit.
+     * @param delta 1 to add the digit, -1 to remove it.
+     */
+    private void count(int cell, int digit, int delta)
+    {
+        int bit = 1 << (digit - 1);
+        for (int unit : model.cellUnits[cell])
+        {
+            int index = unit * GRID_SIZE + digit - 1;
+            unitDigitCounts[index] += delta;
+            if (unitDigitCounts[index] == 0)
+            {
+                unitUsed[unit] &= ~bit;
+            }
+            else
+            {
+                unitUsed[unit] |= bit;
+            }
+        }
+    }
+
+    private void update(int cell)
+    {
+        int mask = computeCandidates(cell);
+        if (candidates[cell] != mask)
+        {
+            candidates[cell] = mask;
+            changedCells[changedCount++] = cell;
+        }
+    }
+
+    private int computeCandidates(int cell)
+    {
+        if (values[cell] != SudokuGridGenerator.EMPTY_SQUARE)
+        {
+            return 0;
+        }
+        int used = 0;
+        for (int unit : model.cellUnits[cell])
+        {
+            used |= unitUsed[unit];
+        }
+        return SudokuSolverContext.ALL_DIGITS & ~used;
+    }
+}
@@ -0,0 +1,386 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SudokuConstraintModel class
+ * 
+ * Describes which cells of a 9x9 board must hold different digits. A model is
+ * a list of units, each a set of cells in which no digit may repeat. The classic
+ * game has 27 units (9 rows, 9 columns, and 9 squares); variants add or replace
+ * units:
+ * 
+ * - diagonal Sudoku adds the two main diagonals as units,
+ * - jigsaw Sudoku replaces the 3x3 squares with irregular regions,
+ * - killer Sudoku adds cages, units whose digits must also add up to a sum.
+ * 
+ * The model is immutable and precomputes, for every cell, the units it belongs
+ * to and its peers (all other cells that share a unit with it), so the solver
+ * can handle any layout with the same bitmask operations it uses for the
+ * classic game.
+ */
+public final class SudokuConstraintModel
+{
+    private static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    private static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+    private static final int MAX_SUM = 45;
+
+    /**
+     * The classic rules: rows, columns, and 3x3 squares.
+     */
+    public static final SudokuConstraintModel CLASSIC = new SudokuConstraintModel(classicRegions(), false,
+            new int[0][], new int[0]);
+
+    /*
+     * SUM_SUBSETS[k][s] lists every set of k different digits that adds up to s,
+     * as digit masks. Used to restrict cage candidates to digits that can still
+     * complete the cage sum.
+     */
+    static final int[][][] SUM_SUBSETS = new int[GRID_SIZE + 1][MAX_SUM + 1][];
+
+    static
+    {
+        List<List<List<Integer>>> subsets = new ArrayList<List<List<Integer>>>();
+        for (int k = 0; k <= GRID_SIZE; k++)
+        {
+            List<List<Integer>> bySum = new ArrayList<List<Integer>>();
+            for (int s = 0; s <= MAX_SUM; s++)
+            {
+                bySum.add(new ArrayList<Integer>());
+            }
+            subsets.add(bySum);
+        }
+        for (int mask = 0; mask <= SudokuSolverContext.ALL_DIGITS; mask++)
+        {
+            int sum = 0;
+            for (int digit = 1; digit <= GRID_SIZE; digit++)
+            {
+                if ((mask & (1 << (digit - 1))) != 0)
+                {
+                    sum += digit;
+                }
+            }
+            subsets.get(Integer.bitCount(mask)).get(sum).add(mask);
+        }
+        for (int k = 0; k <= GRID_SIZE; k++)
+        {
+            for (int s = 0; s <= MAX_SUM; s++)
+            {
+                List<Integer> list = subsets.get(k).get(s);
+                SUM_SUBSETS[k][s] = new int[list.size()];
+                for (int i = 0; i < list.size(); i++)
+                {
+                    SUM_SUBSETS[k][s][i] = list.get(i);
+                }
+            }
+        }
+    }
+
+    final int[][] regions;
+    final boolean diagonals;
+    final int[][] unitCells;
+    final int[][] cellUnits;
+    final int[] regionUnit;
+    final int[][] extraUnits;
+    final boolean hasExtraUnits;
+    final int[][] peers;
+    final int[] cageOf;
+    final int[] cageSum;
+    final int[] cageSize;
+    final int[][] cageCells;
+    final boolean classic;
+
+    /**
+     * Build a model from its parts and precompute the unit and peer tables.
+     * 
+     * @param regions   the region index (0 to 8) of every cell.
+     * @param diagonals whether the two main diagonals are units.
+     * @param cages     the cells of every killer cage, as flattened indices.
+     * @param sums      the sum of every killer cage.
+     */
+    private SudokuConstraintModel(int[][] regions, boolean diagonals, int[][] cages, int[] sums)
+    {
+        this.regions = regions;
+        this.diagonals = diagonals;
+        List<int[]> units = new ArrayList<int[]>();
+        for (int row = 0; row < GRID_SIZE; row++)
+        {
+            int[] unit = new int[GRID_SIZE];
+            for (int col = 0; col < GRID_SIZE; col++)
+            {
+                unit[col] = row * GRID_SIZE + col;
+            }
+            units.add(unit);
+        }
+        for (int col = 0; col < GRID_SIZE; col++)
+        {
+            int[] unit = new int[GRID_SIZE];
+            for (int row = 0; row < GRID_SIZE; row++)
+            {
+                unit[row] = row * GRID_SIZE + col;
+            }
+            units.add(unit);
+        }
+        int[] regionFill = new int[GRID_SIZE];
+        int[][] regionUnits = new int[GRID_SIZE][GRID_SIZE];
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            int region = regions[cell / GRID_SIZE][cell % GRID_SIZE];
+            regionUnits[region][regionFill[region]++] = cell;
+        }
+        units.addAll(Arrays.asList(regionUnits));
+        if (diagonals)
+        {
+            int[] main = new int[GRID_SIZE];
+            int[] anti = new int[GRID_SIZE];
+            for (int i = 0; i < GRID_SIZE; i++)
+            {
+                main[i] = i * GRID_SIZE + i;
+                anti[i] = i * GRID_SIZE + (GRID_SIZE - 1 - i);
+            }
+            units.add(main);
+            units.add(anti);
+        }
+        cageCells = cages;
+        cageOf = new int[CELL_COUNT];
+        Arrays.fill(cageOf, -1);
+        cageSum = sums.clone();
+        cageSize = new int[cages.length];
+        for (int cage = 0; cage < cages.length; cage++)
+        {
+            cageSize[cage] = cages[cage].length;
+            for (int cell : cages[cage])
+            {
+                cageOf[cell] = cage;
+            }
+            // A cage is also a unit, since its digits may not repeat.
+            units.add(cages[cage]);
+        }
+        unitCells = units.toArray(new int[units.size()][]);
+
+        /*
+         * Precompute the units and peers of every cell. Every cell is in exactly one
+         * row (unit row), one column (unit 9 + column), and one region; the units
+         * beyond those are kept separately so that the solver can skip them for the
+         * classic layout.
+         */
+        regionUnit = new int[CELL_COUNT];
+        extraUnits = new int[CELL_COUNT][];
+        cellUnits = new int[CELL_COUNT][];
+        peers = new int[CELL_COUNT][];
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            List<Integer> memberOf = new ArrayList<Integer>();
+            boolean[] isPeer = new boolean[CELL_COUNT];
+            int peerCount = 0;
+            for (int unit = 0; unit < unitCells.length; unit++)
+            {
+                if (contains(unitCells[unit], cell))
+                {
+                    memberOf.add(unit);
+                    for (int other : unitCells[unit])
+                    {
+                        if (other != cell && !isPeer[other])
+                        {
+                            isPeer[other] = true;
+                            peerCount++;
+                        }
+                    }
+                }
+            }
+            cellUnits[cell] = new int[memberOf.size()];
+            for (int i = 0; i < memberOf.size(); i++)
+            {
+                cellUnits[cell][i] = memberOf.get(i);
+            }
+            regionUnit[cell] = cellUnits[cell][2];
+            extraUnits[cell] = Arrays.copyOfRange(cellUnits[cell], 3, cellUnits[cell].length);
+            peers[cell] = new int[peerCount];
+            int next = 0;
+            for (int other = 0; other < CELL_COUNT; other++)
+            {
+                if (isPeer[other])
+                {
+                    peers[cell][next++] = other;
+                }
+            }
+        }
+        hasExtraUnits = unitCells.length > 3 * GRID_SIZE;
+        classic = !diagonals && cages.length == 0 && Arrays.deepEquals(regions, classicRegions());
+    }
+
+    /**
+     * Create a jigsaw model, where the 3x3 squares are replaced by irregular
+     * regions. Rows and columns stay as they are.
+     * 
+     * @param regions the region index (0 to 8) of every cell; every region must
+     *                have exactly 9 cells.
+     * @return the new model.
+     */
+    public static SudokuConstraintModel jigsaw(int[][] regions)
+    {
+        int[][] copy = new int[GRID_SIZE][];
+        int[] regionSize = new int[GRID_SIZE];
+        for (int row = 0; row < GRID_SIZE; row++)
+        {
+            copy[row] = regions[row].clone();
+            if (copy[row].length != GRID_SIZE)
+            {
+                throw new IllegalArgumentException("row " + row + " must have " + GRID_SIZE + " cells");
+            }
+            for (int col = 0; col < GRID_SIZE; col++)
+            {
+                int region = copy[row][col];
+                if (region < 0 || region >= GRID_SIZE)
+                {
+                    throw new IllegalArgumentException("region out of range at " + row + "," + col + ": " + region);
+                }
+                regionSize[region]++;
+            }
+        }
+        for (int region = 0; region < GRID_SIZE; region++)
+        {
+            if (regionSize[region] != GRID_SIZE)
+            {
+                throw new IllegalArgumentException("region " + region + " has " + regionSize[region] + " cells");
+            }
+        }
+        return new SudokuConstraintModel(copy, false, new int[0][], new int[0]);
+    }
+
+    /**
+     * Returns a copy of this model in which both main diagonals are also units.
+     * 
+     * @return the diagonal variant of this model.
+     */
+    public SudokuConstraintModel withDiagonals()
+    {
+        return new SudokuConstraintModel(regions, true, cageCells, cageSum);
+    }
+
+    /**
+     * Returns a copy of this model with killer cages added. Each cage is a list
+     * of cells, given as flattened indices (row * 9 + column), whose digits may
+     * not repeat and must add up to the cage sum.
+     * 
+     * @param cages the cells of every new cage.
+     * @param sums  the sum of every new cage.
+     * @return the killer variant of this model.
+     */
+    public SudokuConstraintModel withCages(int[][] cages, int[] sums)
+    {
+        if (cages.length != sums.length)
+        {
+            throw new IllegalArgumentException("every cage needs exactly one sum");
+        }
+        boolean[] used = new boolean[CELL_COUNT];
+        for (int[] cage : cageCells)
+        {
+            for (int cell : cage)
+            {
+                used[cell] = true;
+            }
+        }
+        int[][] allCages = Arrays.copyOf(cageCells, cageCells.length + cages.length);
+        int[] allSums = Arrays.copyOf(cageSum, cageSum.length + sums.length);
+        for (int i = 0; i < cages.length; i++)
+        {
+            int[] cage = cages[i].clone();
+            if (cage.length == 0 || cage.length > GRID_SIZE || sums[i] < 1 || sums[i] > MAX_SUM)
+            {
+                throw new IllegalArgumentException("invalid cage " + i);
+            }
+            for (int cell : cage)
+            {
+                if (cell < 0 || cell >= CELL_COUNT || used[cell])
+                {
+                    throw new IllegalArgumentException("cage " + i + " has an invalid or shared cell: " + cell);
+                }
+                used[cell] = true;
+            }
+            allCages[cageCells.length + i] = cage;
+            allSums[cageSum.length + i] = sums[i];
+        }
+        return new SudokuConstraintModel(regions, diagonals, allCages, allSums);
+    }
+
+    public int getUnitCount()
+    {
+        return unitCells.length;
+    }
+
+    public int getCageCount()
+    {
+        return cageCells.length;
+    }
+
+    /**
+     * Returns true if this is the classic layout without extra units.
+     * 
+     * @return whether the model has only rows, columns, and 3x3 squares.
+     */
+    public boolean isClassic()
+    {
+        return classic;
+    }
+
+    /**
+     * Returns the peers of a cell: every other cell that shares a unit with it.
+     * The returned array must not be modified.
+     * 
+     * @param cell the flattened cell index.
+     * @return the flattened indices of the peers.
+     */
+    public int[] getPeers(int cell)
+    {
+        return peers[cell];
+    }
+
+    /**
+     * Determine whether the digit can be placed in the cell, given the digits
+     * already on the board. Cage sums are not checked here.
+     * 
+     * @param gameBoard a 2D array representing the game grid.
+     * @param row       the row index.
+     * @param col       the column index.
+     * @param digit     the digit being tested.
+     * @return a boolean to determine whether no peer holds the digit.
+     */
+    public boolean isAllowed(int[][] gameBoard, int row, int col, int digit)
+    {
+        for (int peer : peers[row * GRID_SIZE + col])
+        {
+            if (gameBoard[peer / GRID_SIZE][peer % GRID_SIZE] == digit)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[][] classicRegions()
+    {
+        int[][] regions = new int[GRID_SIZE][GRID_SIZE];
+        for (int row = 0; row < GRID_SIZE; row++)
+        {
+            for (int col = 0; col < GRID_SIZE; col++)
+            {
+                regions[row][col] = (row / SudokuGridGenerator.SQUARE_SIZE) * SudokuGridGenerator.SQUARE_SIZE
+                        + col / SudokuGridGenerator.SQUARE_SIZE;
+            }
+        }
+        return regions;
+    }
+
+    private static boolean contains(int[] cells, int cell)
+    {
+        for (int other : cells)
+        {
+            if (other == cell)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SudokuEngineStatistics class
+ * 
+ * Running totals of the work done by one SudokuSolverEngine through
+ * SudokuSolverEngines: the number of solves and counts, the nodes they used,
+ * and the time they took. The totals are updated by every calling thread
+ * without locking and can be read at any time, for example to compare two
+ * engines that serve the same traffic.
+ */
+public final class SudokuEngineStatistics
+{
+    private final String engine;
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder counts = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    SudokuEngineStatistics(String engine)
+    {
+        this.engine = engine;
+    }
+
+    /**
+     * Add one call to the totals.
+     * 
+     * @param count     true for a count, false for a solve.
+     * @param callNodes the nodes the call used.
+     * @param callNanos the time the call took.
+     */
+    void record(boolean count, long callNodes, long callNanos)
+    {
+        (count ? counts : solves).increment();
+        nodes.add(callNodes);
+        nanos.add(callNanos);
+    }
+
+    public String getEngine()
+    {
+        return engine;
+    }
+
+    public long getSolves()
+    {
+        return solves.sum();
+    }
+
+    public long getCounts()
+    {
+        return counts.sum();
+    }
+
+    public long getNodes()
+    {
+        return nodes.sum();
+    }
+
+    public long getNanos()
+    {
+        return nanos.sum();
+    }
+
+    /**
+     * Returns the nodes searched per second of engine time.
+     * 
+     * @return the node rate, or 0 before the first call.
+     */
+    public double getNodesPerSecond()
+    {
+        long time = getNanos();
+        return time == 0 ? 0 : getNodes() * (double) TimeUnit.SECONDS.toNanos(1) / time;
+    }
+
+    /**
+     * Returns the calls (solves and counts) completed per second of engine
+     * time.
+     * 
+     * @return the call rate, or 0 before the first call.
+     */
+    public double getCallsPerSecond()
+    {
+        long time = getNanos();
+        return time == 0 ? 0 : (getSolves() + getCounts()) * (double) TimeUnit.SECONDS.toNanos(1) / time;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: %d solves, %d counts, %d nodes, %.3f s, %.0f calls/s, %.0f nodes/s", engine,
+                getSolves(), getCounts(), getNodes(), getNanos() / 1e9, getCallsPerSecond(), getNodesPerSecond());
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * SudokuFeasibilityCheck class
+ * 
+ * Decides whether a player's position can still be completed, using the rules
+ * rather than a stored solution, and if it cannot, finds the entries that make
+ * it a dead end.
+ * 
+ * The position is solved under a node limit by the default SudokuSolverEngine,
+ * which is the mrv engine unless configured otherwise. Its candidate masks make
+ * a cell without candidates fail at once, and it always fills the cell with
+ * the fewest candidates first, so forced cells are propagated before any
+ * guessing. A position that is still solvable is usually decided in well
+ * under a millisecond.
+ * 
+ * For a dead end, each entry in turn is taken off the board; if the board is
+ * still a dead end without it, it stays off. The entries that remain are a
+ * smallest set in the sense that taking off any one of them makes the
+ * position solvable again. This costs one solve per entry and only runs for
+ * dead ends.
+ * 
+ * A check may not be used by several threads at once.
+ */
+public final class SudokuFeasibilityCheck
+{
+    public static final long DEFAULT_NODE_LIMIT = 1 << 16;
+
+    private static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    private static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+
+    private final SudokuConstraintModel model;
+    private final long nodeLimit;
+    private final int[][] position = new int[GRID_SIZE][GRID_SIZE];
+    private final int[][] solution = new int[GRID_SIZE][GRID_SIZE];
+    private final int[] entries = new int[CELL_COUNT];
+
+    /**
+     * Create a check for classic boards with DEFAULT_NODE_LIMIT.
+     */
+    public SudokuFeasibilityCheck()
+    {
+        this(SudokuConstraintModel.CLASSIC, DEFAULT_NODE_LIMIT);
+    }
+
+    /**
+     * Create a check.
+     * 
+     * @param model     the rules of the board.
+     * @param nodeLimit the most nodes one solve may use, at least 1.
+     */
+    public SudokuFeasibilityCheck(SudokuConstraintModel model, long nodeLimit)
+    {
+        if (nodeLimit < 1)
+        {
+            throw new IllegalArgumentException("nodeLimit must be at least 1: " + nodeLimit);
+        }
+        this.model = model;
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Check whether the position can still be completed.
+     * 
+     * @param givens the starting board; its clues are never blamed.
+     * @param board  the current position: the givens plus the player's entries.
+     * @return the result of the check.
+     */
+    public Result check(int[][] givens, int[][] board)
+    {
+        int entryCount = 0;
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            int row = cell / GRID_SIZE;
+            int col = cell % GRID_SIZE;
+            position[row][col] = board[row][col];
+            if (board[row][col] != SudokuGridGenerator.EMPTY_SQUARE
+                    && givens[row][col] == SudokuGridGenerator.EMPTY_SQUARE)
+            {
+                entries[entryCount++] = cell;
+            }
+        }
+        SudokuSearchStatus status = solve();
+        if (status != SudokuSearchStatus.NO_SOLUTION)
+        {
+            return new Result(status, new int[0]);
+        }
+        int conflictCount = 0;
+        for (int i = 0; i < entryCount; i++)
+        {
+            int row = entries[i] / GRID_SIZE;
+            int col = entries[i] % GRID_SIZE;
+            position[row][col] = SudokuGridGenerator.EMPTY_SQUARE;
+            // An entry that is needed for the dead end goes back on the board.
+            if (solve() != SudokuSearchStatus.NO_SOLUTION)
+            {
+                position[row][col] = board[row][col];
+                entries[conflictCount++] = entries[i];
+            }
+        }
+        int[] conflicts = new int[conflictCount];
+        System.arraycopy(entries, 0, conflicts, 0, conflictCount);
+        return new Result(SudokuSearchStatus.NO_SOLUTION, conflicts);
+    }
+
+    private SudokuSearchStatus solve()
+    {
+        return SudokuSolverEngines.getDefault().solve(model, position, solution,
+                SudokuSearchBudget.ofNodes(nodeLimit));
+    }
+
+    /**
+     * The result of a check.
+     */
+    public static class Result
+    {
+        private final SudokuSearchStatus status;
+        private final int[] conflicts;
+
+        Result(SudokuSearchStatus status, int[] conflicts)
+        {
+            this.status = status;
+            this.conflicts = conflicts;
+        }
+
+        /**
+         * Returns COMPLETED if the position can be completed, NO_SOLUTION if it
+         * is a dead end, or BUDGET_EXCEEDED if the node limit ran out first.
+         * 
+         * @return the status of the check.
+         */
+        public SudokuSearchStatus getStatus()
+        {
+            return status;
+        }
+
+        public boolean isDeadEnd()
+        {
+            return status == SudokuSearchStatus.NO_SOLUTION;
+        }
+
+        /**
+         * Returns the player's entries that make the position a dead end, as
+         * flattened cell indices. Empty unless isDeadEnd is true, and also
+         * empty if the givens alone are a dead end. The returned array must not
+         * be modified.
+         * 
+         * @return the conflicting entries.
+         */
+        public int[] getConflicts()
+        {
+            return conflicts;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+import java.util.SplittableRandom;
+
+/**
+ * SudokuFullGridGenerator class
+ * 
+ * Creates completely filled, valid Sudoku grids. The three squares on the main
+ * diagonal do not share a row or column, so they are first filled with random
+ * permutations of 1 to 9. The remaining cells are then completed by a bitmask
+ * search that tries the candidates of each cell in random order. Because every
+ * choice is random (rather than the fixed 1 to 9 order used by
+ * populateRemainingBoard), the grids are spread far more evenly over the space
+ * of valid solutions.
+ * 
+ * A random fill is usually done within a hundred nodes, but now and then an
+ * early choice leaves a contradiction that the search only finds deep down and
+ * takes thousands of nodes to undo. A fill that exceeds the cutoff of its
+ * SudokuRestartSchedule is therefore abandoned and started over with new
+ * diagonal squares, which keeps the slowest grids close to the median.
+ * 
+ * Grids for Sudoku variants are created the same way from a
+ * SudokuConstraintModel; the diagonal squares are only prefilled for the
+ * classic layout, where they are known to be independent.
+ * 
+ * An instance is not thread safe; use one generator per thread.
+ */
+public class SudokuFullGridGenerator
+{
+    /**
+     * The default restart schedule. Nine in ten classic fills need fewer than
+     * 64 nodes.
+     */
+    public static final SudokuRestartSchedule DEFAULT_SCHEDULE = SudokuRestartSchedule.luby(100);
+
+    private final SudokuSolverContext context;
+    private final SudokuConstraintModel model;
+    private final SplittableRandom random;
+    private final int[] digits;
+    private SudokuRestartSchedule schedule;
+
+    /**
+     * Create a generator seeded from the system clock.
+     */
+    public SudokuFullGridGenerator()
+    {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Create a generator with a fixed seed so that the grids can be reproduced.
+     * 
+     * @param seed the seed for the random generator.
+     */
+    public SudokuFullGridGenerator(long seed)
+    {
+        this(SudokuConstraintModel.CLASSIC, new SplittableRandom(seed));
+    }
+
+    /**
+     * Create a generator for a Sudoku variant with a fixed seed.
+     * 
+     * @param model the rules the grids must follow.
+     * @param seed  the seed for the random generator.
+     */
+    public SudokuFullGridGenerator(SudokuConstraintModel model, long seed)
+    {
+        this(model, new SplittableRandom(seed));
+    }
+
+    private SudokuFullGridGenerator(SplittableRandom random)
+    {
+        this(SudokuConstraintModel.CLASSIC, random);
+    }
+
+    private SudokuFullGridGenerator(SudokuConstraintModel model, SplittableRandom random)
+    {
+        this.model = model;
+        this.random = random;
+        context = new SudokuSolverContext();
+        context.useModel(model);
+        digits = new int[SudokuGridGenerator.MAX_NUM];
+        schedule = DEFAULT_SCHEDULE;
+    }
+
+    /**
+     * Set the restart schedule of the random fill.
+     * 
+     * @param schedule the schedule, or SudokuRestartSchedule.never() to finish
+     *                 every fill however long it takes.
+     */
+    public void setRestartSchedule(SudokuRestartSchedule schedule)
+    {
+        if (schedule == null)
+        {
+            throw new IllegalArgumentException("restart schedule must not be null");
+        }
+        this.schedule = schedule;
+    }
+
+    public SudokuRestartSchedule getRestartSchedule()
+    {
+        return schedule;
+    }
+
+    /**
+     * Fill the given board with a new random, completely solved Sudoku grid.
+     * 
+     * @param gameBoard a 2D array that receives the grid.
+     */
+    public void generate(int[][] gameBoard)
+    {
+        generate(gameBoard, null);
+    }
+
+    /**
+     * Fill the given board with a new random, completely solved Sudoku grid
+     * under a budget. The board is only written when the result is COMPLETED.
+     * 
+     * @param gameBoard a 2D array that receives the grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return COMPLETED, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public SudokuSearchStatus generate(int[][] gameBoard, SudokuSearchBudget budget)
+    {
+        SudokuSearchStatus status = fill(budget);
+        if (status == SudokuSearchStatus.COMPLETED)
+        {
+            for (int cell = 0; cell < SudokuSolverContext.CELL_COUNT; cell++)
+            {
+                gameBoard[SudokuSolverContext.ROW_OF[cell]][SudokuSolverContext.COL_OF[cell]] = context.cells[cell];
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Fill the given flattened board (row-major, 81 entries) with a new random,
+     * completely solved Sudoku grid.
+     * 
+     * @param cells an array that receives the grid.
+     */
+    public void generate(int[] cells)
+    {
+        fill(null);
+        System.arraycopy(context.cells, 0, cells, 0, SudokuSolverContext.CELL_COUNT);
+    }
+
+    /**
+     * Fill the context with a complete grid. Each run starts from new random
+     * diagonal squares and stops at the cutoff of the schedule; a run can also
+     * fail outright if the random search runs into a contradiction it cannot
+     * undo, which does not happen for valid diagonal squares, but the loop
+     * keeps the method correct regardless. A variant whose rules allow no grid
+     * at all (for example contradictory cages) needs a budget to stop.
+     * 
+     * @param budget the budget for the search, or null for no limits.
+     * @return COMPLETED, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    private SudokuSearchStatus fill(SudokuSearchBudget budget)
+    {
+        boolean filled = false;
+        for (int run = 0; !filled; run++)
+        {
+            context.clear();
+            if (model.isClassic())
+            {
+                for (int square = 0; square < SudokuGridGenerator.BOARD_SIZE; square += SudokuGridGenerator.SQUARE_SIZE + 1)
+                {
+                    fillSquare(square);
+                }
+            }
+            context.collectEmptyCells();
+            context.begin(schedule.budgetFor(budget, run));
+            filled = context.fillRandom(0, random);
+            SudokuSearchStatus stopStatus = context.finish();
+            if (stopStatus == SudokuSearchStatus.BUDGET_EXCEEDED && SudokuRestartSchedule.mayRestart(budget))
+            {
+                filled = false;
+            }
+            else if (stopStatus != null)
+            {
+                return stopStatus;
+            }
+        }
+        return SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Fill one square with a random permutation of the digits 1 to 9.
+     * 
+     * @param square the index of the square, counted row-major from 0.
+     */
+    private void fillSquare(int square)
+    {
+        for (int i = 0; i < digits.length; i++)
+        {
+            digits[i] = i + 1;
+        }
+        // Fisher-Yates shuffle.
+        for (int i = digits.length - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int temp = digits[i];
+            digits[i] = digits[j];
+            digits[j] = temp;
+        }
+        int firstRow = (square / SudokuGridGenerator.SQUARE_SIZE) * SudokuGridGenerator.SQUARE_SIZE;
+        int firstCol = (square % SudokuGridGenerator.SQUARE_SIZE) * SudokuGridGenerator.SQUARE_SIZE;
+        for (int i = 0; i < digits.length; i++)
+        {
+            int row = firstRow + i / SudokuGridGenerator.SQUARE_SIZE;
+            int col = firstCol + i % SudokuGridGenerator.SQUARE_SIZE;
+            context.place(row * SudokuGridGenerator.BOARD_SIZE + col, 1 << (digits[i] - 1));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SudokuGenerateEvent class
+ * 
+ * A JDK Flight Recorder event for one SudokuGridGenerator.finalizeBoard call,
+ * which turns a full grid into a puzzle. Enable it with the sudoku.Generate
+ * setting of a recording.
+ */
+@Name("sudoku.Generate")
+@Label("Sudoku Generate")
+@Category("Sudoku")
+@Description("Removal of clues from a full grid until the difficulty is reached")
+final class SudokuGenerateEvent extends jdk.jfr.Event
+{
+    @Label("Difficulty")
+    String difficulty;
+
+    @Label("Clues")
+    int clues;
+
+    @Label("Attempts")
+    @Description("Clue removals tried, each checked for uniqueness")
+    int attempts;
+
+    @Label("Rejected Removals")
+    @Description("Removals undone because the board lost its unique solution")
+    int rejectedRemovals;
+
+    @Label("Restarts")
+    @Description("Removal runs abandoned at the cutoff of the restart schedule")
+    int restarts;
+
+    @Label("Result")
+    String result;
+}
@@ -1,13 +1,15 @@
 import java.util.*;
-import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.FlightRecorder;
 
 /**
  * SudokuGridGenerator class
  * 
  * This is the underlying data for the Sudoku board. The class generates the
- * Sudoku board using the populateFirstBoard, populateRemainingBoard, and
- * finalizeBoard methods. Additionally, the populateRemainingBoard method can be
- * used as a Sudoku solver.
+ * Sudoku board using the populateFullBoard and finalizeBoard methods.
+ * Additionally, the populateRemainingBoard method can be used as a Sudoku
+ * solver.
  * 
  * In order to generate an initial board, a Sudoku board is first completely
  * filled out. The finalizeBoard method then removes numbers in the grid at
@@ -22,9 +24,15 @@ public class SudokuGridGenerator
     public static final int EMPTY_SQUARE = 0;
     public static final int BOARD_SIZE = 9;
     public static final int SQUARE_SIZE = (int) Math.floor(Math.sqrt(BOARD_SIZE));;
+    // Shared by every generator so its worker pool is reused; the pool threads are daemons.
+    private static final SudokuMinimalPuzzleGenerator MINIMAL_GENERATOR = new SudokuMinimalPuzzleGenerator();
     private int[][] board;
     private Random generator;
+    private SudokuFullGridGenerator fullGridGenerator;
     private String gameType;
+    private SudokuSymmetry symmetry;
+    private Map<String, SudokuRestartSchedule> restartSchedules;
+    private SudokuSolverEngine engine;
 
     /**
      * Create a 2D array to hold the Sudoku grid and corresponding numbers. The
@@ -34,10 +42,34 @@ public class SudokuGridGenerator
      * @param game the difficulty of the game.
      */
     public SudokuGridGenerator()
+    {
+        this(new Random());
+    }
+
+    /**
+     * Create a generator whose boards are fully determined by the seed, so that
+     * the same seed and game type always produce the same puzzle.
+     * 
+     * @param seed the seed for the random generator.
+     */
+    public SudokuGridGenerator(long seed)
+    {
+        this(new Random(seed));
+    }
+
+    private SudokuGridGenerator(Random random)
     {
         board = new int[BOARD_SIZE][BOARD_SIZE];
-        generator = new Random();
+        generator = random;
+        fullGridGenerator = new SudokuFullGridGenerator(generator.nextLong());
         gameType = "";
+        symmetry = SudokuSymmetry.NONE;
+        engine = SudokuSolverEngines.getDefault();
+        restartSchedules = new HashMap<String, SudokuRestartSchedule>();
+        // Only the fill restarts by default; see setRestartSchedule.
+        restartSchedules.put("easy", SudokuRestartSchedule.never());
+        restartSchedules.put("medium", SudokuRestartSchedule.never());
+        restartSchedules.put("hard", SudokuRestartSchedule.never());
     }
 
     /**
@@ -51,6 +83,89 @@ public class SudokuGridGenerator
         gameType = game;
     }
 
+    /**
+     * Set the symmetry of the puzzles made by finalizeBoard. With a symmetry
+     * other than NONE, cells are removed a whole orbit at a time.
+     * 
+     * @param symmetry the symmetry of the clue pattern.
+     */
+    public void setSymmetry(SudokuSymmetry symmetry)
+    {
+        if (symmetry == null)
+        {
+            throw new IllegalArgumentException("symmetry must not be null");
+        }
+        this.symmetry = symmetry;
+    }
+
+    public SudokuSymmetry getSymmetry()
+    {
+        return symmetry;
+    }
+
+    /**
+     * Set the engine that solves boards and checks the uniqueness of puzzles.
+     * The default is SudokuSolverEngines.getDefault().
+     * 
+     * @param engine the solver engine.
+     */
+    public void setSolverEngine(SudokuSolverEngine engine)
+    {
+        if (engine == null)
+        {
+            throw new IllegalArgumentException("solver engine must not be null");
+        }
+        this.engine = engine;
+    }
+
+    public SudokuSolverEngine getSolverEngine()
+    {
+        return engine;
+    }
+
+    /**
+     * Set the restart schedule of finalizeBoard for one difficulty. A removal
+     * run that uses more nodes than its cutoff is abandoned: the full grid is
+     * restored and the removal starts over in a new random order. A low cutoff
+     * favours removal orders that give up early, so the puzzles tend to keep a
+     * few more clues. The default for every difficulty is never(): in
+     * SudokuRestartBenchmark no Luby schedule lowered the p99 or p99.9 of
+     * puzzle generation by more than the noise between runs, and short cutoffs
+     * made hard puzzles several times slower.
+     * 
+     * @param game     easy, medium, or hard.
+     * @param schedule the schedule, or SudokuRestartSchedule.never() to finish
+     *                 every removal run however long it takes.
+     */
+    public void setRestartSchedule(String game, SudokuRestartSchedule schedule)
+    {
+        if (!validGameType(game))
+        {
+            throw new IllegalArgumentException("unknown difficulty: " + game);
+        }
+        if (schedule == null)
+        {
+            throw new IllegalArgumentException("restart schedule must not be null");
+        }
+        restartSchedules.put(game, schedule);
+    }
+
+    public SudokuRestartSchedule getRestartSchedule(String game)
+    {
+        return restartSchedules.get(game);
+    }
+
+    /**
+     * Set the restart schedule of populateFullBoard, which is the same for
+     * every difficulty.
+     * 
+     * @param schedule the schedule, or SudokuRestartSchedule.never().
+     */
+    public void setFillRestartSchedule(SudokuRestartSchedule schedule)
+    {
+        fullGridGenerator.setRestartSchedule(schedule);
+    }
+
     public int[][] getBoard()
     {
         return board;
@@ -130,11 +245,39 @@ public class SudokuGridGenerator
         return gameBoard;
     }
 
+    /**
+     * Fill the board with a random, completely solved Sudoku grid. This replaces
+     * the populateFirstBoard and populateRemainingBoard sequence, which scatters
+     * digits at random and then completes the board in a fixed digit order.
+     * 
+     * @return a 2D array with the completely filled grid.
+     */
+    public int[][] populateFullBoard()
+    {
+        fullGridGenerator.generate(board);
+        return board;
+    }
+
+    /**
+     * Fill the board with a random, completely solved Sudoku grid under a
+     * budget. The board is only changed if the result is COMPLETED.
+     * 
+     * @param budget the budget for the search, or null for no limits.
+     * @return COMPLETED, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public SudokuSearchStatus populateFullBoard(SudokuSearchBudget budget)
+    {
+        return fullGridGenerator.generate(board, budget);
+    }
+
     /**
      * Solve the Sudoku grid recursively by completing the partially filled board.
      * Return true if the board was filled correctly. If the board was unable to be
      * completed, return false. The method utilizes the backtracking algorithm to
-     * solve the board.
+     * solve the board. The search has no work limit, so boards from untrusted
+     * sources should be solved with the SudokuSearchBudget variant instead.
+     * Only the first solution is found; SudokuSolver.solutions enumerates all
+     * of them without changing the board.
      * 
      * @param gameBoard the partially filled Sudoku grid.
      * @param tracker   a counter to progress through the grid.
@@ -190,6 +333,20 @@ public class SudokuGridGenerator
         return false;
     }
 
+    /**
+     * Solve the Sudoku grid in place under a budget. Unlike the recursive
+     * variant, this uses the solver engine, so the work is bounded by the
+     * budget and the board is only changed if it was completed.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public SudokuSearchStatus populateRemainingBoard(int[][] gameBoard, SudokuSearchBudget budget)
+    {
+        return engine.solve(gameBoard, gameBoard, budget);
+    }
+
     /**
      * If the user manually enters a board, traverse the board to determine whether
      * it is valid and satisfies the row, column, and square preconditions.
@@ -236,21 +393,102 @@ public class SudokuGridGenerator
      * removed if, once removed, the board only has one solution and the solution
      * matches the initially filled board. If the cell removal leads to multiple
      * solutions, then place the number back in the cell and try a different cell.
-     * The number of removal attempts is determined by the game difficulty.
+     * The number of removal attempts is determined by the game difficulty. With
+     * a symmetry set, the cell and the rest of its orbit are removed together.
      */
     public void finalizeBoard()
+    {
+        finalizeBoard(null);
+    }
+
+    /**
+     * Randomly remove cells from the completed game board under a budget. The
+     * budget bounds all uniqueness checks together. If it runs out or is
+     * cancelled, the removals made so far are kept, so the board is still a
+     * valid puzzle with a unique solution, only with fewer empty cells.
+     * 
+     * @param budget the budget for the uniqueness checks, or null for no limits.
+     * @return COMPLETED, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public SudokuSearchStatus finalizeBoard(SudokuSearchBudget budget)
+    {
+        if (!FlightRecorder.isInitialized())
+        {
+            return removeClues(budget, null);
+        }
+        SudokuGenerateEvent event = new SudokuGenerateEvent();
+        event.begin();
+        SudokuSearchStatus status = removeClues(budget, event);
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.difficulty = gameType;
+            event.clues = countClues();
+            event.result = status.name();
+            event.commit();
+        }
+        return status;
+    }
+
+    /**
+     * Remove cells for finalizeBoard, restarting the removal from the full grid
+     * whenever a run exceeds the cutoff of the difficulty's restart schedule.
+     * 
+     * @param budget the budget for the uniqueness checks, or null for no limits.
+     * @param event  the event that counts the attempted and rejected removals,
+     *               or null if nothing is recorded.
+     * @return COMPLETED, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    private SudokuSearchStatus removeClues(SudokuSearchBudget budget, SudokuGenerateEvent event)
+    {
+        SudokuRestartSchedule schedule = restartSchedule();
+        // Every run checks boards of the same grid, so the table stays valid.
+        SudokuTranspositionTable table = new SudokuTranspositionTable();
+        int[][] fullBoard = new int[BOARD_SIZE][BOARD_SIZE];
+        for (int i = 0; i < BOARD_SIZE; i++)
+        {
+            System.arraycopy(board[i], 0, fullBoard[i], 0, BOARD_SIZE);
+        }
+        for (int run = 0;; run++)
+        {
+            SudokuSearchStatus status = removeClues(schedule.budgetFor(budget, run), table, event);
+            if (status != SudokuSearchStatus.BUDGET_EXCEEDED || !SudokuRestartSchedule.mayRestart(budget))
+            {
+                return status;
+            }
+            for (int i = 0; i < BOARD_SIZE; i++)
+            {
+                System.arraycopy(fullBoard[i], 0, board[i], 0, BOARD_SIZE);
+            }
+            if (event != null)
+            {
+                event.restarts++;
+            }
+        }
+    }
+
+    /**
+     * Remove cells in one random order until the difficulty's number of
+     * removals has been rejected.
+     * 
+     * @param budget the budget for the uniqueness checks, or null for no limits.
+     * @param table  the transposition table shared by the checks.
+     * @param event  the event that counts the attempted and rejected removals,
+     *               or null if nothing is recorded.
+     * @return COMPLETED, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    private SudokuSearchStatus removeClues(SudokuSearchBudget budget, SudokuTranspositionTable table,
+            SudokuGenerateEvent event)
     {
         int totalSolveAttempts = numsRemoved();
+        int[] orbit = new int[4];
         int[][] boardCopy = new int[BOARD_SIZE][BOARD_SIZE];
-        // Store the initial board values in a map.
-        Map<Point, Integer> gridMap = new HashMap<Point, Integer>();
-        // Make a hard copy of the board and fill the map.
+        // Make a hard copy of the board.
         for (int i = 0; i < BOARD_SIZE; i++)
         {
             for (int j = 0; j < BOARD_SIZE; j++)
             {
                 boardCopy[i][j] = board[i][j];
-                gridMap.put(new Point(i, j), board[i][j]);
             }
         }
         // Continue attempting to remove cells while the attempts is greater than zero.
@@ -261,43 +499,174 @@ public class SudokuGridGenerator
             int yCoord = generator.nextInt(BOARD_SIZE);
             if (board[xCoord][yCoord] != EMPTY_SQUARE)
             {
-                // Remove the cell in the copy board.
-                boardCopy[xCoord][yCoord] = EMPTY_SQUARE;
+                /*
+                 * Remove the cells of the orbit from the copy board one at a time, checking
+                 * each step, so that every check is one clue away from the board before it
+                 * and the table can skip that board's subtree. Stop at the first step that
+                 * allows a second solution.
+                 */
+                int orbitSize = symmetry.orbit(xCoord, yCoord, orbit);
+                int removed = 0;
+                int solutions = 1;
+                while (removed < orbitSize && solutions == 1)
+                {
+                    int cell = orbit[removed++];
+                    boardCopy[cell / BOARD_SIZE][cell % BOARD_SIZE] = EMPTY_SQUARE;
+                    solutions = boardSolutions(boardCopy, budget, table);
+                    if (event != null)
+                    {
+                        event.attempts++;
+                    }
+                }
+                if (solutions == SudokuSolver.CANCELLED)
+                {
+                    return SudokuSearchStatus.CANCELLED;
+                }
+                if (solutions == SudokuSolver.BUDGET_EXCEEDED)
+                {
+                    return SudokuSearchStatus.BUDGET_EXCEEDED;
+                }
                 /*
                  * If the board is non unique after removal, then reset the copy board and
                  * reduce solve attempts.
                  */
-                if (boardNonUnique(boardCopy, xCoord, yCoord, gridMap, EMPTY_SQUARE))
+                if (solutions > 1)
                 {
-                    for (int i = 0; i < BOARD_SIZE; i++)
+                    for (int i = 0; i < removed; i++)
                     {
-                        for (int j = 0; j < BOARD_SIZE; j++)
-                        {
-                            boardCopy[i][j] = board[i][j];
-                        }
+                        int cell = orbit[i];
+                        boardCopy[cell / BOARD_SIZE][cell % BOARD_SIZE] = board[cell / BOARD_SIZE][cell % BOARD_SIZE];
                     }
                     totalSolveAttempts--;
+                    if (event != null)
+                    {
+                        event.rejectedRemovals++;
+                    }
                 }
-                /*
-                 * Otherwise, set the cell in the actual board to empty and update the copy
-                 * board. The copy board needs to be updated because the helper functions solves
-                 * the board.
-                 */
+                // Otherwise, set the cells in the actual board to empty.
                 else
                 {
-                    board[xCoord][yCoord] = EMPTY_SQUARE;
-                    for (int i = 0; i < BOARD_SIZE; i++)
+                    for (int i = 0; i < orbitSize; i++)
                     {
-                        for (int j = 0; j < BOARD_SIZE; j++)
-                        {
-                            boardCopy[i][j] = board[i][j];
-                        }
+                        int cell = orbit[i];
+                        board[cell / BOARD_SIZE][cell % BOARD_SIZE] = EMPTY_SQUARE;
                     }
+                }
+            }
 
+        }
+        return SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Replace the board with a puzzle whose clues are exactly the cells of a
+     * clue pattern and that has a unique solution. New random grids are tried
+     * until one leaves a unique puzzle when the cells outside the pattern are
+     * emptied. Sparse patterns need more grids, and some patterns never have a
+     * unique solution, so the number of grids is bounded.
+     * 
+     * @param clueMask the clue pattern, true where a cell holds a clue.
+     * @param maxGrids the maximum number of grids to try, at least 1.
+     * @param budget   the budget for all uniqueness checks, or null for no
+     *                 limits.
+     * @return COMPLETED, NO_SOLUTION if no grid gave a unique puzzle,
+     *         BUDGET_EXCEEDED, or CANCELLED. The board is only changed if the
+     *         result is COMPLETED.
+     */
+    public SudokuSearchStatus populateFromMask(boolean[][] clueMask, int maxGrids, SudokuSearchBudget budget)
+    {
+        if (clueMask.length != BOARD_SIZE)
+        {
+            throw new IllegalArgumentException("clue mask must have " + BOARD_SIZE + " rows");
+        }
+        for (boolean[] row : clueMask)
+        {
+            if (row.length != BOARD_SIZE)
+            {
+                throw new IllegalArgumentException("clue mask rows must have " + BOARD_SIZE + " cells");
+            }
+        }
+        if (maxGrids < 1)
+        {
+            throw new IllegalArgumentException("maxGrids must be at least 1: " + maxGrids);
+        }
+        int[][] puzzle = new int[BOARD_SIZE][BOARD_SIZE];
+        for (int grid = 0; grid < maxGrids; grid++)
+        {
+            fullGridGenerator.generate(puzzle);
+            for (int i = 0; i < BOARD_SIZE; i++)
+            {
+                for (int j = 0; j < BOARD_SIZE; j++)
+                {
+                    if (!clueMask[i][j])
+                    {
+                        puzzle[i][j] = EMPTY_SQUARE;
+                    }
                 }
             }
+            int solutions = engine.countSolutions(puzzle, 2, budget);
+            if (solutions == SudokuSolver.CANCELLED)
+            {
+                return SudokuSearchStatus.CANCELLED;
+            }
+            if (solutions == SudokuSolver.BUDGET_EXCEEDED)
+            {
+                return SudokuSearchStatus.BUDGET_EXCEEDED;
+            }
+            if (solutions == 1)
+            {
+                for (int i = 0; i < BOARD_SIZE; i++)
+                {
+                    System.arraycopy(puzzle[i], 0, board[i], 0, BOARD_SIZE);
+                }
+                return SudokuSearchStatus.COMPLETED;
+            }
+        }
+        return SudokuSearchStatus.NO_SOLUTION;
+    }
 
+    /**
+     * Replace the board with a minimal puzzle, where no clue can be removed
+     * without allowing more than one solution. Unlike finalizeBoard, the puzzle
+     * is built from a new random grid and the search runs on all processors until
+     * a puzzle with at most targetClues clues is found or the time runs out.
+     * 
+     * @param targetClues   the clue count to aim for, or
+     *                      SudokuMinimalPuzzleGenerator.ANY_CLUES.
+     * @param timeoutMillis the maximum search time in milliseconds.
+     * @return the number of clues in the puzzle.
+     */
+    public int populateMinimalBoard(int targetClues, long timeoutMillis)
+    {
+        return populateMinimalBoard(targetClues, timeoutMillis, null);
+    }
+
+    /**
+     * Replace the board with a minimal puzzle under a budget. The board is left
+     * unchanged if the budget stops the search before a puzzle is found.
+     * 
+     * @param targetClues   the clue count to aim for, or
+     *                      SudokuMinimalPuzzleGenerator.ANY_CLUES.
+     * @param timeoutMillis the maximum search time in milliseconds.
+     * @param budget        the budget for the search, or null for no limits.
+     * @return the number of clues in the puzzle, or 0 if no puzzle was found.
+     */
+    public int populateMinimalBoard(int targetClues, long timeoutMillis, SudokuSearchBudget budget)
+    {
+        SudokuMinimalPuzzleGenerator.Result result = MINIMAL_GENERATOR.generate(targetClues, timeoutMillis,
+                TimeUnit.MILLISECONDS, budget);
+        if (result.getStatus() != SudokuSearchStatus.COMPLETED)
+        {
+            return 0;
+        }
+        for (int i = 0; i < BOARD_SIZE; i++)
+        {
+            for (int j = 0; j < BOARD_SIZE; j++)
+            {
+                board[i][j] = result.getPuzzle()[i][j];
+            }
         }
+        return result.getClues();
     }
 
     // Print the board.
@@ -540,95 +909,58 @@ public class SudokuGridGenerator
     }
 
     /**
-     * Helper function to determine whether the number removed is valid for board
-     * generation. If the removed number can lead to multiple solutions, then the
-     * number is invalid. Additionally, if the removed number leads to an unsolvable
-     * board, the number is invalid. If the number is valid, then remove it from the
-     * board. Invalid operations will return true (the board is not unique), while
-     * valid operations will return false.
+     * Find the restart schedule of finalizeBoard for the game difficulty.
      * 
-     * @param gameBoard a 2D array representing the game grid.
-     * @param row       the X coordinate of the number being tested.
-     * @param col       the Y coordinate of the number being tested.
-     * @param boardMap  a HashMap containing the original board.
-     * @param tracker   a counter used to traverse the entire board.
-     * @return a boolean to determine whether the removed number is valid.
+     * @return the schedule.
      */
-    private boolean boardNonUnique(int[][] gameBoard, int row, int col, Map<Point, Integer> boardMap, int tracker)
+    private SudokuRestartSchedule restartSchedule()
     {
-        int xCoord = tracker / BOARD_SIZE;
-        int yCoord = tracker % BOARD_SIZE;
-        /*
-         * If the tracker is at the end of the board, determine whether the completed
-         * board is equivalent to the original board.
-         */
-        if (tracker >= BOARD_SIZE * BOARD_SIZE)
+        if (gameType.compareTo("easy") == 0 || gameType.compareTo("medium") == 0)
         {
-            for (int i = 0; i < BOARD_SIZE; i++)
-            {
-                for (int j = 0; j < BOARD_SIZE; j++)
-                {
-                    if (gameBoard[i][j] != boardMap.get(new Point(i, j)))
-                    {
-                        return true;
-                    }
-                }
-            }
-            return false;
+            return restartSchedules.get(gameType);
         }
-        // If the current cell is not empty, move to the next cell.
-        if (gameBoard[xCoord][yCoord] != EMPTY_SQUARE)
+        else
         {
-            return boardNonUnique(gameBoard, row, col, boardMap, tracker + 1);
+            return restartSchedules.get("hard");
         }
-        else
+    }
+
+    /**
+     * Count the filled cells of the board.
+     * 
+     * @return the number of clues on the board.
+     */
+    private int countClues()
+    {
+        int clues = 0;
+        for (int i = 0; i < BOARD_SIZE; i++)
         {
-            // Determine what the old value was at the specific coordinate.
-            int oldVal = boardMap.get(new Point(xCoord, yCoord));
-            if (xCoord == row && yCoord == col)
+            for (int j = 0; j < BOARD_SIZE; j++)
             {
-                /*
-                 * If the tracker is at the target coordinate, determine whether any value other
-                 * than the original value can be placed in that cell.
-                 */
-                for (int newVal = 1; newVal <= MAX_NUM; newVal++)
+                if (board[i][j] != EMPTY_SQUARE)
                 {
-                    if (newVal != oldVal)
-                    {
-                        // If a value can be placed in the cell, try to complete the board with the new
-                        // value.
-                        if (numAvailableRow(gameBoard, newVal, xCoord) && numAvailableCol(gameBoard, newVal, yCoord)
-                                && numAvailableSquare(gameBoard, newVal, squareRangeRow(xCoord), squareRangeCol(yCoord),
-                                        squareRangeRow(xCoord) - SQUARE_SIZE, squareRangeCol(yCoord) - SQUARE_SIZE))
-                        {
-                            gameBoard[xCoord][yCoord] = newVal;
-                            if (populateRemainingBoard(gameBoard, EMPTY_SQUARE))
-                            {
-                                /*
-                                 * If the board can be completed with the new value, determine if it matches the
-                                 * original board. At this point, the board is completed, so the tracker will
-                                 * continue moving forward until it reaches the end of the grid and then compare
-                                 * the board to the original grid.
-                                 */
-                                return boardNonUnique(gameBoard, row, col, boardMap, tracker + 1);
-                            }
-                        }
-                    }
+                    clues++;
                 }
-                /*
-                 * If no value can placed in the cell, the board is unique and the cell can be
-                 * removed.
-                 */
-                return false;
-            }
-            /*
-             * If it is not the target coordinate, move onto the next cell until the target
-             * coordinate is reached.
-             */
-            else
-            {
-                return boardNonUnique(gameBoard, row, col, boardMap, tracker + 1);
             }
         }
+        return clues;
+    }
+
+    /**
+     * Helper function to determine whether the number removed is valid for board
+     * generation. The board was completely filled before the removal, so it
+     * always has at least one solution; if it has more than one, the removed
+     * number is invalid. The solver does not modify the board.
+     * 
+     * @param gameBoard a 2D array representing the game grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @param table     the transposition table shared by the checks of one
+     *                  finalizeBoard call.
+     * @return the number of solutions up to two, or SudokuSolver.BUDGET_EXCEEDED
+     *         or SudokuSolver.CANCELLED if the budget stopped the search.
+     */
+    private int boardSolutions(int[][] gameBoard, SudokuSearchBudget budget, SudokuTranspositionTable table)
+    {
+        return engine.countSolutions(gameBoard, 2, budget, table);
     }
 }
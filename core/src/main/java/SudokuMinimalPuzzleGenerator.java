@@ -0,0 +1,347 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * SudokuMinimalPuzzleGenerator class
+ * 
+ * Generates minimal Sudoku puzzles: puzzles with a unique solution where no
+ * clue can be removed without losing that uniqueness. Each attempt creates a
+ * random full grid and tries to remove every cell once, in random order,
+ * keeping a removal only if the board stays unique. Removing clues can only add
+ * solutions, so a clue that could not be removed earlier can never be removed
+ * later, and a single pass always ends in a minimal puzzle.
+ * 
+ * The unit of parallel work is a whole attempt rather than a single removal
+ * and its uniqueness check. Within an attempt every check depends on the
+ * removals kept before it, so checks can only run side by side speculatively,
+ * and most of that work would be thrown away. Attempts are independent, so
+ * they are split across a work-stealing ForkJoinPool owned by the generator
+ * and reused by every call to generate.
+ * 
+ * The search stops when a puzzle with at most the target number of clues is
+ * found or when the deadline passes, and returns the puzzle with the fewest
+ * clues found so far. Once a puzzle has been found, attempts run under a
+ * budget that ends at the deadline, so a slow attempt cannot hold the search
+ * past it, and reaching the target cancels the attempts still running. A
+ * SudokuSearchBudget can additionally bound the total work of all workers and
+ * cancel the search. Puzzles for Sudoku variants are generated the same way
+ * from a SudokuConstraintModel. The uniqueness checks go through the default
+ * SudokuSolverEngine.
+ */
+public class SudokuMinimalPuzzleGenerator
+{
+    /**
+     * Target clue count that accepts any minimal puzzle.
+     */
+    public static final int ANY_CLUES = SudokuSolverContext.CELL_COUNT;
+
+    // Attempts forked per batch for every worker thread.
+    private static final int ATTEMPTS_PER_WORKER = 4;
+
+    private final SudokuConstraintModel model;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a generator that uses one worker per available processor.
+     */
+    public SudokuMinimalPuzzleGenerator()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a generator with a fixed number of worker threads.
+     * 
+     * @param parallelism the number of worker threads.
+     */
+    public SudokuMinimalPuzzleGenerator(int parallelism)
+    {
+        this(SudokuConstraintModel.CLASSIC, parallelism);
+    }
+
+    /**
+     * Create a generator for a Sudoku variant with a fixed number of worker
+     * threads.
+     * 
+     * @param model       the rules of the variant.
+     * @param parallelism the number of worker threads.
+     */
+    public SudokuMinimalPuzzleGenerator(SudokuConstraintModel model, int parallelism)
+    {
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.model = model;
+        this.parallelism = parallelism;
+        // Idle workers of a ForkJoinPool are daemon threads that time out, so
+        // the pool needs no shutdown.
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Search for a minimal puzzle with at most targetClues clues. At least one
+     * attempt always completes, so a minimal puzzle is returned even if the
+     * deadline is very short.
+     * 
+     * @param targetClues the clue count at which the search stops early, or
+     *                    ANY_CLUES to stop at the first minimal puzzle.
+     * @param timeout     the maximum search time.
+     * @param unit        the unit of the timeout.
+     * @return the minimal puzzle with the fewest clues found.
+     */
+    public Result generate(int targetClues, long timeout, TimeUnit unit)
+    {
+        return generate(targetClues, timeout, unit, null);
+    }
+
+    /**
+     * Search for a minimal puzzle under a budget. The budget's node limit is
+     * shared by all workers. If the budget runs out or is cancelled before the
+     * first attempt finishes, the result has no puzzle and reports the reason
+     * through getStatus.
+     * 
+     * @param targetClues the clue count at which the search stops early, or
+     *                    ANY_CLUES to stop at the first minimal puzzle.
+     * @param timeout     the maximum search time.
+     * @param unit        the unit of the timeout.
+     * @param budget      the budget for the search, or null for no limits.
+     * @return the minimal puzzle with the fewest clues found.
+     */
+    public Result generate(int targetClues, long timeout, TimeUnit unit, SudokuSearchBudget budget)
+    {
+        Search search = new Search(model, targetClues, unit.toNanos(timeout), budget);
+        int batchSize = parallelism * ATTEMPTS_PER_WORKER;
+        do
+        {
+            pool.invoke(new AttemptTask(search, 0, batchSize));
+        }
+        while (!search.isDone());
+        Result best = search.best.get();
+        if (best == null)
+        {
+            return new Result(null, 0, search.attempts.get(), search.stopStatus);
+        }
+        return new Result(best.puzzle, best.clues, search.attempts.get(), SudokuSearchStatus.COMPLETED);
+    }
+
+    /**
+     * Run one attempt: create a random full grid and remove every clue that can
+     * be removed while keeping the solution unique.
+     * 
+     * @param model  the rules of the puzzle.
+     * @param budget the budget for the attempt, or null for no limits.
+     * @return the minimal puzzle created by this attempt, or a result without a
+     *         puzzle if the budget stopped the attempt.
+     */
+    static Result attempt(SudokuConstraintModel model, SudokuSearchBudget budget)
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[][] puzzle = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        SudokuSearchStatus status = new SudokuFullGridGenerator(model, random.nextLong()).generate(puzzle, budget);
+        if (status != SudokuSearchStatus.COMPLETED)
+        {
+            return new Result(null, 0, 1, status);
+        }
+        int[] order = new int[SudokuSolverContext.CELL_COUNT];
+        for (int i = 0; i < order.length; i++)
+        {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+        int clues = SudokuSolverContext.CELL_COUNT;
+        // Each board is the previous one minus a clue, so the checks share a table.
+        SudokuTranspositionTable table = new SudokuTranspositionTable();
+        for (int cell : order)
+        {
+            int row = SudokuSolverContext.ROW_OF[cell];
+            int col = SudokuSolverContext.COL_OF[cell];
+            int oldVal = puzzle[row][col];
+            puzzle[row][col] = SudokuGridGenerator.EMPTY_SQUARE;
+            int solutions = SudokuSolverEngines.getDefault().countSolutions(model, puzzle, 2, budget, table);
+            if (solutions == SudokuSolver.CANCELLED)
+            {
+                return new Result(null, 0, 1, SudokuSearchStatus.CANCELLED);
+            }
+            if (solutions == SudokuSolver.BUDGET_EXCEEDED)
+            {
+                return new Result(null, 0, 1, SudokuSearchStatus.BUDGET_EXCEEDED);
+            }
+            if (solutions == 1)
+            {
+                clues--;
+            }
+            else
+            {
+                puzzle[row][col] = oldVal;
+            }
+        }
+        return new Result(puzzle, clues, 1, SudokuSearchStatus.COMPLETED);
+    }
+
+    /**
+     * The outcome of a minimal puzzle search.
+     */
+    public static class Result
+    {
+        private final int[][] puzzle;
+        private final int clues;
+        private final long attempts;
+        private final SudokuSearchStatus status;
+
+        Result(int[][] puzzle, int clues, long attempts, SudokuSearchStatus status)
+        {
+            this.puzzle = puzzle;
+            this.clues = clues;
+            this.attempts = attempts;
+            this.status = status;
+        }
+
+        public int[][] getPuzzle()
+        {
+            return puzzle;
+        }
+
+        public int getClues()
+        {
+            return clues;
+        }
+
+        public long getAttempts()
+        {
+            return attempts;
+        }
+
+        /**
+         * Returns COMPLETED if a puzzle was found, otherwise the reason the
+         * budget stopped the search.
+         * 
+         * @return the status of the search.
+         */
+        public SudokuSearchStatus getStatus()
+        {
+            return status;
+        }
+    }
+
+    /**
+     * Shared state of one search: the best puzzle so far, the budgets of the
+     * attempts, and the stop condition.
+     */
+    private static class Search
+    {
+        private final SudokuConstraintModel model;
+        private final int targetClues;
+        private final long deadline;
+        private final SudokuSearchBudget budget;
+        // Cancelled when the target is reached, to stop the attempts still running.
+        private final SudokuSearchBudget searchBudget;
+        // Ends at the deadline; used once a puzzle has been found.
+        private final SudokuSearchBudget deadlineBudget;
+        private final AtomicReference<Result> best = new AtomicReference<Result>();
+        private final AtomicLong attempts = new AtomicLong();
+        private volatile SudokuSearchStatus stopStatus;
+
+        Search(SudokuConstraintModel model, int targetClues, long timeoutNanos, SudokuSearchBudget budget)
+        {
+            this.model = model;
+            this.targetClues = targetClues;
+            this.budget = budget;
+            deadline = System.nanoTime() + timeoutNanos;
+            searchBudget = budget == null ? SudokuSearchBudget.unlimited() : budget.newChild();
+            deadlineBudget = searchBudget.newChild(SudokuSearchBudget.UNLIMITED_NODES, timeoutNanos,
+                    TimeUnit.NANOSECONDS);
+        }
+
+        boolean isDone()
+        {
+            if (stopStatus != null)
+            {
+                return true;
+            }
+            Result current = best.get();
+            return current != null && (current.clues <= targetClues || System.nanoTime() - deadline >= 0);
+        }
+
+        /**
+         * Returns the budget for the next attempt. Until a puzzle has been
+         * found the deadline does not apply, so at least one attempt completes.
+         * 
+         * @return the budget.
+         */
+        SudokuSearchBudget attemptBudget()
+        {
+            return best.get() == null ? searchBudget : deadlineBudget;
+        }
+
+        void offer(Result result)
+        {
+            attempts.incrementAndGet();
+            if (result.puzzle == null)
+            {
+                // Only the caller's budget ends the search; the deadline and
+                // the target are already covered by isDone.
+                SudokuSearchStatus reason = budget == null ? null : budget.check(0);
+                if (reason != null)
+                {
+                    stopStatus = reason;
+                }
+                return;
+            }
+            Result current = best.get();
+            while ((current == null || result.clues < current.clues) && !best.compareAndSet(current, result))
+            {
+                current = best.get();
+            }
+            if (result.clues <= targetClues)
+            {
+                searchBudget.cancel();
+            }
+        }
+    }
+
+    /**
+     * Fork/join task that splits a range of attempts in half until a single
+     * attempt is left.
+     */
+    private static class AttemptTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final int start;
+        private final int end;
+
+        AttemptTask(Search search, int start, int end)
+        {
+            this.search = search;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start > 1)
+            {
+                int middle = (start + end) >>> 1;
+                invokeAll(new AttemptTask(search, start, middle), new AttemptTask(search, middle, end));
+            }
+            else if (!search.isDone())
+            {
+                search.offer(attempt(search.model, search.attemptBudget()));
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SudokuPortfolioSolver class
+ * 
+ * Solves a board by racing several search orders against each other and
+ * taking the first answer. No single order is fastest on every board: plain
+ * row-major backtracking wins on boards that need almost no search, the
+ * fewest-candidates search of SudokuSolver wins on most hard boards, and on the
+ * rare boards where a fixed order is unlucky, a random candidate order usually
+ * finishes far sooner. Racing them cuts the long tail of solve times.
+ * 
+ * The fewest-candidates search runs on the calling thread, so easy boards are
+ * often solved before the other racers have even started. The other racers run
+ * on a pool owned by the solver. As soon as one racer has a definite answer
+ * (a solution, or proof that there is none) the others are cancelled through a
+ * child of the caller's budget, and stop within SudokuSearchBudget.CHECK_INTERVAL
+ * nodes. All racers together are bounded by the caller's budget.
+ * 
+ * A solver may be used from several threads at once. Call close to stop its
+ * pool.
+ */
+public class SudokuPortfolioSolver implements AutoCloseable
+{
+    /**
+     * The racer that searches the cell with the fewest candidates first.
+     */
+    public static final int MOST_CONSTRAINED = 0;
+    /**
+     * The racer that fills the cells row by row.
+     */
+    public static final int ROW_MAJOR = 1;
+    /**
+     * The first racer with a random candidate order; there may be several.
+     */
+    public static final int FIRST_RANDOMIZED = 2;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final SudokuConstraintModel model;
+    private final int racers;
+    private final ExecutorService pool;
+    private final AtomicLong seeds;
+    private final AtomicLongArray wins;
+
+    /**
+     * Create a classic solver that races the fewest-candidates search, the
+     * row-major search, and one random order per remaining processor.
+     */
+    public SudokuPortfolioSolver()
+    {
+        this(SudokuConstraintModel.CLASSIC, Math.max(1, Runtime.getRuntime().availableProcessors() - 2));
+    }
+
+    /**
+     * Create a solver with a fixed number of random-order racers.
+     * 
+     * @param model            the rules of the boards to solve.
+     * @param randomizedOrders the number of racers with a random candidate
+     *                         order, at least zero.
+     */
+    public SudokuPortfolioSolver(SudokuConstraintModel model, int randomizedOrders)
+    {
+        if (randomizedOrders < 0)
+        {
+            throw new IllegalArgumentException("randomizedOrders must not be negative: " + randomizedOrders);
+        }
+        this.model = model;
+        racers = FIRST_RANDOMIZED + randomizedOrders;
+        String prefix = "sudoku-portfolio-" + POOL_NUMBER.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(racers - 1, task ->
+        {
+            Thread thread = new Thread(task, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        seeds = new AtomicLong(System.nanoTime());
+        wins = new AtomicLongArray(racers);
+    }
+
+    /**
+     * Solve the board and write the first solution found into the solution
+     * array. The game board is left unchanged.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @return boolean that determines whether the board could be completed.
+     */
+    public boolean solve(int[][] gameBoard, int[][] solution)
+    {
+        return solve(gameBoard, solution, null) == SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Solve the board under a budget that bounds all racers together. The
+     * solution array is only written when the result is COMPLETED.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget)
+    {
+        return solve(model, gameBoard, solution, budget);
+    }
+
+    /**
+     * Solve a board of another Sudoku variant than the one the solver was
+     * created for, on the same pool, so one solver can serve every model.
+     * 
+     * @param boardModel the rules of the board.
+     * @param gameBoard  the partially filled Sudoku grid.
+     * @param solution   a 2D array that receives the completed grid.
+     * @param budget     the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public SudokuSearchStatus solve(SudokuConstraintModel boardModel, int[][] gameBoard, int[][] solution,
+            SudokuSearchBudget budget)
+    {
+        Race race = new Race(boardModel, copyOf(gameBoard),
+                budget == null ? SudokuSearchBudget.unlimited() : budget.newChild());
+        for (int racer = 1; racer < racers; racer++)
+        {
+            int index = racer;
+            SplittableRandom random = racer >= FIRST_RANDOMIZED ? new SplittableRandom(seeds.getAndIncrement()) : null;
+            try
+            {
+                pool.execute(() -> race.run(index, random));
+            }
+            catch (RejectedExecutionException e)
+            {
+                // The solver was closed; race on the calling thread alone.
+                race.skip();
+            }
+        }
+        race.run(MOST_CONSTRAINED, null);
+        race.await();
+        if (race.winner < 0)
+        {
+            // Every racer was stopped by the caller's budget.
+            return race.budget.isCancelled() ? SudokuSearchStatus.CANCELLED : SudokuSearchStatus.BUDGET_EXCEEDED;
+        }
+        wins.incrementAndGet(race.winner);
+        if (race.winnerStatus == SudokuSearchStatus.COMPLETED)
+        {
+            for (int i = 0; i < SudokuGridGenerator.BOARD_SIZE; i++)
+            {
+                System.arraycopy(race.winnerSolution[i], 0, solution[i], 0, SudokuGridGenerator.BOARD_SIZE);
+            }
+        }
+        return race.winnerStatus;
+    }
+
+    /**
+     * Returns the number of racers: MOST_CONSTRAINED, ROW_MAJOR, and the
+     * random-order racers from FIRST_RANDOMIZED on.
+     * 
+     * @return the number of racers.
+     */
+    public int getRacerCount()
+    {
+        return racers;
+    }
+
+    /**
+     * Returns how many races a racer has won.
+     * 
+     * @param racer the racer index.
+     * @return the number of wins.
+     */
+    public long getWins(int racer)
+    {
+        return wins.get(racer);
+    }
+
+    /**
+     * Stop the pool. Racers that are still running are cancelled by their
+     * races, so this returns at once.
+     */
+    @Override
+    public void close()
+    {
+        pool.shutdown();
+    }
+
+    private static int[][] copyOf(int[][] gameBoard)
+    {
+        int[][] copy = new int[SudokuGridGenerator.BOARD_SIZE][];
+        for (int i = 0; i < SudokuGridGenerator.BOARD_SIZE; i++)
+        {
+            copy[i] = gameBoard[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * One race over one board. The first racer with a definite answer claims
+     * the race and cancels the budget the others run under.
+     */
+    private final class Race
+    {
+        final SudokuConstraintModel model;
+        final int[][] board;
+        final SudokuSearchBudget budget;
+        final CountDownLatch decided;
+        final AtomicInteger running;
+        final AtomicBoolean claimed;
+        // Written by the winner before decided opens.
+        int winner = -1;
+        SudokuSearchStatus winnerStatus;
+        int[][] winnerSolution;
+
+        Race(SudokuConstraintModel model, int[][] board, SudokuSearchBudget budget)
+        {
+            this.model = model;
+            this.board = board;
+            this.budget = budget;
+            decided = new CountDownLatch(1);
+            running = new AtomicInteger(racers);
+            claimed = new AtomicBoolean();
+        }
+
+        void run(int racer, SplittableRandom random)
+        {
+            SudokuSearchStatus status;
+            int[][] solution = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+            if (budget.isCancelled())
+            {
+                status = SudokuSearchStatus.CANCELLED;
+            }
+            else if (racer == MOST_CONSTRAINED)
+            {
+                status = SudokuSolver.solve(model, board, solution, budget);
+            }
+            else
+            {
+                status = SudokuSolver.solveInOrder(model, board, solution, budget, random);
+            }
+            if ((status == SudokuSearchStatus.COMPLETED || status == SudokuSearchStatus.NO_SOLUTION)
+                    && claimed.compareAndSet(false, true))
+            {
+                winner = racer;
+                winnerStatus = status;
+                winnerSolution = solution;
+                budget.cancel();
+                decided.countDown();
+            }
+            else
+            {
+                skip();
+            }
+        }
+
+        /**
+         * Count a racer as finished without an answer. When the last one
+         * finishes and no one has won, the race is over.
+         */
+        void skip()
+        {
+            if (running.decrementAndGet() == 0)
+            {
+                decided.countDown();
+            }
+        }
+
+        void await()
+        {
+            boolean interrupted = false;
+            while (true)
+            {
+                try
+                {
+                    decided.await();
+                    break;
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                    budget.cancel();
+                }
+            }
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
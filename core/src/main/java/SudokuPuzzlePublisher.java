@@ -0,0 +1,262 @@
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * SudokuPuzzlePublisher class
+ * 
+ * An endless, lazy source of puzzles for one difficulty. Each puzzle is made
+ * with the usual SudokuGridGenerator pipeline (populateFullBoard followed by
+ * finalizeBoard) and handed out as a new 2D array that the consumer may keep.
+ * 
+ * As a Flow.Publisher, every subscriber gets its own generator and a puzzle is
+ * only created when the subscriber has requested one, so nothing is buffered
+ * ahead of demand. Puzzles are created and delivered on the executor, and
+ * cancelling a subscription also cancels a puzzle that is being created.
+ * 
+ * For pull-based consumers, iterator() and stream() create puzzles on the
+ * calling thread as they are taken.
+ * 
+ * With a seed, every subscriber, iterator, and stream receives the same
+ * sequence of puzzles.
+ */
+public class SudokuPuzzlePublisher implements Flow.Publisher<int[][]>
+{
+    private final String difficulty;
+    private final boolean seeded;
+    private final long seed;
+    private final Executor executor;
+
+    /**
+     * Create a publisher of random puzzles that delivers on the common pool.
+     * 
+     * @param difficulty the game type, as accepted by setGameType.
+     */
+    public SudokuPuzzlePublisher(String difficulty)
+    {
+        this(difficulty, false, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a publisher of a reproducible sequence of puzzles.
+     * 
+     * @param difficulty the game type, as accepted by setGameType.
+     * @param seed       the seed of the sequence.
+     * @param executor   the executor that creates and delivers the puzzles.
+     */
+    public SudokuPuzzlePublisher(String difficulty, long seed, Executor executor)
+    {
+        this(difficulty, true, seed, executor);
+    }
+
+    private SudokuPuzzlePublisher(String difficulty, boolean seeded, long seed, Executor executor)
+    {
+        if (!new SudokuGridGenerator().validGameType(difficulty))
+        {
+            throw new IllegalArgumentException("unknown difficulty: " + difficulty);
+        }
+        this.difficulty = difficulty;
+        this.seeded = seeded;
+        this.seed = seed;
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super int[][]> subscriber)
+    {
+        Objects.requireNonNull(subscriber, "subscriber");
+        PuzzleSubscription subscription = new PuzzleSubscription(subscriber, newGenerator());
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Returns an endless iterator that creates each puzzle when next is called.
+     * 
+     * @return the iterator.
+     */
+    public Iterator<int[][]> iterator()
+    {
+        SudokuGridGenerator grid = newGenerator();
+        return new Iterator<int[][]>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return true;
+            }
+
+            @Override
+            public int[][] next()
+            {
+                return nextPuzzle(grid, null);
+            }
+        };
+    }
+
+    /**
+     * Returns an endless, ordered stream that creates each puzzle when it is
+     * taken. Use limit or a short-circuiting operation to end it.
+     * 
+     * @return the stream.
+     */
+    public Stream<int[][]> stream()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private SudokuGridGenerator newGenerator()
+    {
+        SudokuGridGenerator grid = seeded ? new SudokuGridGenerator(seed) : new SudokuGridGenerator();
+        grid.setGameType(difficulty);
+        return grid;
+    }
+
+    /**
+     * Create the next puzzle with the given generator.
+     * 
+     * @param grid   the generator.
+     * @param budget the budget for the search, or null for no limits.
+     * @return a copy of the puzzle, or null if the budget stopped the search.
+     */
+    private static int[][] nextPuzzle(SudokuGridGenerator grid, SudokuSearchBudget budget)
+    {
+        if (grid.populateFullBoard(budget) != SudokuSearchStatus.COMPLETED
+                || grid.finalizeBoard(budget) != SudokuSearchStatus.COMPLETED)
+        {
+            return null;
+        }
+        int[][] puzzle = new int[SudokuGridGenerator.BOARD_SIZE][];
+        for (int i = 0; i < SudokuGridGenerator.BOARD_SIZE; i++)
+        {
+            puzzle[i] = grid.getBoard()[i].clone();
+        }
+        return puzzle;
+    }
+
+    /**
+     * The subscription of one subscriber. Requests add to the outstanding
+     * demand, and a single drain task at a time creates and delivers puzzles
+     * until the demand is used up, so the subscriber is never called
+     * concurrently.
+     */
+    private final class PuzzleSubscription implements Flow.Subscription
+    {
+        private final Flow.Subscriber<? super int[][]> subscriber;
+        private final SudokuGridGenerator grid;
+        private final SudokuSearchBudget budget;
+        private final AtomicLong demand;
+        private final AtomicInteger pendingDrains;
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        PuzzleSubscription(Flow.Subscriber<? super int[][]> subscriber, SudokuGridGenerator grid)
+        {
+            this.subscriber = subscriber;
+            this.grid = grid;
+            budget = SudokuSearchBudget.unlimited();
+            demand = new AtomicLong();
+            pendingDrains = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n)
+        {
+            if (n <= 0)
+            {
+                invalidRequest = new IllegalArgumentException("request must be positive: " + n);
+            }
+            else
+            {
+                // Add to the demand, saturating at Long.MAX_VALUE.
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled = true;
+            budget.cancel();
+        }
+
+        private void scheduleDrain()
+        {
+            if (pendingDrains.getAndIncrement() == 0)
+            {
+                try
+                {
+                    executor.execute(this::drain);
+                }
+                catch (RuntimeException e)
+                {
+                    cancel();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        private void drain()
+        {
+            int missed = 1;
+            do
+            {
+                while (!cancelled)
+                {
+                    if (invalidRequest != null)
+                    {
+                        cancel();
+                        subscriber.onError(invalidRequest);
+                        return;
+                    }
+                    if (demand.get() == 0)
+                    {
+                        break;
+                    }
+                    int[][] puzzle;
+                    try
+                    {
+                        puzzle = nextPuzzle(grid, budget);
+                    }
+                    catch (RuntimeException e)
+                    {
+                        cancel();
+                        subscriber.onError(e);
+                        return;
+                    }
+                    if (puzzle == null || cancelled)
+                    {
+                        return;
+                    }
+                    try
+                    {
+                        subscriber.onNext(puzzle);
+                    }
+                    catch (Throwable e)
+                    {
+                        // A subscriber that throws is treated as cancelled, so
+                        // later requests do not wait on this drain.
+                        cancel();
+                        subscriber.onError(e);
+                        return;
+                    }
+                    if (demand.get() != Long.MAX_VALUE)
+                    {
+                        demand.decrementAndGet();
+                    }
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            }
+            while (missed != 0);
+        }
+    }
+}
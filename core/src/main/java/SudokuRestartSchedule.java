@@ -0,0 +1,162 @@
+/**
+ * SudokuRestartSchedule class
+ * 
+ * The node cutoffs of a randomized search that is restarted when a run takes
+ * too long. The time a random fill or a random removal order takes has a heavy
+ * tail: most runs finish quickly, but an unlucky start can take a hundred
+ * times the median. Stopping such a run and starting over with fresh random
+ * choices is usually much cheaper than finishing it.
+ * 
+ * Run i (counted from 0) may use getCutoff(i) nodes. The Luby schedule uses
+ * the base times 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, and so on, which
+ * is within a constant factor of the best fixed cutoff without knowing the
+ * distribution of run times. The geometric schedule multiplies the cutoff by a
+ * constant factor after every run, which gives up sooner on short cutoffs when
+ * the base is known to be too small for some inputs. Both schedules grow
+ * without bound, so a search that can succeed always succeeds eventually.
+ * 
+ * Instances are immutable and can be shared between threads.
+ */
+public final class SudokuRestartSchedule
+{
+    private static final SudokuRestartSchedule NEVER = new SudokuRestartSchedule(SudokuSearchBudget.UNLIMITED_NODES, 0);
+
+    private final long baseNodes;
+    // The growth factor of a geometric schedule, or 0 for the Luby schedule.
+    private final double factor;
+
+    private SudokuRestartSchedule(long baseNodes, double factor)
+    {
+        this.baseNodes = baseNodes;
+        this.factor = factor;
+    }
+
+    /**
+     * Create a Luby schedule.
+     * 
+     * @param baseNodes the cutoff of the first run, at least 1.
+     * @return the new schedule.
+     */
+    public static SudokuRestartSchedule luby(long baseNodes)
+    {
+        if (baseNodes < 1)
+        {
+            throw new IllegalArgumentException("base cutoff must be at least 1");
+        }
+        return new SudokuRestartSchedule(baseNodes, 0);
+    }
+
+    /**
+     * Create a geometric schedule.
+     * 
+     * @param baseNodes the cutoff of the first run, at least 1.
+     * @param factor    the factor by which the cutoff grows after every run,
+     *                  greater than 1.
+     * @return the new schedule.
+     */
+    public static SudokuRestartSchedule geometric(long baseNodes, double factor)
+    {
+        if (baseNodes < 1)
+        {
+            throw new IllegalArgumentException("base cutoff must be at least 1");
+        }
+        if (!(factor > 1))
+        {
+            throw new IllegalArgumentException("growth factor must be greater than 1");
+        }
+        return new SudokuRestartSchedule(baseNodes, factor);
+    }
+
+    /**
+     * Returns a schedule that never restarts: the first run has no cutoff.
+     * 
+     * @return the schedule.
+     */
+    public static SudokuRestartSchedule never()
+    {
+        return NEVER;
+    }
+
+    /**
+     * Determine the node cutoff of a run.
+     * 
+     * @param run the number of the run, counted from 0.
+     * @return the cutoff, or SudokuSearchBudget.UNLIMITED_NODES.
+     */
+    public long getCutoff(int run)
+    {
+        if (run < 0)
+        {
+            throw new IllegalArgumentException("run must not be negative");
+        }
+        if (baseNodes == SudokuSearchBudget.UNLIMITED_NODES)
+        {
+            return baseNodes;
+        }
+        double multiple = factor == 0 ? luby(run + 1) : Math.pow(factor, run);
+        double cutoff = baseNodes * multiple;
+        return cutoff >= SudokuSearchBudget.UNLIMITED_NODES ? SudokuSearchBudget.UNLIMITED_NODES : (long) cutoff;
+    }
+
+    /**
+     * Create the budget of a run: the cutoff of the run, charged to the budget
+     * of the whole operation.
+     * 
+     * @param budget the budget of the whole operation, or null for no limits.
+     * @param run    the number of the run, counted from 0.
+     * @return the budget of the run, or the given budget if the run has no
+     *         cutoff.
+     */
+    SudokuSearchBudget budgetFor(SudokuSearchBudget budget, int run)
+    {
+        long cutoff = getCutoff(run);
+        if (cutoff == SudokuSearchBudget.UNLIMITED_NODES)
+        {
+            return budget;
+        }
+        return budget == null ? SudokuSearchBudget.ofNodes(cutoff) : budget.newChild(cutoff);
+    }
+
+    /**
+     * Determine whether a run that stopped with BUDGET_EXCEEDED only ran out of
+     * its own cutoff, so that another run may start.
+     * 
+     * @param budget the budget of the whole operation, or null for no limits.
+     * @return whether the budget of the whole operation allows another run.
+     */
+    static boolean mayRestart(SudokuSearchBudget budget)
+    {
+        return budget == null || budget.check(0) == null;
+    }
+
+    /**
+     * Compute the i-th term of the Luby sequence 1, 1, 2, 1, 1, 2, 4, ...
+     * 
+     * @param i the position in the sequence, counted from 1.
+     * @return the term.
+     */
+    private static long luby(int i)
+    {
+        // If i = 2^k - 1 the term is 2^(k-1); otherwise it repeats the sequence
+        // from the start of the last complete block.
+        while (true)
+        {
+            int k = 32 - Integer.numberOfLeadingZeros(i);
+            if (i == (1 << k) - 1)
+            {
+                return 1L << (k - 1);
+            }
+            i -= (1 << (k - 1)) - 1;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        if (baseNodes == SudokuSearchBudget.UNLIMITED_NODES)
+        {
+            return "never";
+        }
+        return factor == 0 ? "luby(" + baseNodes + ")" : "geometric(" + baseNodes + ", " + factor + ")";
+    }
+}
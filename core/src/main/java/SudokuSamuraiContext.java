@@ -0,0 +1,557 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * SudokuSamuraiContext class
+ * 
+ * Scratch state for a single Samurai solve, the counterpart of
+ * SudokuSolverContext for the cells and units of SudokuSamuraiLayout. The
+ * search is the same: one digit mask per unit, and the empty cell with the
+ * fewest candidates is always filled first. Because the shared squares are
+ * single units, a digit placed in one grid immediately removes candidates in
+ * the grid it overlaps, and a cell forced by either grid is filled before any
+ * guess is made.
+ * 
+ * Once every cell of the shared squares is filled, the grids no longer
+ * constrain one another, and the search counts the completions of each grid
+ * on its own. Without that split, a second solution hidden in one grid would
+ * be searched for again under every choice made in the other grids.
+ * 
+ * Contexts are never shared between threads.
+ */
+final class SudokuSamuraiContext
+{
+    static final int CELL_COUNT = SudokuSamuraiLayout.CELL_COUNT;
+
+    final int[] cells = new int[CELL_COUNT];
+    final int[] solution = new int[CELL_COUNT];
+    final int[] unitMask = new int[SudokuSamuraiLayout.UNIT_COUNT];
+    final int[] emptyCells = new int[CELL_COUNT];
+    int emptyCount;
+    // The number of empty cells in the shared squares.
+    int sharedEmptyCount;
+    int solutionCount;
+    int solutionLimit;
+    long nodes;
+    long nodeLimit;
+    SudokuSearchBudget budget;
+    SudokuSearchStatus stopStatus;
+
+    // Scratch state for counting the completions of one grid at a time.
+    private final int[] gridStart = new int[SudokuSamuraiLayout.GRID_COUNT + 1];
+    private final int[] sorted = new int[CELL_COUNT];
+    private final int[] firstValues = new int[CELL_COUNT];
+    private int rangeStart;
+    private int rangeEnd;
+    private int rangeCount;
+    private int rangeLimit;
+    // The digit selectSharedCell found to be forced, or 0 to try every candidate.
+    private int forcedBit;
+
+    /**
+     * Load a board into the context and reset all counters. The board is copied,
+     * so the caller's array is never modified by the search.
+     * 
+     * @param board a SIZE x SIZE Samurai board.
+     * @return false if the givens already break a rule, or an unused cell is
+     *         not empty.
+     */
+    boolean load(int[][] board)
+    {
+        clear();
+        for (int row = 0; row < SudokuSamuraiLayout.SIZE; row++)
+        {
+            for (int col = 0; col < SudokuSamuraiLayout.SIZE; col++)
+            {
+                int val = board[row][col];
+                int cell = SudokuSamuraiLayout.CELL_OF[row * SudokuSamuraiLayout.SIZE + col];
+                if (val == SudokuGridGenerator.EMPTY_SQUARE)
+                {
+                    continue;
+                }
+                if (cell < 0 || val < SudokuGridGenerator.MIN_NUM || val > SudokuGridGenerator.MAX_NUM)
+                {
+                    return false;
+                }
+                int bit = 1 << (val - 1);
+                if ((candidates(cell) & bit) == 0)
+                {
+                    return false;
+                }
+                place(cell, bit);
+            }
+        }
+        collectEmptyCells();
+        return true;
+    }
+
+    /**
+     * Clear the board and all counters so that every cell is empty.
+     */
+    void clear()
+    {
+        for (int unit = 0; unit < unitMask.length; unit++)
+        {
+            unitMask[unit] = 0;
+        }
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            cells[cell] = SudokuGridGenerator.EMPTY_SQUARE;
+        }
+        emptyCount = 0;
+        solutionCount = 0;
+        nodes = 0;
+        stopStatus = null;
+    }
+
+    /**
+     * Rebuild the stack of empty cells from the current board.
+     */
+    void collectEmptyCells()
+    {
+        emptyCount = 0;
+        sharedEmptyCount = 0;
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            if (cells[cell] == SudokuGridGenerator.EMPTY_SQUARE)
+            {
+                emptyCells[emptyCount++] = cell;
+                if (SudokuSamuraiLayout.GRID_OF[cell] < 0)
+                {
+                    sharedEmptyCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Start a search under the given budget. Must be called after the board is
+     * loaded, since loading resets the node counter.
+     * 
+     * @param searchBudget the budget to run under, or null for no limits.
+     */
+    void begin(SudokuSearchBudget searchBudget)
+    {
+        budget = searchBudget;
+        stopStatus = null;
+        nodeLimit = searchBudget == null ? SudokuSearchBudget.UNLIMITED_NODES : searchBudget.remainingNodes();
+        if (searchBudget != null)
+        {
+            stopStatus = searchBudget.check(0);
+        }
+    }
+
+    /**
+     * Finish a search and charge the nodes it used to its budget.
+     * 
+     * @return null if the search ran to the end, otherwise the reason it stopped.
+     */
+    SudokuSearchStatus finish()
+    {
+        if (budget != null)
+        {
+            budget.charge(nodes);
+            budget = null;
+        }
+        return stopStatus;
+    }
+
+    /**
+     * Count one node and determine whether the budget stops the search.
+     * 
+     * @return true if the search must stop.
+     */
+    boolean stopAtNode()
+    {
+        nodes++;
+        if (stopStatus != null)
+        {
+            return true;
+        }
+        if (nodes > nodeLimit)
+        {
+            stopStatus = SudokuSearchStatus.BUDGET_EXCEEDED;
+            return true;
+        }
+        if (budget != null && (nodes & (SudokuSearchBudget.CHECK_INTERVAL - 1)) == 0)
+        {
+            stopStatus = budget.check(nodes);
+            return stopStatus != null;
+        }
+        return false;
+    }
+
+    /**
+     * Copy a board from the cells array, or from the first solution found.
+     * 
+     * @param values the cells or the solution array of this context.
+     * @param board  the Samurai board that receives the values.
+     */
+    static void store(int[] values, int[][] board)
+    {
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            board[SudokuSamuraiLayout.ROW_OF[cell]][SudokuSamuraiLayout.COL_OF[cell]] = values[cell];
+        }
+    }
+
+    int candidates(int cell)
+    {
+        int used = 0;
+        int[] units = SudokuSamuraiLayout.CELL_UNITS[cell];
+        for (int i = 0; i < units.length; i++)
+        {
+            used |= unitMask[units[i]];
+        }
+        return ~used & SudokuSolverContext.ALL_DIGITS;
+    }
+
+    void place(int cell, int bit)
+    {
+        cells[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+        if (SudokuSamuraiLayout.GRID_OF[cell] < 0)
+        {
+            sharedEmptyCount--;
+        }
+        int[] units = SudokuSamuraiLayout.CELL_UNITS[cell];
+        for (int i = 0; i < units.length; i++)
+        {
+            unitMask[units[i]] |= bit;
+        }
+    }
+
+    void remove(int cell, int bit)
+    {
+        cells[cell] = SudokuGridGenerator.EMPTY_SQUARE;
+        if (SudokuSamuraiLayout.GRID_OF[cell] < 0)
+        {
+            sharedEmptyCount++;
+        }
+        int[] units = SudokuSamuraiLayout.CELL_UNITS[cell];
+        for (int i = 0; i < units.length; i++)
+        {
+            unitMask[units[i]] &= ~bit;
+        }
+    }
+
+    /**
+     * Search the remaining empty cells, always branching on the cell with the
+     * fewest candidates. The search stops once solutionLimit solutions have been
+     * found or the budget stops the search; the first solution is kept in the
+     * solution array.
+     * 
+     * @param depth the number of empty cells that have already been filled.
+     * @return true if the solution limit was reached or the search was stopped.
+     */
+    boolean search(int depth)
+    {
+        if (depth == emptyCount)
+        {
+            if (solutionCount == 0)
+            {
+                System.arraycopy(cells, 0, solution, 0, CELL_COUNT);
+            }
+            solutionCount++;
+            return solutionCount >= solutionLimit;
+        }
+        if (sharedEmptyCount == 0)
+        {
+            return searchGrids(depth);
+        }
+        int best = selectSharedCell(depth);
+        if (best < 0)
+        {
+            return false;
+        }
+        int cell = emptyCells[best];
+        int mask = forcedBit != 0 ? forcedBit : candidates(cell);
+        emptyCells[best] = emptyCells[depth];
+        emptyCells[depth] = cell;
+        while (mask != 0)
+        {
+            int bit = mask & -mask;
+            mask ^= bit;
+            if (stopAtNode())
+            {
+                return true;
+            }
+            place(cell, bit);
+            boolean done = search(depth + 1);
+            remove(cell, bit);
+            if (done)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fill the remaining empty cells with a random valid completion, branching
+     * on the cell with the fewest candidates and trying its candidates in random
+     * order. The completed board is left in the cells array. If the budget stops
+     * the fill, the method returns true with stopStatus set.
+     * 
+     * @param depth  the number of empty cells that have already been filled.
+     * @param random the random generator that decides the candidate order.
+     * @return boolean that determines whether the board was completed.
+     */
+    boolean fillRandom(int depth, SplittableRandom random)
+    {
+        if (depth == emptyCount)
+        {
+            return true;
+        }
+        int best = selectCell(depth, emptyCount);
+        if (best < 0)
+        {
+            return false;
+        }
+        int cell = emptyCells[best];
+        int mask = candidates(cell);
+        emptyCells[best] = emptyCells[depth];
+        emptyCells[depth] = cell;
+        while (mask != 0)
+        {
+            int bit = SudokuSolverContext.randomBit(mask, random);
+            mask ^= bit;
+            if (stopAtNode())
+            {
+                return true;
+            }
+            place(cell, bit);
+            if (fillRandom(depth + 1, random))
+            {
+                return true;
+            }
+            remove(cell, bit);
+        }
+        return false;
+    }
+
+    /**
+     * Count the completions of the remaining empty cells once the shared
+     * squares are filled, as the product of the completions of each grid. The
+     * grids are first only checked for a completion, which is cheap and ends
+     * the count early if one of them has none; they are only counted further
+     * if more than one solution is still wanted.
+     * 
+     * @param depth the number of empty cells that have already been filled.
+     * @return true if the solution limit was reached or the search was stopped.
+     */
+    private boolean searchGrids(int depth)
+    {
+        // Sort the remaining empty cells by grid.
+        Arrays.fill(gridStart, 0);
+        for (int i = depth; i < emptyCount; i++)
+        {
+            gridStart[SudokuSamuraiLayout.GRID_OF[emptyCells[i]] + 1]++;
+        }
+        gridStart[0] = depth;
+        for (int grid = 1; grid <= SudokuSamuraiLayout.GRID_COUNT; grid++)
+        {
+            gridStart[grid] += gridStart[grid - 1];
+        }
+        for (int i = depth; i < emptyCount; i++)
+        {
+            int cell = emptyCells[i];
+            sorted[gridStart[SudokuSamuraiLayout.GRID_OF[cell]]++] = cell;
+        }
+        System.arraycopy(sorted, depth, emptyCells, depth, emptyCount - depth);
+        for (int grid = SudokuSamuraiLayout.GRID_COUNT; grid > 0; grid--)
+        {
+            gridStart[grid] = gridStart[grid - 1];
+        }
+        gridStart[0] = depth;
+        int wanted = solutionLimit - solutionCount;
+        long completions = 1;
+        for (int pass = 0; pass < 2 && (pass == 0 || wanted > 1); pass++)
+        {
+            completions = 1;
+            for (int grid = 0; grid < SudokuSamuraiLayout.GRID_COUNT; grid++)
+            {
+                rangeStart = gridStart[grid];
+                rangeEnd = gridStart[grid + 1];
+                rangeCount = 0;
+                rangeLimit = pass == 0 ? 1 : wanted;
+                if (searchRange(rangeStart) && stopStatus != null)
+                {
+                    return true;
+                }
+                if (rangeCount == 0)
+                {
+                    return false;
+                }
+                completions = Math.min(wanted, completions * rangeCount);
+            }
+        }
+        if (solutionCount == 0)
+        {
+            System.arraycopy(cells, 0, solution, 0, CELL_COUNT);
+            for (int i = depth; i < emptyCount; i++)
+            {
+                solution[emptyCells[i]] = firstValues[emptyCells[i]];
+            }
+        }
+        solutionCount += (int) completions;
+        return solutionCount >= solutionLimit;
+    }
+
+    /**
+     * Count the completions of the empty cells from the given depth up to
+     * rangeEnd, which all belong to one grid, stopping at rangeLimit. The first
+     * completion is kept in firstValues.
+     * 
+     * @param depth the position in emptyCells of the next cell to fill.
+     * @return true if the limit was reached or the search was stopped.
+     */
+    private boolean searchRange(int depth)
+    {
+        if (depth == rangeEnd)
+        {
+            if (rangeCount == 0)
+            {
+                for (int i = rangeStart; i < rangeEnd; i++)
+                {
+                    firstValues[emptyCells[i]] = cells[emptyCells[i]];
+                }
+            }
+            rangeCount++;
+            return rangeCount >= rangeLimit;
+        }
+        int best = selectCell(depth, rangeEnd);
+        if (best < 0)
+        {
+            return false;
+        }
+        int cell = emptyCells[best];
+        int mask = candidates(cell);
+        emptyCells[best] = emptyCells[depth];
+        emptyCells[depth] = cell;
+        while (mask != 0)
+        {
+            int bit = mask & -mask;
+            mask ^= bit;
+            if (stopAtNode())
+            {
+                return true;
+            }
+            place(cell, bit);
+            boolean done = searchRange(depth + 1);
+            remove(cell, bit);
+            if (done)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find a forced cell anywhere on the board, or otherwise the cell of the
+     * shared squares with the fewest candidates. A cell is forced if it has a
+     * single candidate, or if it is the only place left for a digit in one of
+     * its units; in the second case forcedBit is set to that digit. Guessing
+     * only in the shared squares fills them as soon as possible, so the grids
+     * can be counted separately from then on.
+     * 
+     * @param depth the number of empty cells that have already been filled.
+     * @return the position of the cell in emptyCells, or -1 if some empty cell
+     *         has no candidates or some digit has no place left in a unit.
+     */
+    private int selectSharedCell(int depth)
+    {
+        forcedBit = 0;
+        int best = depth;
+        int bestCount = SudokuGridGenerator.MAX_NUM + 1;
+        for (int i = depth; i < emptyCount; i++)
+        {
+            int cell = emptyCells[i];
+            int count = Integer.bitCount(candidates(cell));
+            if (count <= 1)
+            {
+                return count == 0 ? -1 : i;
+            }
+            if (count < bestCount && SudokuSamuraiLayout.GRID_OF[cell] < 0)
+            {
+                best = i;
+                bestCount = count;
+            }
+        }
+        for (int unit = 0; unit < SudokuSamuraiLayout.UNIT_COUNT; unit++)
+        {
+            int[] unitCells = SudokuSamuraiLayout.UNIT_CELLS[unit];
+            int once = 0;
+            int twice = 0;
+            for (int i = 0; i < unitCells.length; i++)
+            {
+                if (cells[unitCells[i]] == SudokuGridGenerator.EMPTY_SQUARE)
+                {
+                    int mask = candidates(unitCells[i]);
+                    twice |= once & mask;
+                    once |= mask;
+                }
+            }
+            if ((once | unitMask[unit]) != SudokuSolverContext.ALL_DIGITS)
+            {
+                return -1;
+            }
+            int single = once & ~twice;
+            if (single != 0)
+            {
+                for (int i = 0; i < unitCells.length; i++)
+                {
+                    int cell = unitCells[i];
+                    if (cells[cell] == SudokuGridGenerator.EMPTY_SQUARE && (candidates(cell) & single) != 0)
+                    {
+                        forcedBit = Integer.lowestOneBit(candidates(cell) & single);
+                        return positionOf(cell, depth);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int positionOf(int cell, int depth)
+    {
+        int i = depth;
+        while (emptyCells[i] != cell)
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Find the empty cell with the fewest candidates.
+     * 
+     * @param depth the number of empty cells that have already been filled.
+     * @param end   the end of the part of emptyCells to look in.
+     * @return the position of the cell in emptyCells, or -1 if some empty cell
+     *         has no candidates.
+     */
+    private int selectCell(int depth, int end)
+    {
+        int best = depth;
+        int bestCount = SudokuGridGenerator.MAX_NUM + 1;
+        for (int i = depth; i < end; i++)
+        {
+            int count = Integer.bitCount(candidates(emptyCells[i]));
+            if (count < bestCount)
+            {
+                if (count == 0)
+                {
+                    return -1;
+                }
+                best = i;
+                bestCount = count;
+                if (count == 1)
+                {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,180 @@
+import java.util.SplittableRandom;
+
+/**
+ * SudokuSamuraiGenerator class
+ * 
+ * Creates Samurai puzzles with a unique solution. A completely filled board is
+ * made by one random search over all five grids at once, so the shared squares
+ * agree by construction. Clues are then removed in random order, each removal
+ * kept only if the board still has a unique solution, as finalizeBoard does for
+ * a single grid. Every check solves the whole board, so a clue that is only
+ * needed because of a neighbouring grid is kept.
+ * 
+ * The difficulty works as in SudokuGridGenerator: removal stops after a number
+ * of rejected removals that grows with the difficulty, and "hard" tries every
+ * cell, which leaves a puzzle in which every clue is needed.
+ * 
+ * An instance is not thread safe; use one generator per thread.
+ */
+public class SudokuSamuraiGenerator
+{
+    private final SudokuSamuraiContext context;
+    private final SplittableRandom random;
+    private final int[][] solution;
+    private final int[] order;
+    private String gameType;
+
+    /**
+     * Create a generator seeded from the system clock.
+     */
+    public SudokuSamuraiGenerator()
+    {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Create a generator whose puzzles are fully determined by the seed.
+     * 
+     * @param seed the seed for the random generator.
+     */
+    public SudokuSamuraiGenerator(long seed)
+    {
+        this(new SplittableRandom(seed));
+    }
+
+    private SudokuSamuraiGenerator(SplittableRandom random)
+    {
+        this.random = random;
+        context = new SudokuSamuraiContext();
+        solution = SudokuSamuraiLayout.newBoard();
+        order = new int[SudokuSamuraiLayout.CELL_COUNT];
+        gameType = "hard";
+    }
+
+    /**
+     * Set the difficulty of the following puzzles.
+     * 
+     * @param game easy, medium, or hard.
+     */
+    public void setGameType(String game)
+    {
+        String type = game.toLowerCase();
+        if (!type.equals("easy") && !type.equals("medium") && !type.equals("hard"))
+        {
+            throw new IllegalArgumentException("unknown difficulty: " + game);
+        }
+        gameType = type;
+    }
+
+    public String getGameType()
+    {
+        return gameType;
+    }
+
+    /**
+     * Returns the solution of the last puzzle generated. The array is reused by
+     * the next call to generate.
+     * 
+     * @return the completed Samurai board.
+     */
+    public int[][] getSolution()
+    {
+        return solution;
+    }
+
+    /**
+     * Fill the given board with a new puzzle. The budget bounds the filled
+     * board and all uniqueness checks together. If it runs out while clues are
+     * being removed, the removals made so far are kept, so the board is still a
+     * puzzle with a unique solution, only with more clues.
+     * 
+     * @param puzzle a SIZE x SIZE array that receives the puzzle.
+     * @param budget the budget for the search, or null for no limits.
+     * @return COMPLETED, or BUDGET_EXCEEDED or CANCELLED; if the budget stopped
+     *         the search before the board was filled, the puzzle is not written.
+     */
+    public SudokuSearchStatus generate(int[][] puzzle, SudokuSearchBudget budget)
+    {
+        context.clear();
+        context.collectEmptyCells();
+        context.begin(budget);
+        boolean filled = context.fillRandom(0, random);
+        SudokuSearchStatus stopStatus = context.finish();
+        if (stopStatus != null)
+        {
+            return stopStatus;
+        }
+        if (!filled)
+        {
+            // An empty board always has a completion.
+            throw new IllegalStateException("no completion of the empty Samurai board");
+        }
+        SudokuSamuraiContext.store(context.cells, solution);
+        for (int row = 0; row < SudokuSamuraiLayout.SIZE; row++)
+        {
+            System.arraycopy(solution[row], 0, puzzle[row], 0, SudokuSamuraiLayout.SIZE);
+        }
+        return removeClues(puzzle, budget);
+    }
+
+    /**
+     * Remove clues from a completely filled board in random order, keeping
+     * each removal that leaves a unique solution.
+     * 
+     * @param puzzle the board to remove clues from.
+     * @param budget the budget for the uniqueness checks, or null for no limits.
+     * @return COMPLETED, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    private SudokuSearchStatus removeClues(int[][] puzzle, SudokuSearchBudget budget)
+    {
+        for (int i = 0; i < order.length; i++)
+        {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        int attemptsLeft = rejectedRemovals();
+        for (int i = 0; i < order.length && attemptsLeft > 0; i++)
+        {
+            int row = SudokuSamuraiLayout.ROW_OF[order[i]];
+            int col = SudokuSamuraiLayout.COL_OF[order[i]];
+            puzzle[row][col] = SudokuGridGenerator.EMPTY_SQUARE;
+            int solutions = SudokuSamuraiSolver.countSolutions(puzzle, 2, budget);
+            if (solutions != 1)
+            {
+                puzzle[row][col] = solution[row][col];
+                attemptsLeft--;
+            }
+            if (solutions == SudokuSolver.CANCELLED)
+            {
+                return SudokuSearchStatus.CANCELLED;
+            }
+            if (solutions == SudokuSolver.BUDGET_EXCEEDED)
+            {
+                return SudokuSearchStatus.BUDGET_EXCEEDED;
+            }
+        }
+        return SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Determine how many removals may be rejected before the puzzle is done.
+     * 
+     * @return the number of rejected removals allowed.
+     */
+    private int rejectedRemovals()
+    {
+        if (gameType.equals("easy"))
+        {
+            return 3;
+        }
+        else if (gameType.equals("medium"))
+        {
+            return 7;
+        }
+        else
+        {
+            return SudokuSamuraiLayout.CELL_COUNT;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SudokuSamuraiLayout class
+ * 
+ * The layout of a Samurai puzzle: five 9x9 grids on a 21x21 board, one in each
+ * corner and one in the middle. The middle grid shares each of its corner
+ * squares with the inner corner square of one of the other grids, so a digit
+ * placed in a shared square constrains the rows and columns of two grids.
+ * 
+ * Boards are int[SIZE][SIZE] arrays. The cells that belong to no grid (the gaps
+ * between the corner grids) are not used and always hold EMPTY_SQUARE. The
+ * grids are numbered top left, top right, middle, bottom left, bottom right.
+ * 
+ * Internally the used cells are numbered from 0 to CELL_COUNT - 1 in row-major
+ * order, and every row, column, and square of every grid is a unit. A shared
+ * square is a single unit, so the units of all five grids form one system of
+ * constraints and the solver propagates through it like a single board.
+ */
+public final class SudokuSamuraiLayout
+{
+    public static final int SIZE = 21;
+    public static final int GRID_COUNT = 5;
+    public static final int MIDDLE_GRID = 2;
+    /**
+     * The number of used cells: five grids less the four shared squares.
+     */
+    public static final int CELL_COUNT = GRID_COUNT * 81 - (GRID_COUNT - 1) * 9;
+
+    private static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    private static final int SQUARE_SIZE = SudokuGridGenerator.SQUARE_SIZE;
+    private static final int[] GRID_ROW = { 0, 0, 6, 12, 12 };
+    private static final int[] GRID_COL = { 0, 12, 6, 0, 12 };
+
+    // The cell number of every board position, or -1 for an unused position.
+    static final int[] CELL_OF = new int[SIZE * SIZE];
+    // The board row and column of every cell.
+    static final int[] ROW_OF = new int[CELL_COUNT];
+    static final int[] COL_OF = new int[CELL_COUNT];
+    // The units of every cell: three, or five in a shared square.
+    static final int[][] CELL_UNITS = new int[CELL_COUNT][];
+    // The only grid that contains a cell, or -1 for a cell of a shared square.
+    static final int[] GRID_OF = new int[CELL_COUNT];
+    // The cells of every unit.
+    static final int[][] UNIT_CELLS;
+    static final int UNIT_COUNT;
+
+    static
+    {
+        Arrays.fill(CELL_OF, -1);
+        for (int pos = 0, cell = 0; pos < SIZE * SIZE; pos++)
+        {
+            if (inGrid(pos / SIZE, pos % SIZE))
+            {
+                CELL_OF[pos] = cell;
+                ROW_OF[cell] = pos / SIZE;
+                COL_OF[cell] = pos % SIZE;
+                GRID_OF[cell] = gridOf(pos / SIZE, pos % SIZE);
+                cell++;
+            }
+        }
+        List<List<Integer>> cellUnits = new ArrayList<List<Integer>>();
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            cellUnits.add(new ArrayList<Integer>());
+        }
+        // Squares are keyed by their position on the 7x7 board of squares, so a
+        // shared square gets one unit however many grids contain it.
+        int squaresPerSide = SIZE / SQUARE_SIZE;
+        int[] squareUnit = new int[squaresPerSide * squaresPerSide];
+        Arrays.fill(squareUnit, -1);
+        int units = 0;
+        for (int grid = 0; grid < GRID_COUNT; grid++)
+        {
+            for (int i = 0; i < GRID_SIZE; i++)
+            {
+                int rowUnit = units++;
+                int colUnit = units++;
+                for (int j = 0; j < GRID_SIZE; j++)
+                {
+                    cellUnits.get(cellAt(GRID_ROW[grid] + i, GRID_COL[grid] + j)).add(rowUnit);
+                    cellUnits.get(cellAt(GRID_ROW[grid] + j, GRID_COL[grid] + i)).add(colUnit);
+                }
+            }
+            for (int row = GRID_ROW[grid]; row < GRID_ROW[grid] + GRID_SIZE; row += SQUARE_SIZE)
+            {
+                for (int col = GRID_COL[grid]; col < GRID_COL[grid] + GRID_SIZE; col += SQUARE_SIZE)
+                {
+                    int key = (row / SQUARE_SIZE) * squaresPerSide + col / SQUARE_SIZE;
+                    if (squareUnit[key] >= 0)
+                    {
+                        continue;
+                    }
+                    squareUnit[key] = units++;
+                    for (int i = 0; i < GRID_SIZE; i++)
+                    {
+                        int cell = cellAt(row + i / SQUARE_SIZE, col + i % SQUARE_SIZE);
+                        cellUnits.get(cell).add(squareUnit[key]);
+                    }
+                }
+            }
+        }
+        UNIT_COUNT = units;
+        UNIT_CELLS = new int[UNIT_COUNT][GRID_SIZE];
+        int[] unitFill = new int[UNIT_COUNT];
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            List<Integer> list = cellUnits.get(cell);
+            CELL_UNITS[cell] = new int[list.size()];
+            for (int i = 0; i < list.size(); i++)
+            {
+                int unit = list.get(i);
+                CELL_UNITS[cell][i] = unit;
+                UNIT_CELLS[unit][unitFill[unit]++] = cell;
+            }
+        }
+    }
+
+    private SudokuSamuraiLayout()
+    {
+    }
+
+    /**
+     * Create an empty board.
+     * 
+     * @return a new SIZE x SIZE array of empty cells.
+     */
+    public static int[][] newBoard()
+    {
+        return new int[SIZE][SIZE];
+    }
+
+    /**
+     * Determine whether a board position belongs to one of the grids.
+     * 
+     * @param row the row index, from 0 to SIZE - 1.
+     * @param col the column index, from 0 to SIZE - 1.
+     * @return whether the position is used.
+     */
+    public static boolean isUsed(int row, int col)
+    {
+        return CELL_OF[row * SIZE + col] >= 0;
+    }
+
+    public static int getGridRow(int grid)
+    {
+        return GRID_ROW[grid];
+    }
+
+    public static int getGridCol(int grid)
+    {
+        return GRID_COL[grid];
+    }
+
+    /**
+     * Copy one of the five grids of a Samurai board into a 9x9 board, for
+     * example to show it or to check it with the classic rules.
+     * 
+     * @param board     the Samurai board.
+     * @param grid      the grid index, from 0 to GRID_COUNT - 1.
+     * @param gameBoard the 9x9 array that receives the grid.
+     */
+    public static void getGrid(int[][] board, int grid, int[][] gameBoard)
+    {
+        for (int row = 0; row < GRID_SIZE; row++)
+        {
+            System.arraycopy(board[GRID_ROW[grid] + row], GRID_COL[grid], gameBoard[row], 0, GRID_SIZE);
+        }
+    }
+
+    private static int cellAt(int row, int col)
+    {
+        return CELL_OF[row * SIZE + col];
+    }
+
+    private static boolean inGrid(int row, int col)
+    {
+        for (int grid = 0; grid < GRID_COUNT; grid++)
+        {
+            if (inGrid(row, col, grid))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean inGrid(int row, int col, int grid)
+    {
+        return row >= GRID_ROW[grid] && row < GRID_ROW[grid] + GRID_SIZE && col >= GRID_COL[grid]
+                && col < GRID_COL[grid] + GRID_SIZE;
+    }
+
+    /**
+     * Find the grid that contains a used position.
+     * 
+     * @param row the row index.
+     * @param col the column index.
+     * @return the grid index, or -1 if the position is in two grids.
+     */
+    private static int gridOf(int row, int col)
+    {
+        int found = -1;
+        for (int grid = 0; grid < GRID_COUNT; grid++)
+        {
+            if (inGrid(row, col, grid))
+            {
+                if (found >= 0)
+                {
+                    return -1;
+                }
+                found = grid;
+            }
+        }
+        return found;
+    }
+}
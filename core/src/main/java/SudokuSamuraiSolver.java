@@ -0,0 +1,116 @@
+/**
+ * SudokuSamuraiSolver class
+ * 
+ * A stateless solver for Samurai boards laid out as in SudokuSamuraiLayout.
+ * The five grids are solved as one board, so a digit in a shared square
+ * constrains both grids at once; solving the grids one by one would have to
+ * undo whole grids whenever a choice in a shared square turned out wrong.
+ * 
+ * Like SudokuSolver, the solver can be called from any number of threads at
+ * once, keeps its scratch state in a context confined to the calling thread,
+ * and never modifies the board it is given.
+ */
+public final class SudokuSamuraiSolver
+{
+    private static final ThreadLocal<SudokuSamuraiContext> CONTEXTS = new ThreadLocal<SudokuSamuraiContext>()
+    {
+        @Override
+        protected SudokuSamuraiContext initialValue()
+        {
+            return new SudokuSamuraiContext();
+        }
+    };
+
+    private SudokuSamuraiSolver()
+    {
+    }
+
+    /**
+     * Solve the Samurai board and write the first solution found into the
+     * solution array.
+     * 
+     * @param board    the partially filled Samurai board.
+     * @param solution a SIZE x SIZE array that receives the completed board.
+     * @return boolean that determines whether the board could be completed.
+     */
+    public static boolean solve(int[][] board, int[][] solution)
+    {
+        return solve(board, solution, null) == SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Solve the Samurai board under a budget. The solution array is only
+     * written when the result is COMPLETED; its unused cells are left alone.
+     * 
+     * @param board    the partially filled Samurai board.
+     * @param solution a SIZE x SIZE array that receives the completed board.
+     * @param budget   the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public static SudokuSearchStatus solve(int[][] board, int[][] solution, SudokuSearchBudget budget)
+    {
+        SudokuSamuraiContext context = CONTEXTS.get();
+        if (!context.load(board))
+        {
+            return SudokuSearchStatus.NO_SOLUTION;
+        }
+        context.begin(budget);
+        context.solutionLimit = 1;
+        context.search(0);
+        SudokuSearchStatus stopStatus = context.finish();
+        if (stopStatus != null)
+        {
+            return stopStatus;
+        }
+        if (context.solutionCount == 0)
+        {
+            return SudokuSearchStatus.NO_SOLUTION;
+        }
+        SudokuSamuraiContext.store(context.solution, solution);
+        return SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Count the solutions of the Samurai board under a budget, stopping once
+     * the limit is reached.
+     * 
+     * @param board  the partially filled Samurai board.
+     * @param limit  the maximum number of solutions to count.
+     * @param budget the budget for the search, or null for no limits.
+     * @return the number of solutions found, never more than the limit, or
+     *         SudokuSolver.BUDGET_EXCEEDED or SudokuSolver.CANCELLED if the
+     *         budget stopped the count.
+     */
+    public static int countSolutions(int[][] board, int limit, SudokuSearchBudget budget)
+    {
+        SudokuSamuraiContext context = CONTEXTS.get();
+        if (limit <= 0 || !context.load(board))
+        {
+            return 0;
+        }
+        context.begin(budget);
+        context.solutionLimit = limit;
+        context.search(0);
+        SudokuSearchStatus stopStatus = context.finish();
+        if (stopStatus == SudokuSearchStatus.CANCELLED)
+        {
+            return SudokuSolver.CANCELLED;
+        }
+        if (stopStatus != null)
+        {
+            return SudokuSolver.BUDGET_EXCEEDED;
+        }
+        return context.solutionCount;
+    }
+
+    /**
+     * Determine whether the Samurai board has exactly one solution.
+     * 
+     * @param board the partially filled Samurai board.
+     * @return boolean that determines whether the solution is unique.
+     */
+    public static boolean isUnique(int[][] board)
+    {
+        return countSolutions(board, 2, null) == 1;
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SudokuSearchBudget class
+ * 
+ * Bounds the work done by the solvers and generators. A budget combines a
+ * node limit (the number of digits the search may try), a wall-clock deadline,
+ * and a cancel flag. Nodes are charged to the budget as they are used, so one
+ * budget can be passed to several calls, or to several threads, to bound the
+ * work of a whole operation.
+ * 
+ * The search checks the node limit on every node and the deadline and cancel
+ * flag every CHECK_INTERVAL nodes, so cancel can be called from any thread and
+ * takes effect within a few microseconds.
+ */
+public final class SudokuSearchBudget
+{
+    public static final long UNLIMITED_NODES = Long.MAX_VALUE;
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+    public static final int CHECK_INTERVAL = 1024;
+
+    private final long maxNodes;
+    private final long deadline;
+    private final boolean hasDeadline;
+    private final AtomicLong nodesUsed;
+    private final SudokuSearchBudget parent;
+    private volatile boolean cancelled;
+
+    /**
+     * Create a budget with a node limit and a timeout that starts now.
+     * 
+     * @param maxNodes the maximum number of nodes, or UNLIMITED_NODES.
+     * @param timeout  the maximum time, or NO_DEADLINE.
+     * @param unit     the unit of the timeout.
+     */
+    public SudokuSearchBudget(long maxNodes, long timeout, TimeUnit unit)
+    {
+        this(maxNodes, timeout, unit, null);
+    }
+
+    private SudokuSearchBudget(long maxNodes, long timeout, TimeUnit unit, SudokuSearchBudget parent)
+    {
+        if (maxNodes < 0 || timeout < 0)
+        {
+            throw new IllegalArgumentException("budget limits must not be negative");
+        }
+        this.maxNodes = maxNodes;
+        hasDeadline = timeout != NO_DEADLINE;
+        deadline = hasDeadline ? System.nanoTime() + unit.toNanos(timeout) : 0;
+        nodesUsed = new AtomicLong();
+        this.parent = parent;
+    }
+
+    /**
+     * Create a budget that only limits the number of nodes.
+     * 
+     * @param maxNodes the maximum number of nodes.
+     * @return the new budget.
+     */
+    public static SudokuSearchBudget ofNodes(long maxNodes)
+    {
+        return new SudokuSearchBudget(maxNodes, NO_DEADLINE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Create a budget that only limits the time.
+     * 
+     * @param timeout the maximum time.
+     * @param unit    the unit of the timeout.
+     * @return the new budget.
+     */
+    public static SudokuSearchBudget ofTime(long timeout, TimeUnit unit)
+    {
+        return new SudokuSearchBudget(UNLIMITED_NODES, timeout, unit);
+    }
+
+    /**
+     * Create a budget without limits that can still be cancelled.
+     * 
+     * @return the new budget.
+     */
+    public static SudokuSearchBudget unlimited()
+    {
+        return new SudokuSearchBudget(UNLIMITED_NODES, NO_DEADLINE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Create a budget that can be cancelled on its own but also stops when this
+     * budget runs out or is cancelled. Nodes charged to the child are charged
+     * to this budget as well. Cancelling the child does not affect this budget.
+     * 
+     * @return the new budget.
+     */
+    public SudokuSearchBudget newChild()
+    {
+        return newChild(UNLIMITED_NODES);
+    }
+
+    /**
+     * Create a child budget, as newChild does, that also stops after its own
+     * node limit, for example to cut off one run of a search that is restarted.
+     * 
+     * @param maxNodes the maximum number of nodes of the child, or
+     *                 UNLIMITED_NODES.
+     * @return the new budget.
+     */
+    public SudokuSearchBudget newChild(long maxNodes)
+    {
+        return newChild(maxNodes, NO_DEADLINE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Create a child budget, as newChild does, with its own node limit and a
+     * timeout that starts now, for example to stop one part of a search at a
+     * deadline while the rest of the budget stays usable.
+     * 
+     * @param maxNodes the maximum number of nodes of the child, or
+     *                 UNLIMITED_NODES.
+     * @param timeout  the maximum time of the child, or NO_DEADLINE.
+     * @param unit     the unit of the timeout.
+     * @return the new budget.
+     */
+    public SudokuSearchBudget newChild(long maxNodes, long timeout, TimeUnit unit)
+    {
+        return new SudokuSearchBudget(maxNodes, timeout, unit, this);
+    }
+
+    /**
+     * Ask every search running under this budget to stop. Safe to call from
+     * any thread.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    public long getNodesUsed()
+    {
+        return nodesUsed.get();
+    }
+
+    /**
+     * Determine the nodes that are still available.
+     * 
+     * @return the remaining nodes, never negative.
+     */
+    long remainingNodes()
+    {
+        long remaining = parent == null ? UNLIMITED_NODES : parent.remainingNodes();
+        if (maxNodes == UNLIMITED_NODES)
+        {
+            return remaining;
+        }
+        return Math.min(remaining, Math.max(0, maxNodes - nodesUsed.get()));
+    }
+
+    /**
+     * Charge nodes used by a finished or stopped search.
+     * 
+     * @param nodes the number of nodes used.
+     */
+    void charge(long nodes)
+    {
+        nodesUsed.addAndGet(nodes);
+        if (parent != null)
+        {
+            parent.charge(nodes);
+        }
+    }
+
+    /**
+     * Determine whether the budget allows the search to continue.
+     * 
+     * @param pendingNodes nodes used by the running search that have not been
+     *                     charged yet.
+     * @return null if the search may continue, otherwise the reason to stop.
+     */
+    SudokuSearchStatus check(long pendingNodes)
+    {
+        if (cancelled)
+        {
+            return SudokuSearchStatus.CANCELLED;
+        }
+        if (maxNodes != UNLIMITED_NODES && nodesUsed.get() + pendingNodes >= maxNodes)
+        {
+            return SudokuSearchStatus.BUDGET_EXCEEDED;
+        }
+        if (hasDeadline && System.nanoTime() - deadline >= 0)
+        {
+            return SudokuSearchStatus.BUDGET_EXCEEDED;
+        }
+        return parent == null ? null : parent.check(pendingNodes);
+    }
+}
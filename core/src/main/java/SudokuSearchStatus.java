@@ -0,0 +1,27 @@
+/**
+ * SudokuSearchStatus enum
+ * 
+ * The outcome of a search that runs under a SudokuSearchBudget. A search that
+ * stops because of its budget reports BUDGET_EXCEEDED or CANCELLED instead of
+ * a result, so that callers never mistake an unfinished search for a board
+ * without a solution.
+ */
+public enum SudokuSearchStatus
+{
+    /**
+     * The search finished and produced its result.
+     */
+    COMPLETED,
+    /**
+     * The search finished and the board has no solution.
+     */
+    NO_SOLUTION,
+    /**
+     * The search ran out of nodes or passed its deadline.
+     */
+    BUDGET_EXCEEDED,
+    /**
+     * The search was stopped through SudokuSearchBudget.cancel.
+     */
+    CANCELLED
+}
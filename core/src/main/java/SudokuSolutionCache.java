@@ -0,0 +1,262 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SudokuSolutionCache class
+ * 
+ * Remembers the solutions of recently solved boards, so solving a popular
+ * board again (the daily puzzle, a shared link) is a hash lookup instead of a
+ * search. Boards are keyed by SudokuBoardKey. Boards without a solution are
+ * remembered too; results cut short by a budget are not.
+ * 
+ * The cache is split into segments by key hash, each a LinkedHashMap in access
+ * order behind its own lock, so threads working on different boards rarely
+ * contend. Each segment holds at most its share of the capacity and evicts its
+ * least recently used board when full. The search for a missing board runs
+ * outside the lock; two threads that miss on the same board at once both
+ * solve it.
+ * 
+ * The cache is for boards with the classic rules.
+ */
+public final class SudokuSolutionCache
+{
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    private static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+    private static final int SEGMENT_COUNT = 16;
+    // Marks a board that has no solution.
+    private static final byte[] NO_SOLUTION = new byte[0];
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final SudokuSolverEngine engine;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache of DEFAULT_CAPACITY boards.
+     */
+    public SudokuSolutionCache()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a cache that holds at most the given number of boards.
+     * 
+     * @param capacity the maximum number of boards, at least SEGMENT_COUNT.
+     */
+    public SudokuSolutionCache(int capacity)
+    {
+        this(capacity, SudokuSolverEngines.getDefault());
+    }
+
+    /**
+     * Create a cache that solves missing boards with the given engine.
+     * 
+     * @param capacity the maximum number of boards, at least SEGMENT_COUNT.
+     * @param engine   the engine that solves the boards not in the cache.
+     */
+    public SudokuSolutionCache(int capacity, SudokuSolverEngine engine)
+    {
+        if (capacity < SEGMENT_COUNT)
+        {
+            throw new IllegalArgumentException("capacity must be at least " + SEGMENT_COUNT + ": " + capacity);
+        }
+        this.capacity = capacity;
+        this.engine = engine;
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++)
+        {
+            // Spread the remainder over the first segments.
+            segments[i] = new Segment(capacity / SEGMENT_COUNT + (i < capacity % SEGMENT_COUNT ? 1 : 0));
+        }
+    }
+
+    /**
+     * Solve the board, or copy its solution from the cache.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @return boolean that determines whether the board could be completed.
+     */
+    public boolean solve(int[][] gameBoard, int[][] solution)
+    {
+        return solve(gameBoard, solution, null) == SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Solve the board under a budget, or copy its solution from the cache. A
+     * cached result costs no budget. The solution array is only written when
+     * the result is COMPLETED.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget)
+    {
+        SudokuBoardKey key = SudokuBoardKey.of(gameBoard);
+        Segment segment = segmentOf(key);
+        byte[] cached = segment.get(key);
+        if (cached != null)
+        {
+            hits.increment();
+            if (cached == NO_SOLUTION)
+            {
+                return SudokuSearchStatus.NO_SOLUTION;
+            }
+            for (int row = 0; row < GRID_SIZE; row++)
+            {
+                int[] solutionRow = solution[row];
+                for (int col = 0; col < GRID_SIZE; col++)
+                {
+                    solutionRow[col] = cached[row * GRID_SIZE + col];
+                }
+            }
+            return SudokuSearchStatus.COMPLETED;
+        }
+        misses.increment();
+        SudokuSearchStatus status = engine.solve(gameBoard, solution, budget);
+        if (status == SudokuSearchStatus.COMPLETED)
+        {
+            byte[] packed = new byte[CELL_COUNT];
+            for (int cell = 0; cell < CELL_COUNT; cell++)
+            {
+                packed[cell] = (byte) solution[cell / GRID_SIZE][cell % GRID_SIZE];
+            }
+            segment.put(key, packed);
+        }
+        else if (status == SudokuSearchStatus.NO_SOLUTION)
+        {
+            segment.put(key, NO_SOLUTION);
+        }
+        return status;
+    }
+
+    /**
+     * Remove every board and reset the statistics.
+     */
+    public void clear()
+    {
+        for (Segment segment : segments)
+        {
+            segment.clear();
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of boards in the cache.
+     * 
+     * @return the number of boards.
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Segment segment : segments)
+        {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the share of lookups that found the board.
+     * 
+     * @return the hit rate from 0 to 1, or 0 before the first lookup.
+     */
+    public double getHitRate()
+    {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : hitCount / (double) total;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("SudokuSolutionCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.3f]",
+                size(), capacity, getHits(), getMisses(), getEvictions(), getHitRate());
+    }
+
+    private Segment segmentOf(SudokuBoardKey key)
+    {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * One segment: an access-ordered LinkedHashMap that drops its eldest entry
+     * once it holds more than its capacity.
+     */
+    private final class Segment
+    {
+        private final LinkedHashMap<SudokuBoardKey, byte[]> entries;
+
+        Segment(final int segmentCapacity)
+        {
+            entries = new LinkedHashMap<SudokuBoardKey, byte[]>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<SudokuBoardKey, byte[]> eldest)
+                {
+                    if (size() > segmentCapacity)
+                    {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized byte[] get(SudokuBoardKey key)
+        {
+            return entries.get(key);
+        }
+
+        synchronized void put(SudokuBoardKey key, byte[] value)
+        {
+            entries.put(key, value);
+        }
+
+        synchronized void clear()
+        {
+            entries.clear();
+        }
+
+        synchronized int size()
+        {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * SudokuSolutionSpliterator class
+ * 
+ * Enumerates the solutions of a board one at a time, so a board with millions
+ * of solutions can be counted or sampled without holding them in memory. The
+ * search is the same minimum-remaining-values backtracking as SudokuSolver,
+ * but with an explicit stack instead of recursion, so it can stop after each
+ * solution and resume where it left off.
+ * 
+ * The stack records, for every filled cell, the candidates that have not been
+ * tried yet. trySplit hands half of the untried candidates of the shallowest
+ * cell that has any to a new spliterator, which replays the cells above it on
+ * its own context. Each untried candidate is a whole subtree, so the two halves
+ * never overlap, and splitting near the root gives parallel streams large,
+ * independent pieces of work.
+ * 
+ * A sequential traversal visits the solutions in the same order every time.
+ * After a split the order across the parts is not defined, so the spliterator
+ * does not report ORDERED. The board is copied when the spliterator is created
+ * and never modified.
+ */
+public final class SudokuSolutionSpliterator implements Spliterator<int[][]>
+{
+    private static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    private static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+
+    private final SudokuConstraintModel model;
+    private final int[][] givens;
+    private final SudokuSolverContext context;
+    // The candidates not yet tried and the digit placed at each depth of the stack.
+    private final int[] untried = new int[CELL_COUNT + 1];
+    private final int[] placed = new int[CELL_COUNT + 1];
+    // The shallowest depth this spliterator may change; the cells above it are fixed.
+    private final int base;
+    private int depth;
+    // Whether the cell at the current depth has been chosen and its candidates set.
+    private boolean expanded;
+    private long estimate;
+
+    /**
+     * Create a spliterator over the solutions of a classic board.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     */
+    public SudokuSolutionSpliterator(int[][] gameBoard)
+    {
+        this(SudokuConstraintModel.CLASSIC, gameBoard);
+    }
+
+    /**
+     * Create a spliterator over the solutions of a board of a Sudoku variant.
+     * 
+     * @param model     the rules of the variant.
+     * @param gameBoard the partially filled Sudoku grid.
+     */
+    public SudokuSolutionSpliterator(SudokuConstraintModel model, int[][] gameBoard)
+    {
+        this.model = model;
+        givens = new int[GRID_SIZE][];
+        for (int row = 0; row < GRID_SIZE; row++)
+        {
+            givens[row] = gameBoard[row].clone();
+        }
+        context = new SudokuSolverContext();
+        context.useModel(model);
+        base = 0;
+        estimate = Long.MAX_VALUE;
+        // Givens that already break a rule have no solutions.
+        if (!context.load(givens))
+        {
+            expanded = true;
+        }
+    }
+
+    /**
+     * Create the spliterator for a split: the cells above the given depth hold
+     * the digits the parent placed, and the cell at that depth tries the given
+     * candidates.
+     * 
+     * @param parent     the spliterator that is split.
+     * @param level      the depth of the cell whose candidates are handed over.
+     * @param candidates the candidates handed over.
+     */
+    private SudokuSolutionSpliterator(SudokuSolutionSpliterator parent, int level, int candidates)
+    {
+        model = parent.model;
+        givens = parent.givens;
+        context = new SudokuSolverContext();
+        context.useModel(model);
+        context.load(givens);
+        // The same empty cells, in the order the parent chose them.
+        System.arraycopy(parent.context.emptyCells, 0, context.emptyCells, 0, context.emptyCount);
+        for (int d = 0; d < level; d++)
+        {
+            placed[d] = parent.placed[d];
+            context.place(context.emptyCells[d], placed[d]);
+        }
+        base = level;
+        depth = level;
+        untried[level] = candidates;
+        expanded = true;
+        estimate = parent.estimate;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super int[][]> action)
+    {
+        if (!advance())
+        {
+            return false;
+        }
+        int[][] solution = new int[GRID_SIZE][GRID_SIZE];
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            solution[SudokuSolverContext.ROW_OF[cell]][SudokuSolverContext.COL_OF[cell]] = context.cells[cell];
+        }
+        action.accept(solution);
+        return true;
+    }
+
+    @Override
+    public Spliterator<int[][]> trySplit()
+    {
+        while (true)
+        {
+            if (!expanded)
+            {
+                if (depth == context.emptyCount)
+                {
+                    return null;
+                }
+                expand();
+            }
+            for (int level = base; level <= depth; level++)
+            {
+                int candidates = untried[level];
+                int count = Integer.bitCount(candidates);
+                // Above the current depth this spliterator still owns the subtree of
+                // the placed digit, so it may hand over every untried candidate.
+                if (count >= 2 || (count == 1 && level < depth))
+                {
+                    int handed = candidates;
+                    for (int i = 0; i < count / 2; i++)
+                    {
+                        handed &= handed - 1;
+                    }
+                    untried[level] = candidates ^ handed;
+                    estimate >>>= 1;
+                    return new SudokuSolutionSpliterator(this, level, handed);
+                }
+            }
+            // Only the current cell is left and it has at most one candidate, so
+            // place it, as the search would, and look for a split further down.
+            if (untried[depth] == 0)
+            {
+                return null;
+            }
+            placed[depth] = untried[depth];
+            untried[depth] = 0;
+            context.place(context.emptyCells[depth], placed[depth]);
+            depth++;
+            expanded = false;
+        }
+    }
+
+    /**
+     * Returns a rough estimate that halves with every split. The number of
+     * solutions is not known until they have all been found.
+     * 
+     * @return the estimated number of remaining solutions.
+     */
+    @Override
+    public long estimateSize()
+    {
+        return estimate;
+    }
+
+    @Override
+    public int characteristics()
+    {
+        return NONNULL | DISTINCT | IMMUTABLE;
+    }
+
+    /**
+     * Run the search until the board is complete or the subtree of this
+     * spliterator is exhausted. The completed board is left in the cells of the
+     * context.
+     * 
+     * @return true if a solution was found.
+     */
+    private boolean advance()
+    {
+        while (true)
+        {
+            if (!expanded)
+            {
+                if (depth == context.emptyCount)
+                {
+                    // Nothing is left to try here, so the next call backtracks.
+                    expanded = true;
+                    untried[depth] = 0;
+                    return true;
+                }
+                expand();
+            }
+            // Go back up past every cell whose candidates have all been tried.
+            while (untried[depth] == 0)
+            {
+                if (depth == base)
+                {
+                    return false;
+                }
+                depth--;
+                context.remove(context.emptyCells[depth], placed[depth]);
+            }
+            int bit = untried[depth] & -untried[depth];
+            untried[depth] ^= bit;
+            placed[depth] = bit;
+            context.place(context.emptyCells[depth], bit);
+            depth++;
+            expanded = false;
+        }
+    }
+
+    /**
+     * Choose the empty cell with the fewest candidates for the current depth,
+     * move it to that position of the empty cells, and set its candidates.
+     */
+    private void expand()
+    {
+        int[] emptyCells = context.emptyCells;
+        int best = depth;
+        int bestMask = 0;
+        int bestCount = SudokuGridGenerator.MAX_NUM + 1;
+        for (int i = depth; i < context.emptyCount; i++)
+        {
+            int mask = context.candidates(emptyCells[i]);
+            int count = Integer.bitCount(mask);
+            if (count < bestCount)
+            {
+                best = i;
+                bestMask = mask;
+                bestCount = count;
+                if (count <= 1)
+                {
+                    break;
+                }
+            }
+        }
+        int cell = emptyCells[best];
+        emptyCells[best] = emptyCells[depth];
+        emptyCells[depth] = cell;
+        untried[depth] = bestMask;
+        expanded = true;
+    }
+}
@@ -0,0 +1,32 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SudokuSolveEvent class
+ * 
+ * A JDK Flight Recorder event for one SudokuSolver.solve call. Like every JFR
+ * event it costs nothing measurable while disabled; enable it with the
+ * sudoku.Solve setting of a recording.
+ */
+@Name("sudoku.Solve")
+@Label("Sudoku Solve")
+@Category("Sudoku")
+@Description("Search for the first solution of a board")
+final class SudokuSolveEvent extends jdk.jfr.Event
+{
+    @Label("Empty Cells")
+    int emptyCells;
+
+    @Label("Nodes")
+    @Description("Digits placed by the search")
+    long nodes;
+
+    @Label("Backtracks")
+    @Description("Digits placed and taken back again")
+    long backtracks;
+
+    @Label("Result")
+    String result;
+}
@@ -0,0 +1,177 @@
+/**
+ * SudokuSolveTrace class
+ * 
+ * A compact record of the place and undo steps taken by SudokuSolver. Each
+ * step is packed into a single int (the cell index in the low bits and the
+ * digit placed above it, with 0 meaning the cell was emptied again) and stored
+ * in a ring buffer of fixed size. Once the buffer is full the oldest steps are
+ * dropped, but they are folded into a start board first, so the retained steps
+ * can always be replayed exactly from getStartBoard.
+ * 
+ * A trace is filled by one solver thread and may be read by another thread
+ * once the solve has returned.
+ */
+public final class SudokuSolveTrace
+{
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int CELL_BITS = 7;
+    private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+
+    private final int[] events;
+    private final int indexMask;
+    private final int[] startBoard;
+    private long recorded;
+
+    /**
+     * Create a trace that holds DEFAULT_CAPACITY steps.
+     */
+    public SudokuSolveTrace()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a trace that holds at least the given number of steps. The
+     * capacity is rounded up to a power of two.
+     * 
+     * @param capacity the minimum number of steps to keep.
+     */
+    public SudokuSolveTrace(int capacity)
+    {
+        if (capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+        {
+            size <<= 1;
+        }
+        events = new int[size];
+        indexMask = size - 1;
+        startBoard = new int[SudokuSolverContext.CELL_COUNT];
+    }
+
+    /**
+     * Clear the trace and remember the board the search starts from.
+     * 
+     * @param cells the flattened board before the first step.
+     */
+    void reset(int[] cells)
+    {
+        System.arraycopy(cells, 0, startBoard, 0, SudokuSolverContext.CELL_COUNT);
+        recorded = 0;
+    }
+
+    /**
+     * Clear the trace and record the placements that lead from a board to its
+     * solution, cell by cell in row-major order, for solvers that cannot trace
+     * their own search.
+     * 
+     * @param gameBoard the board the search starts from.
+     * @param solution  the completed board, or null to record no steps.
+     */
+    void recordSolution(int[][] gameBoard, int[][] solution)
+    {
+        recorded = 0;
+        for (int cell = 0; cell < SudokuSolverContext.CELL_COUNT; cell++)
+        {
+            startBoard[cell] = gameBoard[SudokuSolverContext.ROW_OF[cell]][SudokuSolverContext.COL_OF[cell]];
+        }
+        for (int cell = 0; solution != null && cell < SudokuSolverContext.CELL_COUNT; cell++)
+        {
+            if (startBoard[cell] == SudokuGridGenerator.EMPTY_SQUARE)
+            {
+                record(cell, solution[SudokuSolverContext.ROW_OF[cell]][SudokuSolverContext.COL_OF[cell]]);
+            }
+        }
+    }
+
+    /**
+     * Record that a digit was placed in a cell, or that the cell was emptied.
+     * 
+     * @param cell  the flattened cell index.
+     * @param digit the digit placed, or EMPTY_SQUARE for an undo.
+     */
+    void record(int cell, int digit)
+    {
+        int slot = (int) recorded & indexMask;
+        if (recorded > indexMask)
+        {
+            // Fold the step that is about to be overwritten into the start board.
+            int dropped = events[slot];
+            startBoard[dropped & CELL_MASK] = dropped >>> CELL_BITS;
+        }
+        events[slot] = cell | (digit << CELL_BITS);
+        recorded++;
+    }
+
+    /**
+     * Returns the number of steps that can be replayed.
+     * 
+     * @return the number of retained steps.
+     */
+    public int size()
+    {
+        return (int) Math.min(recorded, events.length);
+    }
+
+    /**
+     * Returns the number of steps recorded, including the dropped ones.
+     * 
+     * @return the total number of steps.
+     */
+    public long getRecorded()
+    {
+        return recorded;
+    }
+
+    /**
+     * Returns a retained step, counted from the oldest one.
+     * 
+     * @param index the position of the step, from 0 to size() - 1.
+     * @return the packed step.
+     */
+    public int getEvent(int index)
+    {
+        if (index < 0 || index >= size())
+        {
+            throw new IndexOutOfBoundsException("event " + index + " of " + size());
+        }
+        long first = recorded - size();
+        return events[(int) (first + index) & indexMask];
+    }
+
+    /**
+     * Copy the board the retained steps start from.
+     * 
+     * @param cells a flattened board of 81 entries that receives the board.
+     */
+    public void getStartBoard(int[] cells)
+    {
+        System.arraycopy(startBoard, 0, cells, 0, SudokuSolverContext.CELL_COUNT);
+    }
+
+    /**
+     * Returns the flattened cell index of a packed step.
+     * 
+     * @param event the packed step.
+     * @return the cell index, row * 9 + column.
+     */
+    public static int eventCell(int event)
+    {
+        return event & CELL_MASK;
+    }
+
+    /**
+     * Returns the digit of a packed step.
+     * 
+     * @param event the packed step.
+     * @return the digit placed, or EMPTY_SQUARE for an undo.
+     */
+    public static int eventDigit(int event)
+    {
+        return event >>> CELL_BITS;
+    }
+}
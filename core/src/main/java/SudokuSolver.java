@@ -0,0 +1,408 @@
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * SudokuSolver class
+ * 
+ * A stateless solver that can be called from any number of threads at once.
+ * Unlike SudokuGridGenerator.populateRemainingBoard, the solver never modifies
+ * the board it is given. All scratch state lives in a SudokuSolverContext that
+ * is confined to the calling thread and reused for every solve on that thread,
+ * so solving needs no locking and does not allocate.
+ * 
+ * Boards follow the classic rules unless a SudokuConstraintModel is passed, in
+ * which case the same search handles diagonal, jigsaw, and killer variants.
+ * 
+ * Every method has a variant that runs under a SudokuSearchBudget. Those
+ * variants stop once the budget runs out or is cancelled and report that
+ * through a distinct result, which makes them safe to use on untrusted boards.
+ * 
+ * While a flight recording is running, solve and countSolutions emit the
+ * sudoku.Solve and sudoku.UniquenessCheck events, each of which can be
+ * enabled or disabled in the recording settings.
+ */
+public final class SudokuSolver
+{
+    /**
+     * Returned by countSolutions when the budget ran out before counting
+     * finished.
+     */
+    public static final int BUDGET_EXCEEDED = -1;
+    /**
+     * Returned by countSolutions when the budget was cancelled before counting
+     * finished.
+     */
+    public static final int CANCELLED = -2;
+
+    // An anonymous subclass rather than ThreadLocal.withInitial, so that the first
+    // solve does not pay for bootstrapping a lambda.
+    private static final ThreadLocal<SudokuSolverContext> CONTEXTS = new ThreadLocal<SudokuSolverContext>()
+    {
+        @Override
+        protected SudokuSolverContext initialValue()
+        {
+            return new SudokuSolverContext();
+        }
+    };
+
+    private SudokuSolver()
+    {
+    }
+
+    /**
+     * Solve the Sudoku board and write the first solution found into the
+     * solution array. The game board is left unchanged. The same array may be
+     * passed for both arguments to solve the board in place.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @return boolean that determines whether the board could be completed.
+     */
+    public static boolean solve(int[][] gameBoard, int[][] solution)
+    {
+        return solve(gameBoard, solution, null) == SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Solve the Sudoku board under a budget. The solution array is only written
+     * when the result is COMPLETED.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public static SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget)
+    {
+        return solve(gameBoard, solution, budget, null);
+    }
+
+    /**
+     * Solve the Sudoku board under a budget and record every step of the
+     * search in the trace, so that the search can be replayed later.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @param trace     the trace that receives the steps, or null.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public static SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget,
+            SudokuSolveTrace trace)
+    {
+        return solve(SudokuConstraintModel.CLASSIC, gameBoard, solution, budget, trace);
+    }
+
+    /**
+     * Solve a board of a Sudoku variant under a budget.
+     * 
+     * @param model     the rules of the variant.
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public static SudokuSearchStatus solve(SudokuConstraintModel model, int[][] gameBoard, int[][] solution,
+            SudokuSearchBudget budget)
+    {
+        return solve(model, gameBoard, solution, budget, null);
+    }
+
+    private static SudokuSearchStatus solve(SudokuConstraintModel model, int[][] gameBoard, int[][] solution,
+            SudokuSearchBudget budget, SudokuSolveTrace trace)
+    {
+        SudokuSolverContext context = CONTEXTS.get();
+        // Loading an event class sets up the flight recorder, which takes longer
+        // than most solves, so nothing is recorded until a recording has started.
+        if (!FlightRecorder.isInitialized())
+        {
+            return solve(context, model, gameBoard, solution, budget, trace);
+        }
+        SudokuSolveEvent event = new SudokuSolveEvent();
+        event.begin();
+        SudokuSearchStatus status = solve(context, model, gameBoard, solution, budget, trace);
+        event.end();
+        if (event.shouldCommit())
+        {
+            boolean solved = status == SudokuSearchStatus.COMPLETED;
+            event.emptyCells = context.emptyCount;
+            event.nodes = context.nodes;
+            event.backtracks = context.nodes - (solved ? context.emptyCount : 0);
+            event.result = status.name();
+            event.commit();
+        }
+        return status;
+    }
+
+    private static SudokuSearchStatus solve(SudokuSolverContext context, SudokuConstraintModel model,
+            int[][] gameBoard, int[][] solution, SudokuSearchBudget budget, SudokuSolveTrace trace)
+    {
+        context.useModel(model);
+        if (!context.load(gameBoard))
+        {
+            return SudokuSearchStatus.NO_SOLUTION;
+        }
+        context.begin(budget);
+        if (trace != null)
+        {
+            trace.reset(context.cells);
+            context.trace = trace;
+        }
+        context.solutionLimit = 1;
+        context.search(0);
+        SudokuSearchStatus stopStatus = context.finish();
+        if (stopStatus != null)
+        {
+            return stopStatus;
+        }
+        if (context.solutionCount == 0)
+        {
+            return SudokuSearchStatus.NO_SOLUTION;
+        }
+        context.storeSolution(solution);
+        return SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Solve the Sudoku board under a budget by filling the cells row by row and
+     * trying the digits from 1 to 9, the order of populateRemainingBoard. This
+     * order is far slower than solve on some boards and is mainly useful for
+     * comparing the two.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    public static SudokuSearchStatus solveRowMajor(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget)
+    {
+        return solveInOrder(SudokuConstraintModel.CLASSIC, gameBoard, solution, budget, null);
+    }
+
+    /**
+     * Solve a board with one of the alternative search orders used by
+     * SudokuPortfolioSolver. With a random generator the search branches on the
+     * cell with the fewest candidates and tries them in random order; without
+     * one it fills the cells row by row, trying the digits from 1 to 9.
+     * 
+     * @param model     the rules of the variant.
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @param random    the random generator for the candidate order, or null
+     *                  for the row-major order.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    static SudokuSearchStatus solveInOrder(SudokuConstraintModel model, int[][] gameBoard, int[][] solution,
+            SudokuSearchBudget budget, SplittableRandom random)
+    {
+        SudokuSolverContext context = CONTEXTS.get();
+        context.useModel(model);
+        if (!context.load(gameBoard))
+        {
+            return SudokuSearchStatus.NO_SOLUTION;
+        }
+        context.begin(budget);
+        boolean filled = random == null ? context.fillInOrder(0) : context.fillRandom(0, random);
+        SudokuSearchStatus stopStatus = context.finish();
+        if (stopStatus != null)
+        {
+            return stopStatus;
+        }
+        if (!filled)
+        {
+            return SudokuSearchStatus.NO_SOLUTION;
+        }
+        System.arraycopy(context.cells, 0, context.solution, 0, SudokuSolverContext.CELL_COUNT);
+        context.storeSolution(solution);
+        return SudokuSearchStatus.COMPLETED;
+    }
+
+    /**
+     * Count the solutions of the Sudoku board, stopping once the limit is
+     * reached.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param limit     the maximum number of solutions to count.
+     * @return the number of solutions found, never more than the limit.
+     */
+    public static int countSolutions(int[][] gameBoard, int limit)
+    {
+        return countSolutions(gameBoard, limit, null);
+    }
+
+    /**
+     * Count the solutions of the Sudoku board under a budget, stopping once the
+     * limit is reached.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param limit     the maximum number of solutions to count.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return the number of solutions found, never more than the limit, or
+     *         BUDGET_EXCEEDED or CANCELLED if the budget stopped the count.
+     */
+    public static int countSolutions(int[][] gameBoard, int limit, SudokuSearchBudget budget)
+    {
+        return countSolutions(SudokuConstraintModel.CLASSIC, gameBoard, limit, budget);
+    }
+
+    /**
+     * Count the solutions of a board of a Sudoku variant under a budget,
+     * stopping once the limit is reached.
+     * 
+     * @param model     the rules of the variant.
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param limit     the maximum number of solutions to count.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return the number of solutions found, never more than the limit, or
+     *         BUDGET_EXCEEDED or CANCELLED if the budget stopped the count.
+     */
+    public static int countSolutions(SudokuConstraintModel model, int[][] gameBoard, int limit,
+            SudokuSearchBudget budget)
+    {
+        return countSolutions(model, gameBoard, limit, budget, null);
+    }
+
+    /**
+     * Count the solutions of the Sudoku board under a budget, reusing the
+     * results of earlier counts that were stored in a transposition table.
+     * Sharing one table between counts of closely related boards, such as the
+     * uniqueness checks while clues are removed, lets later counts skip
+     * subtrees that earlier counts already explored.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param limit     the maximum number of solutions to count.
+     * @param budget    the budget for the search, or null for no limits.
+     * @param table     the transposition table to read and fill, or null.
+     * @return the number of solutions found, never more than the limit, or
+     *         BUDGET_EXCEEDED or CANCELLED if the budget stopped the count.
+     */
+    public static int countSolutions(int[][] gameBoard, int limit, SudokuSearchBudget budget,
+            SudokuTranspositionTable table)
+    {
+        return countSolutions(SudokuConstraintModel.CLASSIC, gameBoard, limit, budget, table);
+    }
+
+    /**
+     * Count the solutions of a board of a Sudoku variant under a budget, using
+     * a transposition table. A table may only be used with one model.
+     * 
+     * @param model     the rules of the variant.
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param limit     the maximum number of solutions to count.
+     * @param budget    the budget for the search, or null for no limits.
+     * @param table     the transposition table to read and fill, or null.
+     * @return the number of solutions found, never more than the limit, or
+     *         BUDGET_EXCEEDED or CANCELLED if the budget stopped the count.
+     */
+    public static int countSolutions(SudokuConstraintModel model, int[][] gameBoard, int limit,
+            SudokuSearchBudget budget, SudokuTranspositionTable table)
+    {
+        SudokuSolverContext context = CONTEXTS.get();
+        if (!FlightRecorder.isInitialized())
+        {
+            return countSolutions(context, model, gameBoard, limit, budget, table);
+        }
+        SudokuUniquenessCheckEvent event = new SudokuUniquenessCheckEvent();
+        event.begin();
+        int solutions = countSolutions(context, model, gameBoard, limit, budget, table);
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.emptyCells = context.emptyCount;
+            event.limit = limit;
+            event.solutions = solutions;
+            event.nodes = context.nodes;
+            event.tableUsed = table != null;
+            event.commit();
+        }
+        return solutions;
+    }
+
+    private static int countSolutions(SudokuSolverContext context, SudokuConstraintModel model, int[][] gameBoard,
+            int limit, SudokuSearchBudget budget, SudokuTranspositionTable table)
+    {
+        if (table != null)
+        {
+            table.bind(model);
+        }
+        context.useModel(model);
+        if (limit <= 0 || !context.load(gameBoard))
+        {
+            return 0;
+        }
+        context.begin(budget);
+        context.solutionLimit = limit;
+        if (table == null)
+        {
+            context.search(0);
+        }
+        else
+        {
+            context.search(table);
+        }
+        SudokuSearchStatus stopStatus = context.finish();
+        if (stopStatus == SudokuSearchStatus.CANCELLED)
+        {
+            return CANCELLED;
+        }
+        if (stopStatus != null)
+        {
+            return BUDGET_EXCEEDED;
+        }
+        return context.solutionCount;
+    }
+
+    /**
+     * Returns the nodes used by all searches that have finished on the calling
+     * thread. The difference between two calls is the work done in between,
+     * without passing a budget.
+     * 
+     * @return the running total of nodes of this thread.
+     */
+    static long threadNodes()
+    {
+        return CONTEXTS.get().finishedNodes;
+    }
+
+    /**
+     * Returns a lazy stream of every solution of the Sudoku board. Solutions are
+     * found as the stream is consumed, so limit or findAny stop the search
+     * early, and count visits each solution without keeping it. A parallel
+     * stream splits the search tree between threads. The board is copied, so
+     * changing it afterwards does not affect the stream.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @return a stream of new 2D arrays, one per solution.
+     */
+    public static Stream<int[][]> solutions(int[][] gameBoard)
+    {
+        return solutions(SudokuConstraintModel.CLASSIC, gameBoard);
+    }
+
+    /**
+     * Returns a lazy stream of every solution of a board of a Sudoku variant.
+     * 
+     * @param model     the rules of the variant.
+     * @param gameBoard the partially filled Sudoku grid.
+     * @return a stream of new 2D arrays, one per solution.
+     */
+    public static Stream<int[][]> solutions(SudokuConstraintModel model, int[][] gameBoard)
+    {
+        return StreamSupport.stream(new SudokuSolutionSpliterator(model, gameBoard), false);
+    }
+
+    /**
+     * Determine whether the Sudoku board has exactly one solution.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @return boolean that determines whether the solution is unique.
+     */
+    public static boolean isUnique(int[][] gameBoard)
+    {
+        return countSolutions(gameBoard, 2) == 1;
+    }
+}
@@ -0,0 +1,628 @@
+import java.util.SplittableRandom;
+
+/**
+ * SudokuSolverContext class
+ * 
+ * Scratch state for a single solve. A context holds the flattened board, one
+ * candidate mask per unit of the SudokuConstraintModel in use, the running
+ * totals of any killer cages, and the stack of empty cells used by the search.
+ * Contexts are never shared between threads; SudokuSolver hands out one
+ * context per thread and reuses it for every solve on that thread, so a solve
+ * does not allocate once the context exists.
+ * 
+ * Digits are stored as bits in the masks: digit d is bit (d - 1), so a mask of
+ * ALL_DIGITS means every digit from 1 to 9 is already used in that unit.
+ */
+final class SudokuSolverContext
+{
+    static final int CELL_COUNT = SudokuGridGenerator.BOARD_SIZE * SudokuGridGenerator.BOARD_SIZE;
+    static final int ALL_DIGITS = (1 << SudokuGridGenerator.MAX_NUM) - 1;
+
+    // Precomputed row and column index for every cell.
+    static final int[] ROW_OF = new int[CELL_COUNT];
+    static final int[] COL_OF = new int[CELL_COUNT];
+
+    // One random key per cell and digit, for the Zobrist hash of the board.
+    static final long[] ZOBRIST = new long[CELL_COUNT * SudokuGridGenerator.MAX_NUM];
+
+    static
+    {
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            ROW_OF[cell] = cell / SudokuGridGenerator.BOARD_SIZE;
+            COL_OF[cell] = cell % SudokuGridGenerator.BOARD_SIZE;
+        }
+        // A fixed seed keeps hashes identical across runs, which helps when debugging.
+        SplittableRandom random = new SplittableRandom(0x5EED_50D0_4B00L);
+        for (int i = 0; i < ZOBRIST.length; i++)
+        {
+            ZOBRIST[i] = random.nextLong();
+        }
+    }
+
+    final int[] cells = new int[CELL_COUNT];
+    final int[] solution = new int[CELL_COUNT];
+    SudokuConstraintModel model = SudokuConstraintModel.CLASSIC;
+    int[] regionUnit = model.regionUnit;
+    int[][] extraUnits = model.extraUnits;
+    boolean hasExtraUnits = model.hasExtraUnits;
+    int[] cageOf = model.cageOf;
+    int[] unitMask = new int[model.getUnitCount()];
+    int[] cageUsed = new int[0];
+    int[] cageTotal = new int[0];
+    int[] cageFilled = new int[0];
+    final int[] emptyCells = new int[CELL_COUNT];
+    int emptyCount;
+    int solutionCount;
+    int solutionLimit;
+    long nodes;
+    // Nodes of every finished search of this context, for the engine statistics.
+    long finishedNodes;
+    long nodeLimit;
+    SudokuSearchBudget budget;
+    SudokuSearchStatus stopStatus;
+    SudokuSolveTrace trace;
+    // Zobrist hash of the givens, built up clue by clue as the board is loaded.
+    long hash;
+
+    /**
+     * Load a board into the context and reset all counters. The board is copied,
+     * so the caller's array is never modified by the search.
+     * 
+     * @param gameBoard a 2D array representing the game grid.
+     * @return false if the givens already break a rule of the model.
+     */
+    boolean load(int[][] gameBoard)
+    {
+        clearMasks();
+        hash = 0;
+        emptyCount = 0;
+        solutionCount = 0;
+        nodes = 0;
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            int val = gameBoard[ROW_OF[cell]][COL_OF[cell]];
+            if (val == SudokuGridGenerator.EMPTY_SQUARE)
+            {
+                cells[cell] = SudokuGridGenerator.EMPTY_SQUARE;
+                emptyCells[emptyCount++] = cell;
+            }
+            else
+            {
+                if (val < SudokuGridGenerator.MIN_NUM || val > SudokuGridGenerator.MAX_NUM)
+                {
+                    return false;
+                }
+                int bit = 1 << (val - 1);
+                if ((candidates(cell) & bit) == 0)
+                {
+                    return false;
+                }
+                place(cell, bit);
+                hash ^= ZOBRIST[cell * SudokuGridGenerator.MAX_NUM + val - 1];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Switch the context to another constraint model. The unit and cage arrays
+     * only grow, so switching back and forth between models does not allocate
+     * after the first time.
+     * 
+     * @param newModel the model to use for the following loads.
+     */
+    void useModel(SudokuConstraintModel newModel)
+    {
+        if (newModel == model)
+        {
+            return;
+        }
+        model = newModel;
+        regionUnit = newModel.regionUnit;
+        extraUnits = newModel.extraUnits;
+        hasExtraUnits = newModel.hasExtraUnits;
+        cageOf = newModel.cageOf;
+        if (unitMask.length < newModel.getUnitCount())
+        {
+            unitMask = new int[newModel.getUnitCount()];
+        }
+        if (cageUsed.length < newModel.getCageCount())
+        {
+            cageUsed = new int[newModel.getCageCount()];
+            cageTotal = new int[newModel.getCageCount()];
+            cageFilled = new int[newModel.getCageCount()];
+        }
+    }
+
+    /**
+     * Reset the unit masks and cage totals of the current model.
+     */
+    private void clearMasks()
+    {
+        for (int unit = 0; unit < model.getUnitCount(); unit++)
+        {
+            unitMask[unit] = 0;
+        }
+        for (int cage = 0; cage < model.getCageCount(); cage++)
+        {
+            cageUsed[cage] = 0;
+            cageTotal[cage] = 0;
+            cageFilled[cage] = 0;
+        }
+    }
+
+    /**
+     * Start a search under the given budget. Must be called after the board is
+     * loaded, since loading resets the node counter.
+     * 
+     * @param searchBudget the budget to run under, or null for no limits.
+     */
+    void begin(SudokuSearchBudget searchBudget)
+    {
+        budget = searchBudget;
+        stopStatus = null;
+        nodeLimit = searchBudget == null ? SudokuSearchBudget.UNLIMITED_NODES : searchBudget.remainingNodes();
+        if (searchBudget != null)
+        {
+            stopStatus = searchBudget.check(0);
+        }
+    }
+
+    /**
+     * Finish a search and charge the nodes it used to its budget.
+     * 
+     * @return null if the search ran to the end, otherwise the reason it stopped.
+     */
+    SudokuSearchStatus finish()
+    {
+        finishedNodes += nodes;
+        if (budget != null)
+        {
+            budget.charge(nodes);
+            budget = null;
+        }
+        trace = null;
+        return stopStatus;
+    }
+
+    /**
+     * Count one node and determine whether the budget stops the search. The
+     * node limit is checked every time, the deadline and cancel flag only every
+     * CHECK_INTERVAL nodes.
+     * 
+     * @return true if the search must stop.
+     */
+    boolean stopAtNode()
+    {
+        nodes++;
+        if (stopStatus != null)
+        {
+            return true;
+        }
+        if (nodes > nodeLimit)
+        {
+            stopStatus = SudokuSearchStatus.BUDGET_EXCEEDED;
+            return true;
+        }
+        if (budget != null && (nodes & (SudokuSearchBudget.CHECK_INTERVAL - 1)) == 0)
+        {
+            stopStatus = budget.check(nodes);
+            return stopStatus != null;
+        }
+        return false;
+    }
+
+    /**
+     * Clear the board and all counters so that every cell is empty.
+     */
+    void clear()
+    {
+        clearMasks();
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            cells[cell] = SudokuGridGenerator.EMPTY_SQUARE;
+        }
+        hash = 0;
+        emptyCount = 0;
+        solutionCount = 0;
+        nodes = 0;
+        stopStatus = null;
+    }
+
+    /**
+     * Rebuild the stack of empty cells from the current board.
+     */
+    void collectEmptyCells()
+    {
+        emptyCount = 0;
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            if (cells[cell] == SudokuGridGenerator.EMPTY_SQUARE)
+            {
+                emptyCells[emptyCount++] = cell;
+            }
+        }
+    }
+
+    /**
+     * Copy the first solution found into the given board.
+     * 
+     * @param gameBoard the 2D array that receives the solution.
+     */
+    void storeSolution(int[][] gameBoard)
+    {
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            gameBoard[ROW_OF[cell]][COL_OF[cell]] = solution[cell];
+        }
+    }
+
+    /**
+     * Determine which digits can still be placed in the cell: the digits not
+     * used in any of its units and, if the cell is in a killer cage, that can
+     * still complete the cage sum.
+     * 
+     * @param cell the flattened cell index.
+     * @return a mask of the digits that are still available.
+     */
+    int candidates(int cell)
+    {
+        // Rows are units 0 to 8 and columns units 9 to 17 in every model.
+        int used = unitMask[ROW_OF[cell]] | unitMask[SudokuGridGenerator.BOARD_SIZE + COL_OF[cell]]
+                | unitMask[regionUnit[cell]];
+        if (!hasExtraUnits)
+        {
+            return ~used & ALL_DIGITS;
+        }
+        int[] units = extraUnits[cell];
+        for (int i = 0; i < units.length; i++)
+        {
+            used |= unitMask[units[i]];
+        }
+        int mask = ~used & ALL_DIGITS;
+        int cage = cageOf[cell];
+        if (cage >= 0)
+        {
+            mask &= cageCandidates(cage);
+        }
+        return mask;
+    }
+
+    /**
+     * Determine the digits that can still appear in a cage: every unused digit
+     * that is part of some set of distinct unused digits which fills the empty
+     * cells of the cage and adds up to the rest of the sum.
+     * 
+     * @param cage the cage index.
+     * @return a mask of the digits that can complete the cage.
+     */
+    private int cageCandidates(int cage)
+    {
+        int left = model.cageSize[cage] - cageFilled[cage];
+        int sumLeft = model.cageSum[cage] - cageTotal[cage];
+        if (left <= 0 || sumLeft <= 0 || sumLeft >= SudokuConstraintModel.SUM_SUBSETS[left].length)
+        {
+            return 0;
+        }
+        int used = cageUsed[cage];
+        int mask = 0;
+        for (int subset : SudokuConstraintModel.SUM_SUBSETS[left][sumLeft])
+        {
+            if ((subset & used) == 0)
+            {
+                mask |= subset;
+            }
+        }
+        return mask;
+    }
+
+    void place(int cell, int bit)
+    {
+        int digit = Integer.numberOfTrailingZeros(bit) + 1;
+        cells[cell] = digit;
+        unitMask[ROW_OF[cell]] |= bit;
+        unitMask[SudokuGridGenerator.BOARD_SIZE + COL_OF[cell]] |= bit;
+        unitMask[regionUnit[cell]] |= bit;
+        if (!hasExtraUnits)
+        {
+            return;
+        }
+        int[] units = extraUnits[cell];
+        for (int i = 0; i < units.length; i++)
+        {
+            unitMask[units[i]] |= bit;
+        }
+        int cage = cageOf[cell];
+        if (cage >= 0)
+        {
+            cageUsed[cage] |= bit;
+            cageTotal[cage] += digit;
+            cageFilled[cage]++;
+        }
+    }
+
+    void remove(int cell, int bit)
+    {
+        cells[cell] = SudokuGridGenerator.EMPTY_SQUARE;
+        unitMask[ROW_OF[cell]] &= ~bit;
+        unitMask[SudokuGridGenerator.BOARD_SIZE + COL_OF[cell]] &= ~bit;
+        unitMask[regionUnit[cell]] &= ~bit;
+        if (!hasExtraUnits)
+        {
+            return;
+        }
+        int[] units = extraUnits[cell];
+        for (int i = 0; i < units.length; i++)
+        {
+            unitMask[units[i]] &= ~bit;
+        }
+        int cage = cageOf[cell];
+        if (cage >= 0)
+        {
+            cageUsed[cage] &= ~bit;
+            cageTotal[cage] -= Integer.numberOfTrailingZeros(bit) + 1;
+            cageFilled[cage]--;
+        }
+    }
+
+    /**
+     * Search the remaining empty cells, always branching on the cell with the
+     * fewest candidates. The search stops once solutionLimit solutions have been
+     * found or the budget stops the search; the first solution is kept in the
+     * solution array. If a trace is set, every place and undo is recorded in it,
+     * except the undo steps taken after the search has finished.
+     * 
+     * @param depth the number of empty cells that have already been filled.
+     * @return true if the solution limit was reached or the search was stopped.
+     */
+    boolean search(int depth)
+    {
+        if (depth == emptyCount)
+        {
+            if (solutionCount == 0)
+            {
+                System.arraycopy(cells, 0, solution, 0, CELL_COUNT);
+            }
+            solutionCount++;
+            return solutionCount >= solutionLimit;
+        }
+        // Pick the empty cell with the fewest candidates.
+        int best = depth;
+        int bestMask = 0;
+        int bestCount = SudokuGridGenerator.MAX_NUM + 1;
+        for (int i = depth; i < emptyCount; i++)
+        {
+            int mask = candidates(emptyCells[i]);
+            int count = Integer.bitCount(mask);
+            if (count < bestCount)
+            {
+                best = i;
+                bestMask = mask;
+                bestCount = count;
+                if (count <= 1)
+                {
+                    break;
+                }
+            }
+        }
+        if (bestCount == 0)
+        {
+            return false;
+        }
+        return branchOn(depth, best, bestMask);
+    }
+
+    /**
+     * Count solutions like search(0), reusing and filling a transposition
+     * table. The loaded board is looked up first. If it is not known, the root
+     * branches on a cell that has a candidate leading to a known board, if there
+     * is one. When a clue has just been removed from a board whose count is in
+     * the table, putting the clue back gives exactly that board, so its whole
+     * subtree is skipped and only the other candidates of the removed cell are
+     * searched. A board that was searched to the end is then stored.
+     * 
+     * A board found in the table counts its solutions without visiting them,
+     * so the solution array is not valid after this method.
+     * 
+     * @param table the transposition table to read and fill.
+     * @return true if the solution limit was reached or the search was stopped.
+     */
+    boolean search(SudokuTranspositionTable table)
+    {
+        int known = table.probe(hash);
+        if (known >= 0)
+        {
+            // The entry may come from a count with a higher limit.
+            solutionCount = Math.min(solutionLimit, solutionCount + known);
+            return solutionCount >= solutionLimit;
+        }
+        if (emptyCount == 0)
+        {
+            return search(0);
+        }
+        boolean done = false;
+        boolean branched = false;
+        for (int i = 0; i < emptyCount && !branched; i++)
+        {
+            int cell = emptyCells[i];
+            int mask = candidates(cell);
+            for (int rest = mask; rest != 0; rest &= rest - 1)
+            {
+                int bit = rest & -rest;
+                known = table.probe(hash ^ ZOBRIST[cell * SudokuGridGenerator.MAX_NUM
+                        + Integer.numberOfTrailingZeros(bit)]);
+                if (known >= 0)
+                {
+                    solutionCount = Math.min(solutionLimit, solutionCount + known);
+                    done = solutionCount >= solutionLimit || branchOn(0, i, mask ^ bit);
+                    branched = true;
+                    break;
+                }
+            }
+        }
+        if (!branched)
+        {
+            done = search(0);
+        }
+        // Only a board that was searched to the end has a known number of solutions.
+        if (!done && solutionCount <= SudokuTranspositionTable.MAX_COMPLETIONS)
+        {
+            table.store(hash, solutionCount);
+        }
+        return done;
+    }
+
+    /**
+     * Search the given candidates of one empty cell in turn.
+     * 
+     * @param depth the number of empty cells that have already been filled.
+     * @param index the position of the cell in emptyCells, at or after depth.
+     * @param mask  the candidates to try.
+     * @return true if the solution limit was reached or the search was stopped.
+     */
+    private boolean branchOn(int depth, int index, int mask)
+    {
+        int cell = emptyCells[index];
+        emptyCells[index] = emptyCells[depth];
+        emptyCells[depth] = cell;
+        while (mask != 0)
+        {
+            int bit = mask & -mask;
+            mask ^= bit;
+            if (stopAtNode())
+            {
+                return true;
+            }
+            place(cell, bit);
+            if (trace != null)
+            {
+                trace.record(cell, cells[cell]);
+            }
+            boolean done = search(depth + 1);
+            remove(cell, bit);
+            if (done)
+            {
+                return true;
+            }
+            if (trace != null)
+            {
+                trace.record(cell, SudokuGridGenerator.EMPTY_SQUARE);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fill the remaining empty cells with a random valid completion. The search
+     * branches on the cell with the fewest candidates and tries its candidates
+     * in random order. Unlike search, the completed board is left in the cells
+     * array. If the budget stops the fill, the method returns true with
+     * stopStatus set and the board only partly filled.
+     * 
+     * @param depth  the number of empty cells that have already been filled.
+     * @param random the random generator that decides the candidate order.
+     * @return boolean that determines whether the board was completed.
+     */
+    boolean fillRandom(int depth, SplittableRandom random)
+    {
+        if (depth == emptyCount)
+        {
+            return true;
+        }
+        int best = depth;
+        int bestMask = 0;
+        int bestCount = SudokuGridGenerator.MAX_NUM + 1;
+        for (int i = depth; i < emptyCount; i++)
+        {
+            int mask = candidates(emptyCells[i]);
+            int count = Integer.bitCount(mask);
+            if (count < bestCount)
+            {
+                best = i;
+                bestMask = mask;
+                bestCount = count;
+                if (count <= 1)
+                {
+                    break;
+                }
+            }
+        }
+        if (bestCount == 0)
+        {
+            return false;
+        }
+        int cell = emptyCells[best];
+        emptyCells[best] = emptyCells[depth];
+        emptyCells[depth] = cell;
+        while (bestMask != 0)
+        {
+            int bit = randomBit(bestMask, random);
+            bestMask ^= bit;
+            if (stopAtNode())
+            {
+                return true;
+            }
+            place(cell, bit);
+            if (fillRandom(depth + 1, random))
+            {
+                return true;
+            }
+            remove(cell, bit);
+        }
+        return false;
+    }
+
+    /**
+     * Fill the remaining empty cells in the order they were loaded, which is
+     * row-major, trying the candidates of each cell from 1 to 9. This is the
+     * same plain backtracking as populateRemainingBoard; it has no cost for
+     * choosing a cell, so it wins on boards that need little search. Like
+     * fillRandom, the completed board is left in the cells array.
+     * 
+     * @param depth the number of empty cells that have already been filled.
+     * @return boolean that determines whether the board was completed.
+     */
+    boolean fillInOrder(int depth)
+    {
+        if (depth == emptyCount)
+        {
+            return true;
+        }
+        int cell = emptyCells[depth];
+        int mask = candidates(cell);
+        while (mask != 0)
+        {
+            int bit = mask & -mask;
+            mask ^= bit;
+            if (stopAtNode())
+            {
+                return true;
+            }
+            place(cell, bit);
+            if (fillInOrder(depth + 1))
+            {
+                return true;
+            }
+            remove(cell, bit);
+        }
+        return false;
+    }
+
+    /**
+     * Pick one set bit of the mask uniformly at random.
+     * 
+     * @param mask   a non-empty candidate mask.
+     * @param random the random generator used for the choice.
+     * @return a mask with only the chosen bit set.
+     */
+    static int randomBit(int mask, SplittableRandom random)
+    {
+        int skip = random.nextInt(Integer.bitCount(mask));
+        for (int i = 0; i < skip; i++)
+        {
+            mask &= mask - 1;
+        }
+        return mask & -mask;
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * SudokuSolverEngine interface
+ * 
+ * A solver for classic boards that the generator, the game, and the tools
+ * reach through SudokuSolverEngines instead of calling a solver directly, so
+ * the engine can be swapped by configuration. An engine must be safe to call
+ * from any number of threads at once, must never modify the board it is given,
+ * and must charge the nodes it uses to the budget it is given, which is how
+ * its node statistics are collected.
+ * 
+ * Boards of a variant are passed with their SudokuConstraintModel. An engine
+ * that only knows the classic rules need not handle them: the default model
+ * methods hand classic boards to the engine and solve variants with
+ * SudokuSolver.
+ * 
+ * Engines are registered by name. Besides the built-in engines, any engine on
+ * the class path that is listed in META-INF/services/SudokuSolverEngine and has
+ * a public no-argument constructor can be selected.
+ */
+public interface SudokuSolverEngine
+{
+    /**
+     * Returns the name the engine is selected by.
+     * 
+     * @return the name, for example "mrv".
+     */
+    String getName();
+
+    /**
+     * Solve the board under a budget. The solution array is only written when
+     * the result is COMPLETED. The same array may be passed for both arguments
+     * to solve the board in place.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget);
+
+    /**
+     * Count the solutions of the board under a budget, stopping once the limit
+     * is reached. Counts of closely related boards, such as the uniqueness
+     * checks while clues are removed, may share a transposition table; an
+     * engine that has no use for the table ignores it.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param limit     the maximum number of solutions to count.
+     * @param budget    the budget for the search, or null for no limits.
+     * @param table     the transposition table shared by related counts, or
+     *                  null.
+     * @return the number of solutions found, never more than the limit, or
+     *         SudokuSolver.BUDGET_EXCEEDED or SudokuSolver.CANCELLED if the
+     *         budget stopped the count.
+     */
+    int countSolutions(int[][] gameBoard, int limit, SudokuSearchBudget budget, SudokuTranspositionTable table);
+
+    /**
+     * Solve a board of a Sudoku variant under a budget.
+     * 
+     * @param model     the rules of the variant.
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    default SudokuSearchStatus solve(SudokuConstraintModel model, int[][] gameBoard, int[][] solution,
+            SudokuSearchBudget budget)
+    {
+        if (model == SudokuConstraintModel.CLASSIC)
+        {
+            return solve(gameBoard, solution, budget);
+        }
+        return SudokuSolver.solve(model, gameBoard, solution, budget);
+    }
+
+    /**
+     * Count the solutions of a board of a Sudoku variant under a budget,
+     * stopping once the limit is reached. A table may only be used with one
+     * model.
+     * 
+     * @param model     the rules of the variant.
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param limit     the maximum number of solutions to count.
+     * @param budget    the budget for the search, or null for no limits.
+     * @param table     the transposition table shared by related counts, or
+     *                  null.
+     * @return the number of solutions found, never more than the limit, or
+     *         SudokuSolver.BUDGET_EXCEEDED or SudokuSolver.CANCELLED.
+     */
+    default int countSolutions(SudokuConstraintModel model, int[][] gameBoard, int limit, SudokuSearchBudget budget,
+            SudokuTranspositionTable table)
+    {
+        if (model == SudokuConstraintModel.CLASSIC)
+        {
+            return countSolutions(gameBoard, limit, budget, table);
+        }
+        return SudokuSolver.countSolutions(model, gameBoard, limit, budget, table);
+    }
+
+    /**
+     * Solve the board and record the steps of the search in a trace for a
+     * replay. Engines that cannot record their search record the placements of
+     * the solution instead, so the replay shows the board filling in without
+     * the dead ends.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param solution  a 2D array that receives the completed grid.
+     * @param budget    the budget for the search, or null for no limits.
+     * @param trace     the trace that receives the steps.
+     * @return COMPLETED, NO_SOLUTION, BUDGET_EXCEEDED, or CANCELLED.
+     */
+    default SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget,
+            SudokuSolveTrace trace)
+    {
+        SudokuSearchStatus status = solve(gameBoard, solution, budget);
+        trace.recordSolution(gameBoard, status == SudokuSearchStatus.COMPLETED ? solution : null);
+        return status;
+    }
+
+    /**
+     * Count the solutions of the board under a budget without a table.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @param limit     the maximum number of solutions to count.
+     * @param budget    the budget for the search, or null for no limits.
+     * @return the number of solutions found, never more than the limit, or
+     *         SudokuSolver.BUDGET_EXCEEDED or SudokuSolver.CANCELLED.
+     */
+    default int countSolutions(int[][] gameBoard, int limit, SudokuSearchBudget budget)
+    {
+        return countSolutions(gameBoard, limit, budget, null);
+    }
+
+    /**
+     * Determine whether the board has exactly one solution.
+     * 
+     * @param gameBoard the partially filled Sudoku grid.
+     * @return boolean that determines whether the solution is unique.
+     */
+    default boolean isUnique(int[][] gameBoard)
+    {
+        return countSolutions(gameBoard, 2, null) == 1;
+    }
+}
@@ -0,0 +1,393 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SudokuSolverEngines class
+ * 
+ * The registry of solver engines. Every solve and solution count of a classic
+ * or variant board in the generator, the game, and the tools goes through the
+ * engine returned by getDefault, which is chosen once per process by the
+ * sudoku.engine system property, for example -Dsudoku.engine=portfolio.
+ * Running two processes with different engines on the same traffic is
+ * therefore an A/B test that needs no code change.
+ * 
+ * The built-in engines are "mrv", the fewest-candidates search of SudokuSolver
+ * and the default, "row-major", which fills the cells in the order of
+ * populateRemainingBoard and is mainly there for comparison, and "portfolio",
+ * which races several search orders with a SudokuPortfolioSolver. The last two
+ * only change how a board is solved; they count solutions like mrv.
+ * Engines listed in META-INF/services/SudokuSolverEngine are found by name as
+ * well; the service loader is only consulted for a name that is not built in.
+ * 
+ * Every engine handed out is wrapped so that its calls, nodes, and time are
+ * added to a SudokuEngineStatistics. For the built-in searches that run on the
+ * calling thread the nodes are read from that thread's SudokuSolver counter,
+ * so measuring costs no allocation. For the portfolio's solves and for other
+ * engines they are read from a child of the caller's budget, so such an engine
+ * must charge its nodes to the budget it gets.
+ */
+public final class SudokuSolverEngines
+{
+    public static final String ENGINE_PROPERTY = "sudoku.engine";
+    public static final String DEFAULT_ENGINE = "mrv";
+    public static final String ROW_MAJOR_ENGINE = "row-major";
+    public static final String PORTFOLIO_ENGINE = "portfolio";
+
+    private static final Map<String, MeasuredEngine> ENGINES = new ConcurrentHashMap<>();
+
+    // Resolved on first use; forName returns the same engine to racing threads.
+    private static volatile SudokuSolverEngine defaultEngine;
+
+    private SudokuSolverEngines()
+    {
+    }
+
+    /**
+     * Returns the engine selected by the sudoku.engine system property, or the
+     * mrv engine if the property is not set.
+     * 
+     * @return the engine.
+     * @throws IllegalArgumentException if the property names no engine.
+     */
+    public static SudokuSolverEngine getDefault()
+    {
+        SudokuSolverEngine engine = defaultEngine;
+        if (engine == null)
+        {
+            engine = forName(System.getProperty(ENGINE_PROPERTY, DEFAULT_ENGINE));
+            defaultEngine = engine;
+        }
+        return engine;
+    }
+
+    /**
+     * Find an engine by name. The same name always returns the same engine.
+     * 
+     * @param name the name of the engine.
+     * @return the engine, wrapped to collect statistics.
+     * @throws IllegalArgumentException if there is no engine with the name.
+     */
+    public static SudokuSolverEngine forName(String name)
+    {
+        return ENGINES.computeIfAbsent(name, SudokuSolverEngines::create);
+    }
+
+    /**
+     * Returns the names of all engines that can be selected.
+     * 
+     * @return the built-in names, followed by those of the service loader.
+     */
+    public static List<String> getNames()
+    {
+        List<String> names = new ArrayList<>();
+        names.add(DEFAULT_ENGINE);
+        names.add(ROW_MAJOR_ENGINE);
+        names.add(PORTFOLIO_ENGINE);
+        for (SudokuSolverEngine engine : ServiceLoader.load(SudokuSolverEngine.class))
+        {
+            if (!names.contains(engine.getName()))
+            {
+                names.add(engine.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the statistics of an engine.
+     * 
+     * @param name the name of the engine.
+     * @return the statistics, which keep growing as the engine is used.
+     * @throws IllegalArgumentException if there is no engine with the name.
+     */
+    public static SudokuEngineStatistics getStatistics(String name)
+    {
+        forName(name);
+        return ENGINES.get(name).statistics;
+    }
+
+    /**
+     * Returns the statistics of every engine used so far in this process.
+     * 
+     * @return the statistics, one per engine.
+     */
+    public static List<SudokuEngineStatistics> getAllStatistics()
+    {
+        List<SudokuEngineStatistics> all = new ArrayList<>();
+        for (MeasuredEngine engine : ENGINES.values())
+        {
+            all.add(engine.statistics);
+        }
+        return all;
+    }
+
+    private static MeasuredEngine create(String name)
+    {
+        if (name.equals(DEFAULT_ENGINE))
+        {
+            return new MeasuredEngine(new MrvEngine(), true, true);
+        }
+        if (name.equals(ROW_MAJOR_ENGINE))
+        {
+            return new MeasuredEngine(new RowMajorEngine(), true, true);
+        }
+        if (name.equals(PORTFOLIO_ENGINE))
+        {
+            // The racers of a solve run on the portfolio's pool as well.
+            return new MeasuredEngine(new PortfolioEngine(), false, true);
+        }
+        for (SudokuSolverEngine engine : ServiceLoader.load(SudokuSolverEngine.class))
+        {
+            if (engine.getName().equals(name))
+            {
+                return new MeasuredEngine(engine, false, false);
+            }
+        }
+        throw new IllegalArgumentException("unknown solver engine: " + name + ", known engines: " + getNames());
+    }
+
+    /**
+     * The fewest-candidates search of SudokuSolver.
+     */
+    private static final class MrvEngine implements SudokuSolverEngine
+    {
+        @Override
+        public String getName()
+        {
+            return DEFAULT_ENGINE;
+        }
+
+        @Override
+        public SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget)
+        {
+            return SudokuSolver.solve(gameBoard, solution, budget);
+        }
+
+        @Override
+        public SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget,
+                SudokuSolveTrace trace)
+        {
+            return SudokuSolver.solve(gameBoard, solution, budget, trace);
+        }
+
+        @Override
+        public int countSolutions(int[][] gameBoard, int limit, SudokuSearchBudget budget,
+                SudokuTranspositionTable table)
+        {
+            return SudokuSolver.countSolutions(gameBoard, limit, budget, table);
+        }
+
+        @Override
+        public SudokuSearchStatus solve(SudokuConstraintModel model, int[][] gameBoard, int[][] solution,
+                SudokuSearchBudget budget)
+        {
+            return SudokuSolver.solve(model, gameBoard, solution, budget);
+        }
+
+        @Override
+        public int countSolutions(SudokuConstraintModel model, int[][] gameBoard, int limit,
+                SudokuSearchBudget budget, SudokuTranspositionTable table)
+        {
+            return SudokuSolver.countSolutions(model, gameBoard, limit, budget, table);
+        }
+    }
+
+    /**
+     * SudokuSolver.solveRowMajor for solves. A count has to finish the whole
+     * search whichever order runs it, so counts use the fewest-candidates
+     * search, which prunes far more.
+     */
+    private static final class RowMajorEngine implements SudokuSolverEngine
+    {
+        @Override
+        public String getName()
+        {
+            return ROW_MAJOR_ENGINE;
+        }
+
+        @Override
+        public SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget)
+        {
+            return SudokuSolver.solveRowMajor(gameBoard, solution, budget);
+        }
+
+        @Override
+        public SudokuSearchStatus solve(SudokuConstraintModel model, int[][] gameBoard, int[][] solution,
+                SudokuSearchBudget budget)
+        {
+            return SudokuSolver.solveInOrder(model, gameBoard, solution, budget, null);
+        }
+
+        @Override
+        public int countSolutions(int[][] gameBoard, int limit, SudokuSearchBudget budget,
+                SudokuTranspositionTable table)
+        {
+            return SudokuSolver.countSolutions(gameBoard, limit, budget, table);
+        }
+    }
+
+    /**
+     * A SudokuPortfolioSolver for solves, which races boards of every model on
+     * one pool. Racing only shortens the search for a first answer, so counts
+     * use the fewest-candidates search.
+     */
+    private static final class PortfolioEngine implements SudokuSolverEngine
+    {
+        // Lives as long as the registry; its pool threads are daemons.
+        private final SudokuPortfolioSolver portfolio = new SudokuPortfolioSolver();
+
+        @Override
+        public String getName()
+        {
+            return PORTFOLIO_ENGINE;
+        }
+
+        @Override
+        public SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget)
+        {
+            return portfolio.solve(gameBoard, solution, budget);
+        }
+
+        @Override
+        public SudokuSearchStatus solve(SudokuConstraintModel model, int[][] gameBoard, int[][] solution,
+                SudokuSearchBudget budget)
+        {
+            return portfolio.solve(model, gameBoard, solution, budget);
+        }
+
+        @Override
+        public int countSolutions(int[][] gameBoard, int limit, SudokuSearchBudget budget,
+                SudokuTranspositionTable table)
+        {
+            return SudokuSolver.countSolutions(gameBoard, limit, budget, table);
+        }
+    }
+
+    /**
+     * Adds the calls of an engine to its statistics.
+     */
+    private static final class MeasuredEngine implements SudokuSolverEngine
+    {
+        private final SudokuSolverEngine engine;
+        private final SudokuEngineStatistics statistics;
+        // Whether the solves and counts only search on the calling thread's SudokuSolver context.
+        private final boolean solvesOnThread;
+        private final boolean countsOnThread;
+
+        MeasuredEngine(SudokuSolverEngine engine, boolean solvesOnThread, boolean countsOnThread)
+        {
+            this.engine = engine;
+            this.solvesOnThread = solvesOnThread;
+            this.countsOnThread = countsOnThread;
+            statistics = new SudokuEngineStatistics(engine.getName());
+        }
+
+        @Override
+        public String getName()
+        {
+            return engine.getName();
+        }
+
+        @Override
+        public SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget)
+        {
+            if (solvesOnThread)
+            {
+                long nodes = SudokuSolver.threadNodes();
+                long start = System.nanoTime();
+                SudokuSearchStatus status = engine.solve(gameBoard, solution, budget);
+                statistics.record(false, SudokuSolver.threadNodes() - nodes, System.nanoTime() - start);
+                return status;
+            }
+            SudokuSearchBudget measured = measure(budget);
+            long start = System.nanoTime();
+            SudokuSearchStatus status = engine.solve(gameBoard, solution, measured);
+            statistics.record(false, measured.getNodesUsed(), System.nanoTime() - start);
+            return status;
+        }
+
+        @Override
+        public SudokuSearchStatus solve(int[][] gameBoard, int[][] solution, SudokuSearchBudget budget,
+                SudokuSolveTrace trace)
+        {
+            if (solvesOnThread)
+            {
+                long nodes = SudokuSolver.threadNodes();
+                long start = System.nanoTime();
+                SudokuSearchStatus status = engine.solve(gameBoard, solution, budget, trace);
+                statistics.record(false, SudokuSolver.threadNodes() - nodes, System.nanoTime() - start);
+                return status;
+            }
+            SudokuSearchBudget measured = measure(budget);
+            long start = System.nanoTime();
+            SudokuSearchStatus status = engine.solve(gameBoard, solution, measured, trace);
+            statistics.record(false, measured.getNodesUsed(), System.nanoTime() - start);
+            return status;
+        }
+
+        @Override
+        public int countSolutions(int[][] gameBoard, int limit, SudokuSearchBudget budget,
+                SudokuTranspositionTable table)
+        {
+            if (countsOnThread)
+            {
+                long nodes = SudokuSolver.threadNodes();
+                long start = System.nanoTime();
+                int solutions = engine.countSolutions(gameBoard, limit, budget, table);
+                statistics.record(true, SudokuSolver.threadNodes() - nodes, System.nanoTime() - start);
+                return solutions;
+            }
+            SudokuSearchBudget measured = measure(budget);
+            long start = System.nanoTime();
+            int solutions = engine.countSolutions(gameBoard, limit, measured, table);
+            statistics.record(true, measured.getNodesUsed(), System.nanoTime() - start);
+            return solutions;
+        }
+
+        @Override
+        public SudokuSearchStatus solve(SudokuConstraintModel model, int[][] gameBoard, int[][] solution,
+                SudokuSearchBudget budget)
+        {
+            if (solvesOnThread)
+            {
+                long nodes = SudokuSolver.threadNodes();
+                long start = System.nanoTime();
+                SudokuSearchStatus status = engine.solve(model, gameBoard, solution, budget);
+                statistics.record(false, SudokuSolver.threadNodes() - nodes, System.nanoTime() - start);
+                return status;
+            }
+            SudokuSearchBudget measured = measure(budget);
+            long start = System.nanoTime();
+            SudokuSearchStatus status = engine.solve(model, gameBoard, solution, measured);
+            statistics.record(false, measured.getNodesUsed(), System.nanoTime() - start);
+            return status;
+        }
+
+        @Override
+        public int countSolutions(SudokuConstraintModel model, int[][] gameBoard, int limit,
+                SudokuSearchBudget budget, SudokuTranspositionTable table)
+        {
+            if (countsOnThread)
+            {
+                long nodes = SudokuSolver.threadNodes();
+                long start = System.nanoTime();
+                int solutions = engine.countSolutions(model, gameBoard, limit, budget, table);
+                statistics.record(true, SudokuSolver.threadNodes() - nodes, System.nanoTime() - start);
+                return solutions;
+            }
+            SudokuSearchBudget measured = measure(budget);
+            long start = System.nanoTime();
+            int solutions = engine.countSolutions(model, gameBoard, limit, measured, table);
+            statistics.record(true, measured.getNodesUsed(), System.nanoTime() - start);
+            return solutions;
+        }
+
+        private static SudokuSearchBudget measure(SudokuSearchBudget budget)
+        {
+            return budget == null ? SudokuSearchBudget.unlimited() : budget.newChild();
+        }
+    }
+}
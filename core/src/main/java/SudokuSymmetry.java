@@ -0,0 +1,97 @@
+/**
+ * SudokuSymmetry enum
+ * 
+ * The symmetries a generated puzzle can have. A symmetry maps every cell to
+ * another cell; applying it repeatedly to a cell gives the cell's orbit, and a
+ * puzzle has the symmetry when every orbit is either all clues or all empty.
+ */
+public enum SudokuSymmetry
+{
+    /**
+     * No symmetry: every orbit is a single cell.
+     */
+    NONE,
+    /**
+     * Half-turn rotation about the center, the symmetry of most published
+     * puzzles.
+     */
+    ROTATIONAL,
+    /**
+     * Quarter-turn rotation about the center.
+     */
+    QUARTER_TURN,
+    /**
+     * Mirror image across the middle column.
+     */
+    MIRROR,
+    /**
+     * Mirror image across the main diagonal.
+     */
+    DIAGONAL;
+
+    private static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    private static final int LAST = GRID_SIZE - 1;
+
+    /**
+     * Find the orbit of a cell: the cell itself followed by the other cells the
+     * symmetry maps it to.
+     * 
+     * @param row   the row index.
+     * @param col   the column index.
+     * @param cells an array of at least 4 entries that receives the flattened
+     *              indices of the orbit.
+     * @return the number of cells in the orbit, from 1 to 4.
+     */
+    public int orbit(int row, int col, int[] cells)
+    {
+        int start = row * GRID_SIZE + col;
+        int count = 0;
+        int cell = start;
+        do
+        {
+            cells[count++] = cell;
+            cell = map(cell / GRID_SIZE, cell % GRID_SIZE);
+        }
+        while (cell != start);
+        return count;
+    }
+
+    /**
+     * Determine whether a clue pattern has this symmetry.
+     * 
+     * @param clueMask the clue pattern, true where a cell holds a clue.
+     * @return whether every orbit is either all clues or all empty.
+     */
+    public boolean isSymmetric(boolean[][] clueMask)
+    {
+        for (int row = 0; row < GRID_SIZE; row++)
+        {
+            for (int col = 0; col < GRID_SIZE; col++)
+            {
+                int image = map(row, col);
+                if (clueMask[row][col] != clueMask[image / GRID_SIZE][image % GRID_SIZE])
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int map(int row, int col)
+    {
+        switch (this)
+        {
+        case ROTATIONAL:
+            return (LAST - row) * GRID_SIZE + (LAST - col);
+        case QUARTER_TURN:
+            return col * GRID_SIZE + (LAST - row);
+        case MIRROR:
+            return row * GRID_SIZE + (LAST - col);
+        case DIAGONAL:
+            return col * GRID_SIZE + row;
+        default:
+            return row * GRID_SIZE + col;
+        }
+    }
+}
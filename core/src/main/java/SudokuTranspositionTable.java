@@ -0,0 +1,144 @@
+import java.util.Arrays;
+
+/**
+ * SudokuTranspositionTable class
+ * 
+ * Remembers the exact number of solutions, up to MAX_COMPLETIONS, of boards
+ * that a solution count searched to the end, so that later counts can skip
+ * them. A board is identified by its Zobrist hash: the XOR of one random 64-bit
+ * key per (cell, digit) pair, built up clue by clue as the board is loaded. The
+ * hash of the board with one more digit placed is then a single XOR away.
+ * 
+ * While finalizeBoard removes clues one at a time, each board is the previous
+ * board with one clue removed. The count of the new board looks up every
+ * candidate of every empty cell at the root; putting the removed clue back gives
+ * the previous board, whose count is in the table, so that whole subtree is
+ * skipped and only the other candidates of the removed cell are searched. The
+ * number of solutions of a board does not depend on how it was reached, so a
+ * table can be shared by all uniqueness checks of one generation run.
+ * 
+ * The table is a fixed array of longs that is never resized: each entry holds
+ * the hash with its two lowest bits replaced by the count plus one, and a new
+ * entry simply overwrites whatever was in its slot. A table belongs to one
+ * SudokuConstraintModel and must not be used by several threads at once.
+ */
+public final class SudokuTranspositionTable
+{
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+    public static final int MAX_COMPLETIONS = 2;
+
+    private static final long COUNT_MASK = 3;
+
+    private final long[] entries;
+    private final int indexMask;
+    private SudokuConstraintModel model;
+    private long probes;
+    private long hits;
+    private long stores;
+
+    /**
+     * Create a table with DEFAULT_CAPACITY entries.
+     */
+    public SudokuTranspositionTable()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a table with at least the given number of entries. The capacity
+     * is rounded up to a power of two.
+     * 
+     * @param capacity the minimum number of entries.
+     */
+    public SudokuTranspositionTable(int capacity)
+    {
+        if (capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+        {
+            size <<= 1;
+        }
+        entries = new long[size];
+        indexMask = size - 1;
+    }
+
+    /**
+     * Bind the table to the model of a search. A table can only ever be used
+     * with one model, since the same board has a different count under
+     * different rules.
+     * 
+     * @param searchModel the model of the search.
+     */
+    void bind(SudokuConstraintModel searchModel)
+    {
+        if (model == null)
+        {
+            model = searchModel;
+        }
+        else if (model != searchModel)
+        {
+            throw new IllegalArgumentException("transposition table already used with another model");
+        }
+    }
+
+    /**
+     * Look up a board.
+     * 
+     * @param hash the Zobrist hash of the board.
+     * @return the number of solutions, or -1 if the board is not in the table.
+     */
+    int probe(long hash)
+    {
+        probes++;
+        long entry = entries[(int) hash & indexMask];
+        if (entry != 0 && ((entry ^ hash) & ~COUNT_MASK) == 0)
+        {
+            hits++;
+            return (int) (entry & COUNT_MASK) - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Remember the number of solutions of a board that was searched to the end.
+     * 
+     * @param hash        the Zobrist hash of the board.
+     * @param completions the number of solutions, at most MAX_COMPLETIONS.
+     */
+    void store(long hash, int completions)
+    {
+        stores++;
+        entries[(int) hash & indexMask] = (hash & ~COUNT_MASK) | (completions + 1);
+    }
+
+    /**
+     * Forget every board, keeping the statistics.
+     */
+    public void clear()
+    {
+        Arrays.fill(entries, 0);
+    }
+
+    public int getCapacity()
+    {
+        return entries.length;
+    }
+
+    public long getProbes()
+    {
+        return probes;
+    }
+
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public long getStores()
+    {
+        return stores;
+    }
+}
@@ -0,0 +1,37 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SudokuUniquenessCheckEvent class
+ * 
+ * A JDK Flight Recorder event for one SudokuSolver.countSolutions call, which
+ * is how finalizeBoard, the minimal puzzle generator, and isUnique check that a
+ * board has a single solution. Enable it with the sudoku.UniquenessCheck
+ * setting of a recording.
+ */
+@Name("sudoku.UniquenessCheck")
+@Label("Sudoku Uniqueness Check")
+@Category("Sudoku")
+@Description("Count of the solutions of a board, up to a limit")
+final class SudokuUniquenessCheckEvent extends jdk.jfr.Event
+{
+    @Label("Empty Cells")
+    int emptyCells;
+
+    @Label("Limit")
+    int limit;
+
+    @Label("Solutions")
+    @Description("Solutions found, or -1 or -2 if the budget stopped the count")
+    int solutions;
+
+    @Label("Nodes")
+    @Description("Digits placed by the search")
+    long nodes;
+
+    @Label("Transposition Table")
+    @Description("Whether the count could reuse earlier counts")
+    boolean tableUsed;
+}
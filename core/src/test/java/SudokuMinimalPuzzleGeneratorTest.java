@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SudokuMinimalPuzzleGeneratorTest class
+ * 
+ * Checks that generated puzzles are unique and minimal, that the deadline
+ * bounds the search, and that a budget can stop it.
+ */
+class SudokuMinimalPuzzleGeneratorTest
+{
+    // No 9x9 Sudoku has fewer than 17 clues, so this target is never reached.
+    private static final int UNREACHABLE_CLUES = 16;
+
+    private final SudokuMinimalPuzzleGenerator generator = new SudokuMinimalPuzzleGenerator(2);
+
+    @Test
+    void puzzleIsUniqueAndMinimal()
+    {
+        SudokuMinimalPuzzleGenerator.Result result = generator.generate(SudokuMinimalPuzzleGenerator.ANY_CLUES, 10,
+                TimeUnit.SECONDS);
+        assertEquals(SudokuSearchStatus.COMPLETED, result.getStatus());
+        int[][] puzzle = result.getPuzzle();
+        assertEquals(1, SudokuSolver.countSolutions(puzzle, 2));
+        int clues = 0;
+        for (int row = 0; row < 9; row++)
+        {
+            for (int col = 0; col < 9; col++)
+            {
+                int value = puzzle[row][col];
+                if (value == 0)
+                {
+                    continue;
+                }
+                clues++;
+                puzzle[row][col] = 0;
+                assertEquals(2, SudokuSolver.countSolutions(puzzle, 2), "clue at " + row + "," + col);
+                puzzle[row][col] = value;
+            }
+        }
+        assertEquals(clues, result.getClues());
+    }
+
+    @Test
+    void deadlineEndsSearch()
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            long start = System.nanoTime();
+            SudokuMinimalPuzzleGenerator.Result result = generator.generate(UNREACHABLE_CLUES, 200,
+                    TimeUnit.MILLISECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertEquals(SudokuSearchStatus.COMPLETED, result.getStatus());
+            assertTrue(result.getClues() > UNREACHABLE_CLUES);
+            assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + " ms");
+        }
+    }
+
+    @Test
+    void cancelledBudgetStopsSearch()
+    {
+        SudokuSearchBudget budget = SudokuSearchBudget.unlimited();
+        budget.cancel();
+        SudokuMinimalPuzzleGenerator.Result result = generator.generate(SudokuMinimalPuzzleGenerator.ANY_CLUES, 10,
+                TimeUnit.SECONDS, budget);
+        assertEquals(SudokuSearchStatus.CANCELLED, result.getStatus());
+        assertNull(result.getPuzzle());
+    }
+}
@@ -0,0 +1,109 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SudokuPuzzlePublisherTest class
+ * 
+ * Checks demand, seeded sequences, and the handling of a subscriber that
+ * throws from onNext.
+ */
+class SudokuPuzzlePublisherTest
+{
+    private static final long SEED = 11;
+
+    @Test
+    void deliversRequestedPuzzlesInSeedOrder() throws InterruptedException
+    {
+        SudokuPuzzlePublisher publisher = new SudokuPuzzlePublisher("easy", SEED, Runnable::run);
+        List<int[][]> expected = publisher.stream().limit(3).collect(Collectors.toList());
+        List<int[][]> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        publisher.subscribe(new Flow.Subscriber<int[][]>()
+        {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription)
+            {
+                subscription.request(3);
+            }
+
+            @Override
+            public void onNext(int[][] item)
+            {
+                received.add(item);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable)
+            {
+            }
+
+            @Override
+            public void onComplete()
+            {
+            }
+        });
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(3, received.size());
+        for (int i = 0; i < 3; i++)
+        {
+            assertTrue(Arrays.deepEquals(expected.get(i), received.get(i)), "puzzle " + i);
+        }
+    }
+
+    @Test
+    void throwingSubscriberReceivesError()
+    {
+        RuntimeException failure = new IllegalStateException("subscriber failed");
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        int[] delivered = new int[1];
+        Flow.Subscription[] held = new Flow.Subscription[1];
+        SudokuPuzzlePublisher publisher = new SudokuPuzzlePublisher("easy", SEED, Runnable::run);
+        publisher.subscribe(new Flow.Subscriber<int[][]>()
+        {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription)
+            {
+                held[0] = subscription;
+            }
+
+            @Override
+            public void onNext(int[][] item)
+            {
+                delivered[0]++;
+                throw failure;
+            }
+
+            @Override
+            public void onError(Throwable throwable)
+            {
+                errors.add(throwable);
+            }
+
+            @Override
+            public void onComplete()
+            {
+            }
+        });
+        held[0].request(2);
+        assertEquals(1, delivered[0]);
+        assertEquals(1, errors.size());
+        assertSame(failure, errors.get(0));
+
+        // The subscription is cancelled, so further demand delivers nothing.
+        held[0].request(1);
+        assertEquals(1, delivered[0]);
+        assertEquals(1, errors.size());
+    }
+}
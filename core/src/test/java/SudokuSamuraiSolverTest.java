@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SudokuSamuraiSolverTest class
+ * 
+ * Pins the solution counts of Samurai boards: generated puzzles are unique,
+ * counts stop at the limit, and a clash where two grids overlap gives none.
+ */
+class SudokuSamuraiSolverTest
+{
+    @Test
+    void generatedPuzzleIsUnique()
+    {
+        SudokuSamuraiGenerator generator = new SudokuSamuraiGenerator(46);
+        int[][] puzzle = SudokuSamuraiLayout.newBoard();
+        assertEquals(SudokuSearchStatus.COMPLETED, generator.generate(puzzle, null));
+        assertEquals(1, SudokuSamuraiSolver.countSolutions(puzzle, 2, null));
+        assertTrue(SudokuSamuraiSolver.isUnique(puzzle));
+        int[][] solution = SudokuSamuraiLayout.newBoard();
+        assertTrue(SudokuSamuraiSolver.solve(puzzle, solution));
+        assertArrayEquals(generator.getSolution(), solution);
+        assertEquals(1, SudokuSamuraiSolver.countSolutions(solution, 2, null));
+    }
+
+    @Test
+    void emptyBoardCountsUpToLimit()
+    {
+        assertEquals(5, SudokuSamuraiSolver.countSolutions(SudokuSamuraiLayout.newBoard(), 5, null));
+        assertEquals(0, SudokuSamuraiSolver.countSolutions(SudokuSamuraiLayout.newBoard(), 0, null));
+    }
+
+    @Test
+    void clashInSharedBoxHasNoSolution()
+    {
+        SudokuSamuraiGenerator generator = new SudokuSamuraiGenerator(47);
+        int[][] puzzle = SudokuSamuraiLayout.newBoard();
+        generator.generate(puzzle, null);
+        int[][] solution = generator.getSolution();
+        // The top left corner of the middle grid lies in the top left grid too.
+        int row = SudokuSamuraiLayout.getGridRow(SudokuSamuraiLayout.MIDDLE_GRID);
+        int col = SudokuSamuraiLayout.getGridCol(SudokuSamuraiLayout.MIDDLE_GRID);
+        int[][] board = SudokuTestBoards.copy(solution);
+        board[row][col] = solution[row][col] % 9 + 1;
+        assertEquals(0, SudokuSamuraiSolver.countSolutions(board, 2, null));
+        assertEquals(SudokuSearchStatus.NO_SOLUTION, SudokuSamuraiSolver.solve(board, SudokuSamuraiLayout.newBoard(),
+                null));
+    }
+
+    @Test
+    void emptiedBoxHasOneCompletion()
+    {
+        SudokuSamuraiGenerator generator = new SudokuSamuraiGenerator(48);
+        int[][] puzzle = SudokuSamuraiLayout.newBoard();
+        generator.generate(puzzle, null);
+        int[][] board = SudokuTestBoards.copy(generator.getSolution());
+        // Every cell of the emptied box is fixed by the rest of its row.
+        int row = SudokuSamuraiLayout.getGridRow(SudokuSamuraiLayout.MIDDLE_GRID) + 3;
+        int col = SudokuSamuraiLayout.getGridCol(SudokuSamuraiLayout.MIDDLE_GRID) + 3;
+        for (int r = row; r < row + 3; r++)
+        {
+            for (int c = col; c < col + 3; c++)
+            {
+                board[r][c] = SudokuGridGenerator.EMPTY_SQUARE;
+            }
+        }
+        assertEquals(1, SudokuSamuraiSolver.countSolutions(board, 2, null));
+    }
+
+    @Test
+    void budgetStopsCount()
+    {
+        assertEquals(SudokuSolver.BUDGET_EXCEEDED, SudokuSamuraiSolver.countSolutions(SudokuSamuraiLayout.newBoard(),
+                1000, SudokuSearchBudget.ofNodes(100)));
+    }
+}
@@ -0,0 +1,112 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SudokuSearchBudgetTest class
+ * 
+ * Pins the statuses the solver returns when a budget stops it, and that a
+ * stopped solve leaves the solution array alone.
+ */
+class SudokuSearchBudgetTest
+{
+    @Test
+    void unlimitedBudgetCompletes()
+    {
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.HARD);
+        int[][] solution = new int[9][9];
+        assertEquals(SudokuSearchStatus.COMPLETED, SudokuSolver.solve(board, solution, SudokuSearchBudget.unlimited()));
+        assertTrue(SudokuTestBoards.isSolution(board, solution));
+    }
+
+    @Test
+    void nodeLimitStopsSolve()
+    {
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.HARD);
+        int[][] solution = new int[9][9];
+        SudokuSearchBudget budget = SudokuSearchBudget.ofNodes(10);
+        assertEquals(SudokuSearchStatus.BUDGET_EXCEEDED, SudokuSolver.solve(board, solution, budget));
+        assertArrayEquals(new int[9][9], solution);
+        // The node that finds the limit reached is charged as well.
+        assertTrue(budget.getNodesUsed() <= 11);
+    }
+
+    @Test
+    void nodeLimitStopsCount()
+    {
+        int[][] board = new int[9][9];
+        assertEquals(SudokuSolver.BUDGET_EXCEEDED,
+                SudokuSolver.countSolutions(board, 1000, SudokuSearchBudget.ofNodes(500)));
+    }
+
+    @Test
+    void deadlineStopsCount()
+    {
+        int[][] board = new int[9][9];
+        SudokuSearchBudget budget = SudokuSearchBudget.ofTime(1, TimeUnit.MILLISECONDS);
+        assertEquals(SudokuSolver.BUDGET_EXCEEDED, SudokuSolver.countSolutions(board, Integer.MAX_VALUE, budget));
+    }
+
+    @Test
+    void cancelledBudgetStopsSolveAndCount()
+    {
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.HARD);
+        SudokuSearchBudget budget = SudokuSearchBudget.unlimited();
+        budget.cancel();
+        assertTrue(budget.isCancelled());
+        assertEquals(SudokuSearchStatus.CANCELLED, SudokuSolver.solve(board, new int[9][9], budget));
+        assertEquals(SudokuSolver.CANCELLED, SudokuSolver.countSolutions(new int[9][9], 1000, budget));
+    }
+
+    @Test
+    void childChargesParent()
+    {
+        SudokuSearchBudget parent = SudokuSearchBudget.ofNodes(1_000_000);
+        SudokuSearchBudget child = parent.newChild();
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.HARD);
+        assertEquals(SudokuSearchStatus.COMPLETED, SudokuSolver.solve(board, new int[9][9], child));
+        assertTrue(child.getNodesUsed() > 0);
+        assertEquals(child.getNodesUsed(), parent.getNodesUsed());
+    }
+
+    @Test
+    void childLimitStopsBeforeParent()
+    {
+        SudokuSearchBudget parent = SudokuSearchBudget.unlimited();
+        SudokuSearchBudget child = parent.newChild(10);
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.HARD);
+        assertEquals(SudokuSearchStatus.BUDGET_EXCEEDED, SudokuSolver.solve(board, new int[9][9], child));
+        assertEquals(SudokuSearchStatus.COMPLETED, SudokuSolver.solve(board, new int[9][9], parent));
+    }
+
+    @Test
+    void childDeadlineStopsBeforeParent()
+    {
+        SudokuSearchBudget parent = SudokuSearchBudget.unlimited();
+        SudokuSearchBudget child = parent.newChild(SudokuSearchBudget.UNLIMITED_NODES, 1, TimeUnit.MILLISECONDS);
+        int[][] board = new int[9][9];
+        assertEquals(SudokuSolver.BUDGET_EXCEEDED, SudokuSolver.countSolutions(board, Integer.MAX_VALUE, child));
+        assertEquals(child.getNodesUsed(), parent.getNodesUsed());
+        assertEquals(SudokuSearchStatus.COMPLETED, SudokuSolver.solve(board, new int[9][9], parent));
+    }
+
+    @Test
+    void negativeLimitsAreRejected()
+    {
+        assertThrows(IllegalArgumentException.class, () -> SudokuSearchBudget.ofNodes(-1));
+    }
+
+    @Test
+    void contradictionIsNoSolution()
+    {
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.CONTRADICTION);
+        assertEquals(SudokuSearchStatus.NO_SOLUTION,
+                SudokuSolver.solve(board, new int[9][9], SudokuSearchBudget.ofNodes(10)));
+        assertEquals(0, SudokuSolver.countSolutions(board, 2, SudokuSearchBudget.ofNodes(10)));
+    }
+}
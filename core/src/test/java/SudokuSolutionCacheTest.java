@@ -0,0 +1,119 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SudokuSolutionCacheTest class
+ * 
+ * Checks hits, misses, and the eviction of the least recently used boards.
+ * Distinct boards are made by relabelling the digits of one puzzle.
+ */
+class SudokuSolutionCacheTest
+{
+    private static final int CAPACITY = 16;
+
+    @Test
+    void secondSolveIsHit()
+    {
+        SudokuSolutionCache cache = new SudokuSolutionCache(CAPACITY);
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.EASY);
+        int[][] solution = new int[9][9];
+        assertTrue(cache.solve(board, solution));
+        int[][] cached = new int[9][9];
+        assertTrue(cache.solve(board, cached));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertTrue(SudokuTestBoards.isSolution(board, cached));
+    }
+
+    @Test
+    void evictsWhenFull()
+    {
+        SudokuSolutionCache cache = new SudokuSolutionCache(CAPACITY);
+        int boards = 200;
+        for (int i = 0; i < boards; i++)
+        {
+            assertTrue(cache.solve(relabelled(i), new int[9][9]));
+            assertTrue(cache.size() <= CAPACITY);
+        }
+        assertEquals(boards, cache.getMisses());
+        assertEquals(boards - cache.size(), cache.getEvictions());
+        // Most of the early boards are gone and are solved again.
+        long misses = cache.getMisses();
+        for (int i = 0; i < CAPACITY; i++)
+        {
+            cache.solve(relabelled(i), new int[9][9]);
+        }
+        assertTrue(cache.getMisses() > misses);
+    }
+
+    @Test
+    void recentlyUsedBoardSurvives()
+    {
+        // Two boards per segment: touching the kept board after every solve
+        // makes it the most recent in its segment, so the other one goes.
+        SudokuSolutionCache cache = new SudokuSolutionCache(2 * CAPACITY);
+        int[][] kept = relabelled(0);
+        cache.solve(kept, new int[9][9]);
+        for (int i = 1; i < 200; i++)
+        {
+            cache.solve(relabelled(i), new int[9][9]);
+            long hits = cache.getHits();
+            cache.solve(kept, new int[9][9]);
+            assertEquals(hits + 1, cache.getHits(), "after board " + i);
+        }
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    void noSolutionIsCachedButBudgetStopIsNot()
+    {
+        SudokuSolutionCache cache = new SudokuSolutionCache(CAPACITY);
+        int[][] contradiction = SudokuTestBoards.parse(SudokuTestBoards.CONTRADICTION);
+        assertFalse(cache.solve(contradiction, new int[9][9]));
+        assertFalse(cache.solve(contradiction, new int[9][9]));
+        assertEquals(1, cache.getHits());
+        int[][] hard = SudokuTestBoards.parse(SudokuTestBoards.HARD);
+        assertEquals(SudokuSearchStatus.BUDGET_EXCEEDED,
+                cache.solve(hard, new int[9][9], SudokuSearchBudget.ofNodes(5)));
+        assertEquals(1, cache.size());
+        assertEquals(SudokuSearchStatus.COMPLETED, cache.solve(hard, new int[9][9], null));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void capacityBelowSegmentCountIsRejected()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new SudokuSolutionCache(CAPACITY - 1));
+    }
+
+    /**
+     * Returns the easy puzzle with its digits relabelled by a permutation
+     * chosen by the index, so every index gives a different board.
+     */
+    private static int[][] relabelled(int index)
+    {
+        int[] digits = { 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+        int rest = index;
+        for (int i = digits.length - 1; i > 0; i--)
+        {
+            int j = rest % (i + 1);
+            rest /= i + 1;
+            int swap = digits[i];
+            digits[i] = digits[j];
+            digits[j] = swap;
+        }
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.EASY);
+        for (int[] row : board)
+        {
+            for (int col = 0; col < row.length; col++)
+            {
+                row[col] = row[col] == 0 ? 0 : digits[row[col] - 1];
+            }
+        }
+        return board;
+    }
+}
@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SudokuSolutionSpliteratorTest class
+ * 
+ * Checks the lazy solution stream against countSolutions, sequentially and in
+ * parallel.
+ */
+class SudokuSolutionSpliteratorTest
+{
+    private static final int LIMIT = 1_000_000;
+
+    @Test
+    void streamMatchesCount()
+    {
+        Random random = new Random(45);
+        for (int seed = 0; seed < 10; seed++)
+        {
+            int[][] board = SudokuTestBoards.emptyCells(SudokuTestBoards.fullGrid(seed), 50 + seed, random);
+            int count = SudokuSolver.countSolutions(board, LIMIT);
+            assertTrue(count > 0 && count < LIMIT);
+            List<int[][]> solutions = SudokuSolver.solutions(board).collect(Collectors.toList());
+            assertEquals(count, solutions.size(), "seed " + seed);
+            Set<String> distinct = solutions.stream().map(Arrays::deepToString).collect(Collectors.toSet());
+            assertEquals(count, distinct.size(), "seed " + seed);
+            for (int[][] solution : solutions)
+            {
+                assertTrue(SudokuTestBoards.isSolution(board, solution));
+            }
+        }
+    }
+
+    @Test
+    void parallelStreamMatchesCount()
+    {
+        Random random = new Random(46);
+        for (int seed = 0; seed < 5; seed++)
+        {
+            int[][] board = SudokuTestBoards.emptyCells(SudokuTestBoards.fullGrid(seed), 56, random);
+            int count = SudokuSolver.countSolutions(board, LIMIT);
+            long parallel = StreamSupport.stream(new SudokuSolutionSpliterator(board), true).count();
+            assertEquals(count, parallel, "seed " + seed);
+        }
+    }
+
+    @Test
+    void uniqueAndUnsolvableBoards()
+    {
+        assertEquals(1, SudokuSolver.solutions(SudokuTestBoards.parse(SudokuTestBoards.EASY)).count());
+        assertEquals(0, SudokuSolver.solutions(SudokuTestBoards.parse(SudokuTestBoards.CONTRADICTION)).count());
+    }
+
+    @Test
+    void limitStopsEarly()
+    {
+        assertEquals(5, SudokuSolver.solutions(new int[9][9]).limit(5).count());
+    }
+
+    @Test
+    void boardIsCopied()
+    {
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.EASY);
+        int[][] original = SudokuTestBoards.copy(board);
+        Stream<int[][]> stream = SudokuSolver.solutions(board);
+        board[0][0] = 9;
+        int[][] solution = stream.findFirst().get();
+        assertTrue(SudokuTestBoards.isSolution(original, solution));
+    }
+}
@@ -0,0 +1,107 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SudokuSolveTraceTest class
+ * 
+ * Checks that a trace whose ring buffer has wrapped still replays exactly:
+ * the dropped steps are folded into the start board.
+ */
+class SudokuSolveTraceTest
+{
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo()
+    {
+        SudokuSolveTrace trace = new SudokuSolveTrace(5);
+        trace.reset(new int[SudokuTestBoards.CELL_COUNT]);
+        for (int i = 0; i < 20; i++)
+        {
+            trace.record(i, 1);
+        }
+        assertEquals(8, trace.size());
+        assertEquals(20, trace.getRecorded());
+        assertThrows(IllegalArgumentException.class, () -> new SudokuSolveTrace(0));
+    }
+
+    @Test
+    void wrappedTraceFoldsDroppedSteps()
+    {
+        int[] start = new int[SudokuTestBoards.CELL_COUNT];
+        start[80] = 5;
+        SudokuSolveTrace trace = new SudokuSolveTrace(4);
+        trace.reset(start);
+        int[][] steps = { { 0, 1 }, { 1, 2 }, { 0, 0 }, { 2, 3 }, { 0, 4 }, { 3, 5 }, { 1, 0 } };
+        int[] expected = start.clone();
+        for (int[] step : steps)
+        {
+            trace.record(step[0], step[1]);
+            expected[step[0]] = step[1];
+        }
+        assertEquals(4, trace.size());
+        assertEquals(steps.length, trace.getRecorded());
+        // The first three steps were dropped and folded.
+        int[] folded = new int[SudokuTestBoards.CELL_COUNT];
+        trace.getStartBoard(folded);
+        int[] afterThree = start.clone();
+        afterThree[0] = 0;
+        afterThree[1] = 2;
+        assertArrayEquals(afterThree, folded);
+        assertEquals(2, SudokuSolveTrace.eventCell(trace.getEvent(0)));
+        assertEquals(3, SudokuSolveTrace.eventDigit(trace.getEvent(0)));
+        assertArrayEquals(expected, replay(trace));
+        assertThrows(IndexOutOfBoundsException.class, () -> trace.getEvent(4));
+    }
+
+    @Test
+    void solveReplaysToSolution()
+    {
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.HARD);
+        int[][] solution = new int[9][9];
+        // Small enough that the search of the hard board wraps it.
+        SudokuSolveTrace trace = new SudokuSolveTrace(64);
+        assertEquals(SudokuSearchStatus.COMPLETED, SudokuSolver.solve(board, solution, null, trace));
+        assertEquals(64, trace.size());
+        int[] expected = new int[SudokuTestBoards.CELL_COUNT];
+        for (int cell = 0; cell < expected.length; cell++)
+        {
+            expected[cell] = solution[cell / 9][cell % 9];
+        }
+        assertArrayEquals(expected, replay(trace));
+    }
+
+    @Test
+    void recordSolutionPlacesMissingCells()
+    {
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.EASY);
+        int[][] solution = new int[9][9];
+        SudokuSolver.solve(board, solution);
+        SudokuSolveTrace trace = new SudokuSolveTrace();
+        trace.recordSolution(board, solution);
+        int empty = 0;
+        int[] expected = new int[SudokuTestBoards.CELL_COUNT];
+        for (int cell = 0; cell < expected.length; cell++)
+        {
+            empty += board[cell / 9][cell % 9] == 0 ? 1 : 0;
+            expected[cell] = solution[cell / 9][cell % 9];
+        }
+        assertEquals(empty, trace.size());
+        assertArrayEquals(expected, replay(trace));
+        trace.recordSolution(board, null);
+        assertEquals(0, trace.size());
+    }
+
+    private static int[] replay(SudokuSolveTrace trace)
+    {
+        int[] cells = new int[SudokuTestBoards.CELL_COUNT];
+        trace.getStartBoard(cells);
+        for (int i = 0; i < trace.size(); i++)
+        {
+            int event = trace.getEvent(i);
+            cells[SudokuSolveTrace.eventCell(event)] = SudokuSolveTrace.eventDigit(event);
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.Random;
+
+/**
+ * SudokuTestBoards class
+ * 
+ * Boards shared by the tests: a few known puzzles, and boards with a chosen
+ * number of cells emptied from a full grid of a fixed seed.
+ */
+final class SudokuTestBoards
+{
+    static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+
+    // A puzzle with a unique solution that the mrv search finds in a few nodes.
+    static final String EASY = "000098000006700000027050400003020000059006042061570900002000007000000080190000060";
+    // AI Escargot, which needs a real search.
+    static final String HARD = "100007090030020008009600500005300900010080002600004000300000010040000007007000300";
+    // The same digit twice in the first row.
+    static final String CONTRADICTION = "11000000000000000000000000000000000000000"
+            + "0000000000000000000000000000000000000000";
+
+    private SudokuTestBoards()
+    {
+    }
+
+    /**
+     * Parse 81 digits, with 0 for an empty cell.
+     * 
+     * @param text the board in row-major order.
+     * @return the board.
+     */
+    static int[][] parse(String text)
+    {
+        int[][] board = new int[GRID_SIZE][GRID_SIZE];
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            board[cell / GRID_SIZE][cell % GRID_SIZE] = text.charAt(cell) - '0';
+        }
+        return board;
+    }
+
+    /**
+     * Returns a full grid made by SudokuFullGridGenerator from a seed.
+     * 
+     * @param seed the seed of the generator.
+     * @return the full grid.
+     */
+    static int[][] fullGrid(long seed)
+    {
+        int[][] board = new int[GRID_SIZE][GRID_SIZE];
+        new SudokuFullGridGenerator(seed).generate(board);
+        return board;
+    }
+
+    /**
+     * Empty cells of a board, chosen at random.
+     * 
+     * @param board  the board, which is changed.
+     * @param count  the number of filled cells to empty.
+     * @param random the source of the cell order.
+     * @return the board.
+     */
+    static int[][] emptyCells(int[][] board, int count, Random random)
+    {
+        int emptied = 0;
+        while (emptied < count)
+        {
+            int cell = random.nextInt(CELL_COUNT);
+            if (board[cell / GRID_SIZE][cell % GRID_SIZE] != SudokuGridGenerator.EMPTY_SQUARE)
+            {
+                board[cell / GRID_SIZE][cell % GRID_SIZE] = SudokuGridGenerator.EMPTY_SQUARE;
+                emptied++;
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Returns a copy of a board.
+     * 
+     * @param board the board.
+     * @return the copy.
+     */
+    static int[][] copy(int[][] board)
+    {
+        int[][] copy = new int[board.length][];
+        for (int row = 0; row < board.length; row++)
+        {
+            copy[row] = board[row].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Determine whether a full grid keeps the classic rules and the givens of
+     * a board.
+     * 
+     * @param board    the board with the givens.
+     * @param solution the full grid.
+     * @return true if the grid is a solution of the board.
+     */
+    static boolean isSolution(int[][] board, int[][] solution)
+    {
+        for (int i = 0; i < GRID_SIZE; i++)
+        {
+            int rowDigits = 0;
+            int colDigits = 0;
+            int boxDigits = 0;
+            for (int j = 0; j < GRID_SIZE; j++)
+            {
+                int row = i / 3 * 3 + j / 3;
+                int col = i % 3 * 3 + j % 3;
+                rowDigits |= 1 << solution[i][j];
+                colDigits |= 1 << solution[j][i];
+                boxDigits |= 1 << solution[row][col];
+                if (board[i][j] != SudokuGridGenerator.EMPTY_SQUARE && board[i][j] != solution[i][j])
+                {
+                    return false;
+                }
+            }
+            if (rowDigits != 0x3FE || colDigits != 0x3FE || boxDigits != 0x3FE)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,146 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SudokuTranspositionTableTest class
+ * 
+ * Checks the packed entries of the table and that counts made with a table
+ * agree with counts made without one, whatever mix of limits shares the
+ * table and however often its entries collide.
+ */
+class SudokuTranspositionTableTest
+{
+    private static final int[] CAPACITIES = { 1, 4, SudokuTranspositionTable.DEFAULT_CAPACITY };
+
+    @Test
+    void storedCountsAreReadBack()
+    {
+        SudokuTranspositionTable table = new SudokuTranspositionTable(16);
+        long[] hashes = { 0, 1, 2, 3, -1L, 0x123456789ABCDEFL, Long.MIN_VALUE };
+        for (long hash : hashes)
+        {
+            for (int count = 0; count <= SudokuTranspositionTable.MAX_COMPLETIONS; count++)
+            {
+                table.clear();
+                assertEquals(-1, table.probe(hash));
+                table.store(hash, count);
+                assertEquals(count, table.probe(hash), "hash " + hash);
+            }
+        }
+    }
+
+    @Test
+    void newEntryOverwritesItsSlot()
+    {
+        SudokuTranspositionTable table = new SudokuTranspositionTable(16);
+        long first = 0x5A5A5A5A00000000L;
+        long second = first + table.getCapacity();
+        table.store(first, 1);
+        assertEquals(-1, table.probe(second));
+        table.store(second, 2);
+        assertEquals(2, table.probe(second));
+        assertEquals(-1, table.probe(first));
+        assertEquals(2, table.getStores());
+        assertEquals(1, table.getHits());
+    }
+
+    @Test
+    void capacityIsRoundedUp()
+    {
+        assertEquals(8, new SudokuTranspositionTable(5).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new SudokuTranspositionTable(0));
+    }
+
+    @Test
+    void tableIsBoundToOneModel()
+    {
+        SudokuTranspositionTable table = new SudokuTranspositionTable();
+        int[][] board = SudokuTestBoards.parse(SudokuTestBoards.EASY);
+        SudokuSolver.countSolutions(board, 2, null, table);
+        assertThrows(IllegalArgumentException.class, () -> SudokuSolver.countSolutions(
+                SudokuConstraintModel.CLASSIC.withDiagonals(), board, 2, null, table));
+    }
+
+    @Test
+    void higherLimitEntryIsClampedToLowerLimit()
+    {
+        // Remove clues in row-major order, skipping any that would give more
+        // than two solutions, until the board has exactly two.
+        int[][] board = SudokuTestBoards.fullGrid(36);
+        for (int cell = 0; SudokuSolver.countSolutions(board, 3) != 2; cell++)
+        {
+            int row = cell / SudokuTestBoards.GRID_SIZE;
+            int col = cell % SudokuTestBoards.GRID_SIZE;
+            int digit = board[row][col];
+            board[row][col] = SudokuGridGenerator.EMPTY_SQUARE;
+            if (SudokuSolver.countSolutions(board, 3) > 2)
+            {
+                board[row][col] = digit;
+            }
+        }
+        SudokuTranspositionTable table = new SudokuTranspositionTable();
+        assertEquals(2, SudokuSolver.countSolutions(board, 3, null, table));
+        assertEquals(1, SudokuSolver.countSolutions(board, 1, null, table));
+        assertEquals(2, SudokuSolver.countSolutions(board, 2, null, table));
+    }
+
+    @Test
+    void removalSequencesMatchCountsWithoutTable()
+    {
+        Random random = new Random(2026);
+        for (int capacity : CAPACITIES)
+        {
+            for (int seed = 0; seed < 20; seed++)
+            {
+                checkRemovalSequence(SudokuTestBoards.fullGrid(seed), new SudokuTranspositionTable(capacity), random,
+                        "capacity " + capacity + ", seed " + seed);
+            }
+        }
+    }
+
+    /**
+     * Remove the clues of a full grid in random order, keeping a removal only
+     * while the board stays unique as finalizeBoard does, and compare every
+     * count with a shared table to a count without one. The limits 1, 2 and 3
+     * are used in random order, so entries stored under one limit are read
+     * under another.
+     */
+    private static void checkRemovalSequence(int[][] board, SudokuTranspositionTable table, Random random,
+            String name)
+    {
+        int[] order = new int[SudokuTestBoards.CELL_COUNT];
+        for (int i = 0; i < order.length; i++)
+        {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        for (int cell : order)
+        {
+            int row = cell / SudokuTestBoards.GRID_SIZE;
+            int col = cell % SudokuTestBoards.GRID_SIZE;
+            int digit = board[row][col];
+            board[row][col] = SudokuGridGenerator.EMPTY_SQUARE;
+            int plain = SudokuSolver.countSolutions(board, 3);
+            for (int k = 0; k < 3; k++)
+            {
+                int limit = 1 + random.nextInt(3);
+                assertEquals(Math.min(plain, limit), SudokuSolver.countSolutions(board, limit, null, table),
+                        name + ", cell " + cell + ", limit " + limit);
+            }
+            if (plain != 1)
+            {
+                board[row][col] = digit;
+            }
+        }
+    }
+}
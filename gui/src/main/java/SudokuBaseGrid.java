@@ -0,0 +1,96 @@
+import java.util.Arrays;
+
+/**
+ * Create a base grid that has the given underlying Sudoku Grid. The purpose of this class
+ * is to create base grid that can be adjusted (played on) without altering the actual solution
+ * board (i.e. playing won't change the actual solution board).
+ * 
+ */
+public class SudokuBaseGrid
+{
+    // Shared by every game, so replaying a puzzle does not solve it again.
+    private static final SudokuSolutionCache SOLUTIONS = new SudokuSolutionCache();
+
+    private SudokuGridGenerator sudokuGrid;
+    private int[][] baseGrid;
+    private int[][] solvedGrid;
+    // The result of solving the current board, or null before the first attempt.
+    private SudokuSearchStatus solveStatus;
+
+    /**
+     * Create a base grid that has the given underlying Sudoku Grid. 
+     * 
+     * @param SudokuGridGenerator the Sudoku Grid to use for for this baseGrid.
+     */
+    public SudokuBaseGrid(SudokuGridGenerator sudokuGridGenerator)
+    {
+        sudokuGrid = sudokuGridGenerator;
+        baseGrid = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        solvedGrid = new int[SudokuGridGenerator.BOARD_SIZE][SudokuGridGenerator.BOARD_SIZE];
+        reload();
+    }
+
+    /**
+     * Copy the board of the underlying Sudoku Grid again after it has been
+     * given a new puzzle, so the same base grid and its arrays can be used for
+     * the next game. The solution is computed again when it is next needed.
+     */
+    public void reload()
+    {
+        for (int i = 0; i < SudokuGridGenerator.BOARD_SIZE; i++)
+        {
+            for (int j = 0; j < SudokuGridGenerator.BOARD_SIZE; j++)
+            {
+                baseGrid[i][j] = sudokuGrid.getBoard()[i][j];
+            }
+        }
+        solveStatus = null;
+    }
+    
+    /**
+     * Returns the solution of the underlying Sudoku Grid. The solution is
+     * looked up in a cache shared by all games, or computed, once and kept in
+     * its own array, so the underlying board is not altered.
+     * 
+     * @return the solved grid, or null if the board has no solution
+     */
+    public int[][] getSolvedGrid()
+    {
+        if (solveStatus == null)
+        {
+            setSolvedGrid();
+        }
+        return solveStatus == SudokuSearchStatus.COMPLETED ? solvedGrid : null;
+    }
+    
+    public SudokuGridGenerator getGridGen()
+    {
+        return sudokuGrid;
+    }
+    
+    /**
+     * Returns a reference to the base grid.
+     * 
+     * @return the base grid
+     */
+    public int[][] getBaseGrid()
+    {
+        return baseGrid;
+    }
+    
+    /**
+     * Solve the Sudoku board. If it cannot be solved the solved grid is
+     * cleared, so no solution of an earlier game is left in it.
+     */
+    private void setSolvedGrid()
+    {
+        solveStatus = SOLUTIONS.solve(baseGrid, solvedGrid, null);
+        if (solveStatus != SudokuSearchStatus.COMPLETED)
+        {
+            for (int[] row : solvedGrid)
+            {
+                Arrays.fill(row, SudokuGridGenerator.EMPTY_SQUARE);
+            }
+        }
+    }
+}
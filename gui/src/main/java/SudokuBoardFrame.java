@@ -0,0 +1,439 @@
+import java.awt.BorderLayout;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JToggleButton;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+/**
+ * This class creates the actual GUI that the game will be played on.
+ * 
+ * The class extends JFrame and creates an editable GUI.
+ */
+public class SudokuBoardFrame extends JFrame
+{
+    private static final int GRID_SIZE = 9;
+    private static final int CELL_SIZE = 50;
+
+    public static final int FRAME_WIDTH = CELL_SIZE * GRID_SIZE;
+    public static final int FRAME_HEIGHT = CELL_SIZE * GRID_SIZE;
+
+    private static final Font BUTTON_FONT = new Font("Monospaced", Font.BOLD, 10);
+
+    // Replay settings for the animated solver.
+    private static final int DEFAULT_REPLAY_FRAME_RATE = 30;
+    private static final int MAX_REPLAY_SECONDS = 10;
+    private static final long REPLAY_SOLVE_LIMIT_MILLIS = 2000;
+
+    private JButton resetGame;
+    private JButton newGame;
+    private JButton solveGame;
+    private JButton checkSolution;
+    private JButton watchSolve;
+    private JToggleButton autoNotes;
+
+    private SudokuBoardPanel boardPanel;
+    private SudokuSession session;
+    private SudokuBaseGrid baseGrid;
+    private SudokuFeasibilityCheck feasibility;
+    private Container board;
+    private JPanel buttonRow;
+
+    private Timer replayTimer;
+    private SudokuSolveTrace replayTrace;
+    private int[] replayCells;
+    private boolean[] replayDirty;
+    private int[] replayDirtyCells;
+    private int replayIndex;
+    private int replayStepsPerFrame;
+    private int replayFrameRate;
+    // The budget of the traced solve in progress, or null when none is running.
+    private SudokuSearchBudget replayBudget;
+
+    /**
+     * Create base GUI and initialize all elements on the GUI
+     * 
+     * @param session  the session that starts new games in this frame
+     * @param baseGrid the baseGrid that will be filled out
+     */
+    public SudokuBoardFrame(SudokuSession session, SudokuBaseGrid baseGrid)
+    {
+        this.session = session;
+        this.baseGrid = baseGrid;
+        feasibility = new SudokuFeasibilityCheck();
+        replayTrace = new SudokuSolveTrace();
+        replayCells = new int[GRID_SIZE * GRID_SIZE];
+        replayDirty = new boolean[GRID_SIZE * GRID_SIZE];
+        replayDirtyCells = new int[GRID_SIZE * GRID_SIZE];
+        replayFrameRate = DEFAULT_REPLAY_FRAME_RATE;
+        replayTimer = new Timer(1000 / replayFrameRate, new ActionListener()
+        {
+            public void actionPerformed(ActionEvent event)
+            {
+                replayFrame();
+            }
+        });
+        board = getContentPane();
+        board.setLayout(new BorderLayout());
+
+        // Set the top row to buttons and the rest of the frame to the board.
+        buttonRow = new JPanel(new GridLayout(1, GRID_SIZE));
+        buttonRow.setPreferredSize(new Dimension(FRAME_WIDTH, CELL_SIZE));
+        for (int col = 0; col < GRID_SIZE; col++)
+        {
+            setButtons(0, col);
+        }
+        boardPanel = new SudokuBoardPanel();
+        boardPanel.setGivens(baseGrid.getBaseGrid());
+        boardPanel.addChangeListener(new ChangeListener()
+        {
+            public void stateChanged(ChangeEvent event)
+            {
+                checkPosition();
+            }
+        });
+        board.add(buttonRow, BorderLayout.NORTH);
+        board.add(boardPanel, BorderLayout.CENTER);
+        pack();
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setTitle("Sudoku");
+        setVisible(true);
+    }
+
+    /**
+     * Set the buttons for the GUI at the top of the GUI and make them clickable.
+     * 
+     * @param row  the row index
+     * @param col  the column index
+     */
+    private void setButtons(int row, int col)
+    {
+        // Create a reset button that clears the board.
+        if (row == 0 && col == 0)
+        {
+            resetGame = new JButton("Reset");
+            resetGame.setFont(BUTTON_FONT);
+            resetGame.addActionListener(new ActionListener()
+            {
+                public void actionPerformed(ActionEvent event)
+                {
+                    stopReplay();
+                    boardPanel.clearEntries();
+                    clearDeadEnd();
+                }
+            });
+            buttonRow.add(resetGame);
+        }
+        // Create a new game button that asks for the next game and plays it in this frame.
+        else if (row == 0 && col == 1)
+        {
+            newGame = new JButton("New");
+            newGame.setFont(BUTTON_FONT);
+            newGame.addActionListener(new ActionListener()
+            {
+                public void actionPerformed(ActionEvent event)
+                {
+                    stopReplay();
+                    session.newGame();
+                }
+            });
+            buttonRow.add(newGame);
+        }
+        // Create a solver button that solves the game using backtracking in SudokuGridGenerator.
+        else if (row == 0 && col == 4)
+        {
+            solveGame = new JButton("Solve");
+            solveGame.setFont(BUTTON_FONT);
+            solveGame.addActionListener(new ActionListener()
+            {
+                public void actionPerformed(ActionEvent event)
+                {
+                    stopReplay();
+                    int[][] solvedGrid = baseGrid.getSolvedGrid();
+                    if (solvedGrid == null)
+                    {
+                        showNoSolution();
+                        return;
+                    }
+                    boardPanel.setValues(solvedGrid);
+                    clearDeadEnd();
+                }
+            });
+            buttonRow.add(solveGame);
+        }
+        // Create a watch button that replays the solver step by step.
+        else if (row == 0 && col == 2)
+        {
+            watchSolve = new JButton("Watch");
+            watchSolve.setFont(BUTTON_FONT);
+            watchSolve.addActionListener(new ActionListener()
+            {
+                public void actionPerformed(ActionEvent event)
+                {
+                    startReplay();
+                }
+            });
+            buttonRow.add(watchSolve);
+        }
+        // Create a notes button that shows or hides the candidates of the empty cells.
+        else if (row == 0 && col == 6)
+        {
+            autoNotes = new JToggleButton("Notes");
+            autoNotes.setFont(BUTTON_FONT);
+            autoNotes.addActionListener(new ActionListener()
+            {
+                public void actionPerformed(ActionEvent event)
+                {
+                    boardPanel.setAutoNotes(autoNotes.isSelected());
+                    boardPanel.requestFocusInWindow();
+                }
+            });
+            buttonRow.add(autoNotes);
+        }
+        // Create a check button that determines whether the user entered the correct number in their solution.
+        else if (row == 0 && col == 8)
+        {
+            checkSolution = new JButton("Check");
+            checkSolution.setFont(BUTTON_FONT);
+            checkSolution.addActionListener(new ActionListener()
+            {
+                public void actionPerformed(ActionEvent event)
+                {
+                    int[][] solvedGrid = baseGrid.getSolvedGrid();
+                    if (solvedGrid == null)
+                    {
+                        showNoSolution();
+                        return;
+                    }
+                    for(int i = 0; i < GRID_SIZE; i++)
+                    {
+                        for(int j = 0; j < GRID_SIZE; j++)
+                        {
+                            int cellVal = boardPanel.getValue(i, j);
+                            if(cellVal != SudokuGridGenerator.EMPTY_SQUARE && cellVal != solvedGrid[i][j])
+                            {
+                                boardPanel.setIncorrect(i, j, true);
+                            }
+                        }
+                    }
+                }
+            });
+            buttonRow.add(checkSolution);
+        }
+        else
+        {
+            buttonRow.add(new JPanel());
+        }
+
+    }
+
+    /**
+     * Tell the player that the board cannot be solved, instead of showing or
+     * checking against a solution that does not exist.
+     */
+    private void showNoSolution()
+    {
+        JOptionPane.showMessageDialog(this, "This board has no solution.", "Sudoku Game",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Show the puzzle of the base grid after it has been reloaded for a new
+     * game. The frame, its buttons, and the replay buffers are kept.
+     */
+    public void loadGame()
+    {
+        stopReplay();
+        boardPanel.setGivens(baseGrid.getBaseGrid());
+        clearDeadEnd();
+        boardPanel.requestFocusInWindow();
+    }
+
+    /**
+     * Solve the board from its starting position while recording every step of
+     * the search, then replay the steps on the cells as an animation. The solve
+     * can take up to REPLAY_SOLVE_LIMIT_MILLIS on a hard board, so it runs on a
+     * worker thread and the replay starts once it is done; the Watch button is
+     * disabled meanwhile, so only one solve ever writes the trace.
+     */
+    private void startReplay()
+    {
+        stopReplay();
+        // Solve a copy, since a new game reloads the base grid on this thread.
+        final int[][] start = new int[GRID_SIZE][GRID_SIZE];
+        for (int row = 0; row < GRID_SIZE; row++)
+        {
+            System.arraycopy(baseGrid.getBaseGrid()[row], 0, start[row], 0, GRID_SIZE);
+        }
+        final SudokuSearchBudget budget = SudokuSearchBudget.ofTime(REPLAY_SOLVE_LIMIT_MILLIS, TimeUnit.MILLISECONDS);
+        replayBudget = budget;
+        watchSolve.setEnabled(false);
+        new SwingWorker<SudokuSearchStatus, Void>()
+        {
+            @Override
+            protected SudokuSearchStatus doInBackground()
+            {
+                return SudokuSolverEngines.getDefault().solve(start, new int[GRID_SIZE][GRID_SIZE], budget,
+                        replayTrace);
+            }
+
+            @Override
+            protected void done()
+            {
+                watchSolve.setEnabled(true);
+                if (replayBudget != budget)
+                {
+                    return;
+                }
+                replayBudget = null;
+                SudokuSearchStatus status;
+                try
+                {
+                    status = get();
+                }
+                catch (InterruptedException | ExecutionException e)
+                {
+                    return;
+                }
+                if (status == SudokuSearchStatus.NO_SOLUTION)
+                {
+                    showNoSolution();
+                    return;
+                }
+                playReplay();
+            }
+        }.execute();
+    }
+
+    /**
+     * Replay the recorded trace from its start board.
+     */
+    private void playReplay()
+    {
+        clearDeadEnd();
+        replayTrace.getStartBoard(replayCells);
+        for (int cell = 0; cell < replayCells.length; cell++)
+        {
+            showReplayCell(cell);
+        }
+        replayIndex = 0;
+        // Spread the steps so the whole replay takes at most MAX_REPLAY_SECONDS.
+        int totalFrames = replayFrameRate * MAX_REPLAY_SECONDS;
+        replayStepsPerFrame = Math.max(1, (replayTrace.size() + totalFrames - 1) / totalFrames);
+        replayTimer.setDelay(1000 / replayFrameRate);
+        replayTimer.start();
+    }
+
+    /**
+     * Stop a running replay, and the solve for one that has not started yet.
+     * The cells keep the values they had.
+     */
+    private void stopReplay()
+    {
+        if (replayBudget != null)
+        {
+            replayBudget.cancel();
+            replayBudget = null;
+        }
+        replayTimer.stop();
+    }
+
+    /**
+     * Apply the next batch of replay steps. Steps are applied to an array first
+     * and every changed cell is then updated once, so a frame costs at most one
+     * cell repaint per cell no matter how many steps it covers.
+     */
+    private void replayFrame()
+    {
+        int end = Math.min(replayTrace.size(), replayIndex + replayStepsPerFrame);
+        int dirtyCount = 0;
+        for (; replayIndex < end; replayIndex++)
+        {
+            int event = replayTrace.getEvent(replayIndex);
+            int cell = SudokuSolveTrace.eventCell(event);
+            replayCells[cell] = SudokuSolveTrace.eventDigit(event);
+            if (!replayDirty[cell])
+            {
+                replayDirty[cell] = true;
+                replayDirtyCells[dirtyCount++] = cell;
+            }
+        }
+        for (int i = 0; i < dirtyCount; i++)
+        {
+            int cell = replayDirtyCells[i];
+            replayDirty[cell] = false;
+            showReplayCell(cell);
+        }
+        if (replayIndex >= replayTrace.size())
+        {
+            stopReplay();
+        }
+    }
+
+    /**
+     * Show the replay value of one cell.
+     * 
+     * @param cell the flattened cell index.
+     */
+    private void showReplayCell(int cell)
+    {
+        boardPanel.setValue(cell / GRID_SIZE, cell % GRID_SIZE, replayCells[cell]);
+    }
+
+    /**
+     * Set the frame rate used to replay the solver. Takes effect the next time
+     * a replay starts.
+     * 
+     * @param framesPerSecond the number of frames per second, at least 1.
+     */
+    public void setReplayFrameRate(int framesPerSecond)
+    {
+        if (framesPerSecond < 1)
+        {
+            throw new IllegalArgumentException("frame rate must be at least 1: " + framesPerSecond);
+        }
+        replayFrameRate = framesPerSecond;
+    }
+    
+    /**
+     * Check whether the player's position can still be completed, and if not,
+     * highlight the entries that make it a dead end.
+     */
+    private void checkPosition()
+    {
+        SudokuFeasibilityCheck.Result result = feasibility.check(baseGrid.getBaseGrid(), boardFrameInteger());
+        boardPanel.setConflicts(result.getConflicts());
+        setTitle(result.isDeadEnd() ? "Sudoku - no solution from here" : "Sudoku");
+    }
+
+    private void clearDeadEnd()
+    {
+        boardPanel.setConflicts(new int[0]);
+        setTitle("Sudoku");
+    }
+
+    /**
+     * Copy the values the user entered into a new integer board.
+     * 
+     * @return the new board with integer values
+     */
+    private int[][] boardFrameInteger()
+    {
+        int[][] gameBoard = new int[GRID_SIZE][GRID_SIZE];
+        boardPanel.getBoard(gameBoard);
+        return gameBoard;
+    }
+
+}
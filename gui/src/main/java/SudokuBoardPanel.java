@@ -0,0 +1,495 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.JComponent;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+/**
+ * This class paints the Sudoku grid and handles keyboard and mouse input for it.
+ * 
+ * The whole board is a single component backed by flat arrays, instead of one
+ * text field per cell. Changing a single cell repaints only that cell, and
+ * replacing the whole board repaints once.
+ * 
+ * With auto-notes on, every empty cell also shows its remaining candidates.
+ * They are kept by a SudokuCandidateGrid, so an edit recomputes only the
+ * candidates of the edited cell's peers and repaints only the cells whose
+ * candidates changed.
+ */
+public class SudokuBoardPanel extends JComponent
+{
+    private static final long serialVersionUID = 1L;
+
+    private static final int GRID_SIZE = SudokuGridGenerator.BOARD_SIZE;
+    private static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+    private static final int CELL_SIZE = 50;
+
+    private static final Color INCORRECT_NUMBER = Color.RED;
+    private static final Color CORRECT_NUMBER = Color.BLACK;
+    private static final Color CELL_BACKGROUND = Color.WHITE;
+    private static final Color SELECTED_BACKGROUND = new Color(210, 225, 250);
+    private static final Color CONFLICT_BACKGROUND = new Color(250, 215, 215);
+    private static final Color CELL_LINE = Color.GRAY;
+    private static final Color SQUARE_LINE = Color.BLACK;
+    private static final Color NOTE_NUMBER = Color.GRAY;
+    private static final Font NUMBER_FONT = new Font("Monospaced", Font.BOLD, 20);
+    private static final Font NOTE_FONT = new Font("Monospaced", Font.PLAIN, 11);
+    private static final String[] DIGIT_TEXT = { "", "1", "2", "3", "4", "5", "6", "7", "8", "9" };
+    private static final BasicStroke CELL_STROKE = new BasicStroke(1);
+    private static final BasicStroke SQUARE_STROKE = new BasicStroke(4);
+
+    private final int[] values;
+    private final boolean[] fixed;
+    private final boolean[] incorrect;
+    private final boolean[] conflict;
+    private final SudokuCandidateGrid candidates;
+    private final int[][] scratchBoard;
+    private int selected;
+    private boolean editable;
+    private boolean autoNotes;
+
+    /**
+     * Create an empty, editable board.
+     */
+    public SudokuBoardPanel()
+    {
+        values = new int[CELL_COUNT];
+        fixed = new boolean[CELL_COUNT];
+        incorrect = new boolean[CELL_COUNT];
+        conflict = new boolean[CELL_COUNT];
+        candidates = new SudokuCandidateGrid();
+        scratchBoard = new int[GRID_SIZE][GRID_SIZE];
+        selected = 0;
+        editable = true;
+        setPreferredSize(new Dimension(CELL_SIZE * GRID_SIZE, CELL_SIZE * GRID_SIZE));
+        setFocusable(true);
+        setOpaque(true);
+        addMouseListener(new MouseAdapter()
+        {
+            @Override
+            public void mousePressed(MouseEvent event)
+            {
+                requestFocusInWindow();
+                int col = event.getX() * GRID_SIZE / Math.max(1, getWidth());
+                int row = event.getY() * GRID_SIZE / Math.max(1, getHeight());
+                if (row >= 0 && row < GRID_SIZE && col >= 0 && col < GRID_SIZE)
+                {
+                    select(row * GRID_SIZE + col);
+                }
+            }
+        });
+        addKeyListener(new KeyAdapter()
+        {
+            @Override
+            public void keyPressed(KeyEvent event)
+            {
+                handleKey(event);
+            }
+        });
+    }
+
+    /**
+     * Show a new starting board. Non-empty cells become fixed clues that cannot
+     * be edited, empty cells become editable. Costs a single repaint.
+     * 
+     * @param givens the starting board.
+     */
+    public void setGivens(int[][] givens)
+    {
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            int val = givens[cell / GRID_SIZE][cell % GRID_SIZE];
+            values[cell] = val;
+            fixed[cell] = val != SudokuGridGenerator.EMPTY_SQUARE;
+            incorrect[cell] = false;
+        }
+        loadCandidates();
+        repaint();
+    }
+
+    /**
+     * Show the given values in every editable cell. Fixed clues are left as
+     * they are. Costs a single repaint.
+     * 
+     * @param gameBoard the values to show.
+     */
+    public void setValues(int[][] gameBoard)
+    {
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            if (!fixed[cell])
+            {
+                values[cell] = gameBoard[cell / GRID_SIZE][cell % GRID_SIZE];
+            }
+            incorrect[cell] = false;
+        }
+        loadCandidates();
+        repaint();
+    }
+
+    /**
+     * Empty every editable cell and clear all incorrect marks. Costs a single
+     * repaint.
+     */
+    public void clearEntries()
+    {
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            if (!fixed[cell])
+            {
+                values[cell] = SudokuGridGenerator.EMPTY_SQUARE;
+            }
+            incorrect[cell] = false;
+        }
+        loadCandidates();
+        repaint();
+    }
+
+    public int getValue(int row, int col)
+    {
+        return values[row * GRID_SIZE + col];
+    }
+
+    /**
+     * Change the value of one cell and repaint only that cell, and with
+     * auto-notes on, the peers whose candidates changed.
+     * 
+     * @param row the row index.
+     * @param col the column index.
+     * @param val the new value, or EMPTY_SQUARE.
+     */
+    public void setValue(int row, int col, int val)
+    {
+        int cell = row * GRID_SIZE + col;
+        if (values[cell] != val || incorrect[cell])
+        {
+            values[cell] = val;
+            incorrect[cell] = false;
+            repaintCell(cell);
+            candidates.set(row, col, val);
+            if (autoNotes)
+            {
+                for (int i = 0; i < candidates.getChangedCount(); i++)
+                {
+                    repaintCell(candidates.getChangedCell(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark one cell as incorrect, painting its digit in red.
+     * 
+     * @param row       the row index.
+     * @param col       the column index.
+     * @param isWrong   whether the cell is incorrect.
+     */
+    public void setIncorrect(int row, int col, boolean isWrong)
+    {
+        int cell = row * GRID_SIZE + col;
+        if (incorrect[cell] != isWrong)
+        {
+            incorrect[cell] = isWrong;
+            repaintCell(cell);
+        }
+    }
+
+    /**
+     * Highlight the background of the given cells and clear the highlight of
+     * all others. Only cells whose highlight changes are repainted.
+     * 
+     * @param cells the flattened indices of the cells to highlight.
+     */
+    public void setConflicts(int[] cells)
+    {
+        boolean[] next = new boolean[CELL_COUNT];
+        for (int cell : cells)
+        {
+            next[cell] = true;
+        }
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            if (conflict[cell] != next[cell])
+            {
+                conflict[cell] = next[cell];
+                repaintCell(cell);
+            }
+        }
+    }
+
+    /**
+     * Register a listener that is told whenever the player changes a cell from
+     * the keyboard. Changes made through setValue, setValues, and the other
+     * methods are not reported.
+     * 
+     * @param listener the listener.
+     */
+    public void addChangeListener(ChangeListener listener)
+    {
+        listenerList.add(ChangeListener.class, listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener)
+    {
+        listenerList.remove(ChangeListener.class, listener);
+    }
+
+    private void fireStateChanged()
+    {
+        ChangeEvent event = new ChangeEvent(this);
+        for (ChangeListener listener : listenerList.getListeners(ChangeListener.class))
+        {
+            listener.stateChanged(event);
+        }
+    }
+
+    public boolean isFixed(int row, int col)
+    {
+        return fixed[row * GRID_SIZE + col];
+    }
+
+    public void setEditable(boolean editable)
+    {
+        this.editable = editable;
+    }
+
+    public boolean isAutoNotes()
+    {
+        return autoNotes;
+    }
+
+    /**
+     * Show or hide the candidates of the empty cells. Costs a single repaint.
+     * 
+     * @param autoNotes whether to show the candidates.
+     */
+    public void setAutoNotes(boolean autoNotes)
+    {
+        if (this.autoNotes != autoNotes)
+        {
+            this.autoNotes = autoNotes;
+            repaint();
+        }
+    }
+
+    /**
+     * Copy the values shown on the board.
+     * 
+     * @param gameBoard a 2D array that receives the values.
+     */
+    public void getBoard(int[][] gameBoard)
+    {
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            gameBoard[cell / GRID_SIZE][cell % GRID_SIZE] = values[cell];
+        }
+    }
+
+    /**
+     * Recompute every candidate after the whole board changed.
+     */
+    private void loadCandidates()
+    {
+        getBoard(scratchBoard);
+        candidates.load(scratchBoard);
+    }
+
+    /**
+     * Move the selection to a new cell.
+     * 
+     * @param cell the flattened cell index.
+     */
+    private void select(int cell)
+    {
+        if (cell != selected)
+        {
+            int old = selected;
+            selected = cell;
+            repaintCell(old);
+            repaintCell(cell);
+        }
+    }
+
+    /**
+     * Handle the arrow keys to move the selection and the digit, delete, and
+     * backspace keys to edit the selected cell.
+     * 
+     * @param event the key event.
+     */
+    private void handleKey(KeyEvent event)
+    {
+        int row = selected / GRID_SIZE;
+        int col = selected % GRID_SIZE;
+        int code = event.getKeyCode();
+        if (code == KeyEvent.VK_UP && row > 0)
+        {
+            select(selected - GRID_SIZE);
+        }
+        else if (code == KeyEvent.VK_DOWN && row < GRID_SIZE - 1)
+        {
+            select(selected + GRID_SIZE);
+        }
+        else if (code == KeyEvent.VK_LEFT && col > 0)
+        {
+            select(selected - 1);
+        }
+        else if (code == KeyEvent.VK_RIGHT && col < GRID_SIZE - 1)
+        {
+            select(selected + 1);
+        }
+        else if (editable && !fixed[selected])
+        {
+            char key = event.getKeyChar();
+            int old = values[selected];
+            if (key >= '1' && key <= '9')
+            {
+                setValue(row, col, key - '0');
+            }
+            else if (code == KeyEvent.VK_BACK_SPACE || code == KeyEvent.VK_DELETE || key == '0')
+            {
+                setValue(row, col, SudokuGridGenerator.EMPTY_SQUARE);
+            }
+            if (values[selected] != old)
+            {
+                fireStateChanged();
+            }
+        }
+    }
+
+    /**
+     * Repaint the area of one cell, including the grid lines around it.
+     * 
+     * @param cell the flattened cell index.
+     */
+    private void repaintCell(int cell)
+    {
+        Rectangle bounds = cellBounds(cell);
+        repaint(bounds.x - 2, bounds.y - 2, bounds.width + 4, bounds.height + 4);
+    }
+
+    private Rectangle cellBounds(int cell)
+    {
+        int row = cell / GRID_SIZE;
+        int col = cell % GRID_SIZE;
+        int x = col * getWidth() / GRID_SIZE;
+        int y = row * getHeight() / GRID_SIZE;
+        return new Rectangle(x, y, (col + 1) * getWidth() / GRID_SIZE - x, (row + 1) * getHeight() / GRID_SIZE - y);
+    }
+
+    /**
+     * Paint the cells that intersect the clip area, then the grid lines.
+     * 
+     * @param graphics the graphics context.
+     */
+    @Override
+    protected void paintComponent(Graphics graphics)
+    {
+        Graphics2D g = (Graphics2D) graphics;
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null)
+        {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setFont(NUMBER_FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        for (int cell = 0; cell < CELL_COUNT; cell++)
+        {
+            Rectangle bounds = cellBounds(cell);
+            if (!bounds.intersects(clip))
+            {
+                continue;
+            }
+            g.setColor(cell == selected ? SELECTED_BACKGROUND : conflict[cell] ? CONFLICT_BACKGROUND : CELL_BACKGROUND);
+            g.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+            if (values[cell] != SudokuGridGenerator.EMPTY_SQUARE)
+            {
+                String text = DIGIT_TEXT[values[cell]];
+                g.setColor(incorrect[cell] ? INCORRECT_NUMBER : CORRECT_NUMBER);
+                int textX = bounds.x + (bounds.width - metrics.stringWidth(text)) / 2;
+                int textY = bounds.y + (bounds.height - metrics.getHeight()) / 2 + metrics.getAscent();
+                g.drawString(text, textX, textY);
+            }
+            else if (autoNotes)
+            {
+                paintNotes(g, bounds, candidates.getCandidates(cell / GRID_SIZE, cell % GRID_SIZE));
+                g.setFont(NUMBER_FONT);
+            }
+        }
+        paintGridLines(g);
+    }
+
+    /**
+     * Paint the candidates of an empty cell as small digits, each in its place
+     * of a 3x3 layout inside the cell.
+     * 
+     * @param g          the graphics context.
+     * @param bounds     the bounds of the cell.
+     * @param candidates the candidate digit mask.
+     */
+    private void paintNotes(Graphics2D g, Rectangle bounds, int candidates)
+    {
+        if (candidates == 0)
+        {
+            return;
+        }
+        g.setFont(NOTE_FONT);
+        g.setColor(NOTE_NUMBER);
+        FontMetrics metrics = g.getFontMetrics();
+        int square = SudokuGridGenerator.SQUARE_SIZE;
+        for (int digit = 1; digit <= SudokuGridGenerator.MAX_NUM; digit++)
+        {
+            if ((candidates & (1 << (digit - 1))) == 0)
+            {
+                continue;
+            }
+            int noteRow = (digit - 1) / square;
+            int noteCol = (digit - 1) % square;
+            String text = DIGIT_TEXT[digit];
+            int textX = bounds.x + (2 * noteCol + 1) * bounds.width / (2 * square) - metrics.stringWidth(text) / 2;
+            int textY = bounds.y + (2 * noteRow + 1) * bounds.height / (2 * square) - metrics.getHeight() / 2
+                    + metrics.getAscent();
+            g.drawString(text, textX, textY);
+        }
+    }
+
+    /**
+     * Paint thin lines between cells and thick lines around each square.
+     * 
+     * @param g the graphics context.
+     */
+    private void paintGridLines(Graphics2D g)
+    {
+        int width = getWidth();
+        int height = getHeight();
+        g.setColor(CELL_LINE);
+        g.setStroke(CELL_STROKE);
+        for (int i = 1; i < GRID_SIZE; i++)
+        {
+            g.drawLine(i * width / GRID_SIZE, 0, i * width / GRID_SIZE, height);
+            g.drawLine(0, i * height / GRID_SIZE, width, i * height / GRID_SIZE);
+        }
+        g.setColor(SQUARE_LINE);
+        g.setStroke(SQUARE_STROKE);
+        // Keep the outer lines inside the component so they are not clipped.
+        int inset = (int) SQUARE_STROKE.getLineWidth() / 2;
+        for (int i = 0; i <= GRID_SIZE; i += SudokuGridGenerator.SQUARE_SIZE)
+        {
+            int x = Math.max(inset, Math.min(width - inset, i * width / GRID_SIZE));
+            int y = Math.max(inset, Math.min(height - inset, i * height / GRID_SIZE));
+            g.drawLine(x, 0, x, height);
+            g.drawLine(0, y, width, y);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * SudokuGame class
+ * 
+ * This is the main driver for the game.
+ * 
+ * The class starts a SudokuSession, which asks the user for the game mode and difficulty. Further
+ * games are started with the New button of the game window and run in the same session.
+ */
+public class SudokuGame
+{
+    public static void main(String[] args)
+    {
+        SudokuSession session = new SudokuSession();
+        session.newGame();
+    }
+
+}
@@ -0,0 +1,142 @@
+import java.awt.BorderLayout;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+
+/**
+ * This class creates the actual GUI that the game will be played on. This is similar
+ * to the SudokuBoardFrame class but is edited for manual board creation.
+ * 
+ * The class extends JFrame and creates an editable GUI.
+ */
+public class SudokuManualBoard extends JFrame
+{
+    private static final int GRID_SIZE = 9;
+    private static final int CELL_SIZE = 50;
+
+    public static final int FRAME_WIDTH = CELL_SIZE * GRID_SIZE;
+    public static final int FRAME_HEIGHT = CELL_SIZE * GRID_SIZE;
+
+    private static final Font BUTTON_FONT = new Font("Monospaced", Font.BOLD, 10);
+
+    private JButton completeGame;
+
+    private SudokuBoardPanel boardPanel;
+    private SudokuSession session;
+    private SudokuBaseGrid baseGrid;
+    private Container board;
+    private JPanel buttonRow;
+
+    /**
+     * Create base GUI and initialize all elements on the GUI
+     * 
+     * @param session  the session that plays the board once it is entered
+     * @param baseGrid the baseGrid that will be filled out
+     */
+    public SudokuManualBoard(SudokuSession session, SudokuBaseGrid baseGrid)
+    {
+        this.session = session;
+        this.baseGrid = baseGrid;
+        board = getContentPane();
+        board.setLayout(new BorderLayout());
+
+        buttonRow = new JPanel(new GridLayout(1, GRID_SIZE));
+        buttonRow.setPreferredSize(new Dimension(FRAME_WIDTH, CELL_SIZE));
+        for (int col = 0; col < GRID_SIZE; col++)
+        {
+            setButtons(0, col);
+        }
+        boardPanel = new SudokuBoardPanel();
+        board.add(buttonRow, BorderLayout.NORTH);
+        board.add(boardPanel, BorderLayout.CENTER);
+        pack();
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setTitle("Sudoku Manual Entry");
+        setVisible(true);
+    }
+
+    /**
+     * Set the buttons for the GUI at the top of the GUI and make them clickable.
+     * 
+     * @param row  the row index
+     * @param col  the column index
+     */
+    private void setButtons(int row, int col)
+    {
+        // Create a finish button that the user can click to validate their board and play on it.
+        if (row == 0 && col == 4)
+        {
+            completeGame = new JButton("Finish");
+            completeGame.setFont(BUTTON_FONT);
+            completeGame.addActionListener(new ActionListener()
+            {
+                public void actionPerformed(ActionEvent event)
+                {
+                    if(validBoard())
+                    {
+                        setBoard();
+                        setVisible(false);
+                        session.play();
+                    }
+                    else
+                    {
+                        JOptionPane.showMessageDialog(null, "The board is invalid. Please enter a valid Sudoku game board.", 
+                                "Sudoku Game", JOptionPane.ERROR_MESSAGE);
+                        boardPanel.clearEntries();
+                    }
+                    
+                }
+            });
+            buttonRow.add(completeGame);
+        }
+        else
+        {
+            buttonRow.add(new JPanel());
+        }
+
+    }
+
+    /**
+     * Clear the entries so that another board can be entered, and show the
+     * frame again.
+     */
+    public void reset()
+    {
+        boardPanel.clearEntries();
+        setVisible(true);
+    }
+
+    /**
+     * Set the actual entry fields so that they can be editable - these are the tiles 
+     * in the Sudoku game.
+     */
+    private SudokuGridGenerator setBoard()
+    {
+        SudokuGridGenerator gridGen = baseGrid.getGridGen();
+        boardPanel.getBoard(gridGen.getBoard());
+        return gridGen;
+    }
+    
+    /**
+     * Check that the board that the user entered is valid.
+     * 
+     * @return a boolean to determine if it is viable or not.
+     */
+    private boolean validBoard()
+    {
+        setBoard();
+        if (!baseGrid.getGridGen().validGameBoardManual())
+        {
+            return false;
+        } 
+        return true;
+    }
+
+}
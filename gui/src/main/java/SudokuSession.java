@@ -0,0 +1,147 @@
+import java.awt.Component;
+import javax.swing.JOptionPane;
+
+/**
+ * SudokuSession class
+ * 
+ * Runs every game of one process. The session owns a single generator, base
+ * grid, game frame, and manual entry frame, and a new game reuses all of them:
+ * the generator fills its own board again, the base grid copies it into the
+ * arrays it already has, and the frames only reload their cells. Nothing is
+ * left behind from the previous game, so memory stays flat over a long
+ * session, and the solver code is already compiled when the next game starts.
+ * 
+ * All methods must be called on the same thread, normally the event dispatch
+ * thread once the first game is showing.
+ */
+public class SudokuSession
+{
+    private final SudokuGridGenerator generator;
+    private final SudokuBaseGrid baseGrid;
+    private SudokuBoardFrame boardFrame;
+    private SudokuManualBoard manualBoard;
+
+    /**
+     * Create a session. No window is shown until the first game starts.
+     */
+    public SudokuSession()
+    {
+        generator = new SudokuGridGenerator();
+        baseGrid = new SudokuBaseGrid(generator);
+    }
+
+    /**
+     * Ask the player for the game mode and start a new game. If the player
+     * cancels, the current game, if any, goes on.
+     */
+    public void newGame()
+    {
+        // User prompts to create the game based on possible game types.
+        Object[] gameMode = {"Manual", "Automatic"};
+        String modeMessage = "Please select the game mode: \n\n" + "Automatic creates a random board. \n"
+                + "Manual allows you to create your own board.";
+        String modeTitle = "Sudoku Game Mode";
+        int jOptionMode = JOptionPane.showOptionDialog(parent(), modeMessage, modeTitle, JOptionPane.YES_NO_OPTION,
+                JOptionPane.PLAIN_MESSAGE, null, gameMode, null);
+        // Create a game board automatically.
+        if (jOptionMode == 1)
+        {
+            automaticBoardGame();
+        }
+        // Allow the user to create a manual game board.
+        else if (jOptionMode == 0)
+        {
+            int manualEntry = JOptionPane.showConfirmDialog(parent(), "Please enter a valid Sudoku game board.",
+                    "Sudoku Game", JOptionPane.PLAIN_MESSAGE);
+            if (manualEntry == 0)
+            {
+                startManual();
+            }
+        }
+    }
+
+    /**
+     * Ask the player for the difficulty and start a random game.
+     */
+    private void automaticBoardGame()
+    {
+        // Create easy, medium, and hard buttons for the game difficulty.
+        Object[] gameType = {"Hard", "Medium", "Easy"};
+        String typeMessage = "Please select the game type:";
+        String typeTitle = "Sudoku Game Type";
+        int jOptionType = JOptionPane.showOptionDialog(parent(), typeMessage, typeTitle, JOptionPane.YES_NO_OPTION,
+                JOptionPane.PLAIN_MESSAGE, null, gameType, null);
+        // Create the game based on difficulty chosen by the user.
+        if (jOptionType == 2)
+        {
+            startAutomatic("easy");
+        }
+        else if (jOptionType == 1)
+        {
+            startAutomatic("medium");
+        }
+        else if (jOptionType == 0)
+        {
+            startAutomatic("hard");
+        }
+    }
+
+    /**
+     * Fill in a random board and play it.
+     * 
+     * @param gameDifficulty the game difficulty chosen by the user.
+     */
+    public void startAutomatic(String gameDifficulty)
+    {
+        generator.setGameType(gameDifficulty);
+        // Create a completely filled Sudoku grid.
+        generator.populateFullBoard();
+        // Remove random numbers from the grid to create an initial Sudoku board.
+        generator.finalizeBoard();
+        play();
+    }
+
+    /**
+     * Show the manual entry frame with an empty board. Once the player has
+     * entered a valid board, the frame calls play.
+     */
+    public void startManual()
+    {
+        generator.resetBoard();
+        if (boardFrame != null)
+        {
+            boardFrame.setVisible(false);
+        }
+        if (manualBoard == null)
+        {
+            manualBoard = new SudokuManualBoard(this, baseGrid);
+        }
+        else
+        {
+            manualBoard.reset();
+        }
+    }
+
+    /**
+     * Play the puzzle on the generator's board in the game frame, which is
+     * created for the first game and reused after that.
+     */
+    public void play()
+    {
+        baseGrid.reload();
+        if (boardFrame == null)
+        {
+            boardFrame = new SudokuBoardFrame(this, baseGrid);
+        }
+        else
+        {
+            boardFrame.loadGame();
+            boardFrame.setVisible(true);
+        }
+    }
+
+    private Component parent()
+    {
+        return boardFrame != null && boardFrame.isVisible() ? boardFrame : null;
+    }
+}
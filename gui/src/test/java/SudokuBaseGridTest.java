@@ -0,0 +1,52 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SudokuBaseGridTest class
+ * 
+ * Checks that a base grid reused for a new game never hands out the solution
+ * of the previous game.
+ */
+class SudokuBaseGridTest
+{
+    private static final String VALID = "000098000006700000027050400003020000059006042061570900002000007000000080190000060";
+    // The same digit twice in the first row.
+    private static final String UNSOLVABLE = "11000000000000000000000000000000000000000"
+            + "0000000000000000000000000000000000000000";
+
+    @Test
+    void unsolvableBoardAfterValidGameHasNoSolution()
+    {
+        SudokuGridGenerator generator = new SudokuGridGenerator();
+        load(generator, VALID);
+        SudokuBaseGrid baseGrid = new SudokuBaseGrid(generator);
+        int[][] expected = new int[9][9];
+        SudokuSolver.solve(generator.getBoard(), expected);
+        int[][] first = baseGrid.getSolvedGrid();
+        assertNotNull(first);
+        assertArrayEquals(expected, first);
+
+        load(generator, UNSOLVABLE);
+        baseGrid.reload();
+        assertNull(baseGrid.getSolvedGrid());
+        // The array of the first game was cleared rather than left behind.
+        assertArrayEquals(new int[9][9], first);
+        assertNull(baseGrid.getSolvedGrid());
+
+        load(generator, VALID);
+        baseGrid.reload();
+        assertArrayEquals(expected, baseGrid.getSolvedGrid());
+    }
+
+    private static void load(SudokuGridGenerator generator, String text)
+    {
+        int[][] board = generator.getBoard();
+        for (int cell = 0; cell < 81; cell++)
+        {
+            board[cell / 9][cell % 9] = text.charAt(cell) - '0';
+        }
+    }
+}